@@ -0,0 +1,114 @@
+package dev.morphia.benchmarks;
+
+import com.mongodb.lang.Nullable;
+import org.bson.Document;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares a JMH json result file with a baseline recorded earlier, e.g. by copying {@code target/jmh-result.json} from a run on the
+ * main branch.  A benchmark regresses when its score or, with {@code -prof gc}, its allocation per operation is worse than the
+ * baseline by more than the threshold percentage.  Allocations are largely independent of the machine but scores are only comparable
+ * with a baseline recorded on the same machine.
+ * <p>
+ * The baseline is read from the {@code jmh.baseline} system property and the comparison is skipped when it is not set.  The threshold
+ * is read from {@code jmh.threshold} and defaults to 10 percent.
+ */
+public final class BaselineComparison {
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    private static final double ALLOCATION_SLACK = 16;
+
+    private BaselineComparison() {
+    }
+
+    /**
+     * Compares the results and exits with a non-zero status if any benchmark regressed
+     *
+     * @param args the path of the JMH json result file
+     * @throws IOException if either file can't be read
+     */
+    public static void main(String[] args) throws IOException {
+        String baseline = System.getProperty("jmh.baseline", "");
+        if (baseline.isBlank()) {
+            System.out.println("No jmh.baseline given, skipping the baseline comparison");
+            return;
+        }
+        String threshold = System.getProperty("jmh.threshold", "");
+        List<String> regressions = compare(read(Paths.get(args[0])), read(Paths.get(baseline)),
+            threshold.isBlank() ? 10 : Double.parseDouble(threshold));
+        regressions.forEach(System.out::println);
+        if (!regressions.isEmpty()) {
+            System.out.printf("%d regression(s) against %s%n", regressions.size(), baseline);
+            System.exit(1);
+        }
+        System.out.println("No regressions against " + baseline);
+    }
+
+    static List<String> compare(Map<String, Document> results, Map<String, Document> baseline, double threshold) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Document> entry : results.entrySet()) {
+            Document expected = baseline.get(entry.getKey());
+            if (expected == null) {
+                continue;
+            }
+            Document actual = entry.getValue();
+            boolean throughput = "thrpt".equals(actual.getString("mode"));
+            Double before = score(expected.get("primaryMetric", Document.class));
+            Double after = score(actual.get("primaryMetric", Document.class));
+            if (before != null && after != null
+                && (throughput ? after < before * (1 - threshold / 100) : after > before * (1 + threshold / 100))) {
+                regressions.add(describe(entry.getKey(), "score", before, after));
+            }
+
+            before = allocation(expected);
+            after = allocation(actual);
+            if (before != null && after != null && after > before * (1 + threshold / 100) + ALLOCATION_SLACK) {
+                regressions.add(describe(entry.getKey(), "B/op", before, after));
+            }
+        }
+        return regressions;
+    }
+
+    static Map<String, Document> read(Path path) throws IOException {
+        String json = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        Map<String, Document> results = new LinkedHashMap<>();
+        for (Document result : Document.parse("{results: " + json + "}").getList("results", Document.class)) {
+            Document params = result.get("params", Document.class);
+            results.put(params == null ? result.getString("benchmark") : result.getString("benchmark") + " " + params.toJson(), result);
+        }
+        return results;
+    }
+
+    @Nullable
+    private static Double allocation(Document result) {
+        Document secondary = result.get("secondaryMetrics", Document.class);
+        if (secondary != null) {
+            for (Map.Entry<String, Object> metric : secondary.entrySet()) {
+                if (metric.getKey().endsWith(ALLOCATION)) {
+                    return score((Document) metric.getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String describe(String benchmark, String metric, double before, double after) {
+        return String.format(Locale.ROOT, "%s: %s %.3f -> %.3f (%+.1f%%)", benchmark, metric, before, after,
+            before == 0 ? 100 : (after - before) * 100 / before);
+    }
+
+    @Nullable
+    private static Double score(@Nullable Document metric) {
+        Object score = metric == null ? null : metric.get("score");
+        return score instanceof Number ? ((Number) score).doubleValue() : null;
+    }
+}
@@ -0,0 +1,46 @@
+package dev.morphia.benchmarks;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import dev.morphia.Datastore;
+import dev.morphia.Morphia;
+import dev.morphia.benchmarks.models.Flat;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Holds a datastore with the benchmark models mapped.  The client connects lazily and none of the benchmarks issue commands so no
+ * server is needed.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkState {
+    private MongoClient client;
+    private Datastore datastore;
+
+    /**
+     * Creates the datastore and maps the models
+     */
+    @Setup
+    public void setup() {
+        client = MongoClients.create();
+        datastore = Morphia.createDatastore(client, "benchmarks");
+        datastore.getMapper().mapPackageFromClass(Flat.class);
+    }
+
+    /**
+     * Closes the client
+     */
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    /**
+     * @return the datastore
+     */
+    public Datastore getDatastore() {
+        return datastore;
+    }
+}
@@ -0,0 +1,109 @@
+package dev.morphia.benchmarks;
+
+import dev.morphia.mapping.Mapper;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures entity encoding and decoding, both against the binary BSON reader and writer the driver uses on the wire and against the
+ * {@code DocumentWriter} and {@code DocumentReader} used by {@link Mapper#toDocument(Object)} and
+ * {@link Mapper#fromDocument(Class, Document)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+    private static final EncoderContext ENCODER_CONTEXT = EncoderContext.builder().isEncodingCollectibleDocument(true).build();
+    private static final DecoderContext DECODER_CONTEXT = DecoderContext.builder().build();
+
+    @Param({"FLAT", "NESTED", "POLYMORPHIC", "REFERENCE"})
+    private Model model;
+
+    private Mapper mapper;
+    private Object entity;
+    private Codec<Object> encoder;
+    private Codec<?> decoder;
+    private byte[] bytes;
+    private Document document;
+
+    /**
+     * Creates the entity and its encoded forms
+     *
+     * @param state the datastore state
+     */
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup(BenchmarkState state) {
+        mapper = state.getDatastore().getMapper();
+        entity = model.create(42);
+        encoder = (Codec<Object>) mapper.getCodecRegistry().get(entity.getClass());
+        decoder = mapper.getCodecRegistry().get(model.getType());
+
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            encoder.encode(writer, entity, ENCODER_CONTEXT);
+        }
+        bytes = buffer.toByteArray();
+        document = mapper.toDocument(entity);
+    }
+
+    /**
+     * @return the encoded size
+     */
+    @Benchmark
+    public int encodeBinary() {
+        BasicOutputBuffer buffer = new BasicOutputBuffer(bytes.length);
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            encoder.encode(writer, entity, ENCODER_CONTEXT);
+        }
+        return buffer.getSize();
+    }
+
+    /**
+     * @return the decoded entity
+     */
+    @Benchmark
+    public Object decodeBinary() {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bytes))) {
+            return decoder.decode(reader, DECODER_CONTEXT);
+        }
+    }
+
+    /**
+     * @return the encoded document
+     */
+    @Benchmark
+    public Document encodeDocument() {
+        return mapper.toDocument(entity);
+    }
+
+    /**
+     * @return the decoded entity
+     */
+    @Benchmark
+    public Object decodeDocument() {
+        return mapper.fromDocument(model.getType(), document);
+    }
+}
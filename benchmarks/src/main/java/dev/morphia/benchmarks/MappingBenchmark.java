@@ -0,0 +1,113 @@
+package dev.morphia.benchmarks;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import dev.morphia.Datastore;
+import dev.morphia.Morphia;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.mapping.MapperOptions;
+import dev.morphia.mapping.codec.pojo.EntityModel;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the startup cost of mapping a model of generated entity hierarchies into a fresh datastore, sequentially and with
+ * {@link MapperOptions#isParallelMapping()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+    private static final int SUBTYPES = 9;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    @Param({"10", "40"})
+    private int hierarchies;
+
+    private MongoClient client;
+    private MapperOptions options;
+    private List<Class> types;
+
+    /**
+     * Generates the entity hierarchies
+     */
+    @Setup
+    public void setup() {
+        client = MongoClients.create();
+        options = MapperOptions.builder()
+                               .parallelMapping(parallel)
+                               .build();
+        types = new ArrayList<>();
+        for (int i = 0; i < hierarchies; i++) {
+            Class<?> base = new ByteBuddy()
+                                .subclass(Object.class)
+                                .name("dev.morphia.benchmarks.generated.Base" + i)
+                                .annotateType(AnnotationDescription.Builder.ofType(Entity.class)
+                                                                           .define("value", "base" + i)
+                                                                           .build())
+                                .defineField("id", ObjectId.class, Visibility.PRIVATE)
+                                .annotateField(AnnotationDescription.Builder.ofType(Id.class).build())
+                                .defineField("name", String.class, Visibility.PRIVATE)
+                                .make()
+                                .load(getClass().getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                                .getLoaded();
+            types.add(base);
+            for (int j = 0; j < SUBTYPES; j++) {
+                types.add(new ByteBuddy()
+                              .subclass(base)
+                              .name(base.getName() + "Child" + j)
+                              .annotateType(AnnotationDescription.Builder.ofType(Entity.class).build())
+                              .defineField("value" + j, String.class, Visibility.PRIVATE)
+                              .defineField("count" + j, int.class, Visibility.PRIVATE)
+                              .make()
+                              .load(base.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                              .getLoaded());
+            }
+        }
+        Collections.shuffle(types, new Random(42));
+    }
+
+    /**
+     * Closes the client
+     */
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    /**
+     * @return the mapped models
+     */
+    @Benchmark
+    public List<EntityModel> map() {
+        Datastore datastore = Morphia.createDatastore(client, "benchmarks", options);
+        return datastore.getMapper().map(types);
+    }
+}
@@ -0,0 +1,54 @@
+package dev.morphia.benchmarks;
+
+import dev.morphia.benchmarks.models.Circle;
+import dev.morphia.benchmarks.models.Flat;
+import dev.morphia.benchmarks.models.Nested;
+import dev.morphia.benchmarks.models.Rectangle;
+import dev.morphia.benchmarks.models.Shape;
+import dev.morphia.benchmarks.models.WithReference;
+
+/**
+ * The entity shapes the codec benchmarks are parameterized over
+ */
+public enum Model {
+    FLAT(Flat.class) {
+        @Override
+        Object create(int seed) {
+            return new Flat(seed);
+        }
+    },
+    NESTED(Nested.class) {
+        @Override
+        Object create(int seed) {
+            return new Nested(seed);
+        }
+    },
+    POLYMORPHIC(Shape.class) {
+        @Override
+        Object create(int seed) {
+            return seed % 2 == 0 ? new Circle("red", seed) : new Rectangle("blue", seed, seed + 1);
+        }
+    },
+    REFERENCE(WithReference.class) {
+        @Override
+        Object create(int seed) {
+            return new WithReference(seed);
+        }
+    };
+
+    private final Class<?> type;
+
+    Model(Class<?> type) {
+        this.type = type;
+    }
+
+    /**
+     * @return the type to decode with.  For polymorphic models this is the root of the hierarchy so the discriminator lookup is
+     *     included in the measurement.
+     */
+    Class<?> getType() {
+        return type;
+    }
+
+    abstract Object create(int seed);
+}
@@ -0,0 +1,116 @@
+package dev.morphia.benchmarks;
+
+import dev.morphia.Datastore;
+import dev.morphia.benchmarks.models.Flat;
+import dev.morphia.benchmarks.models.Nested;
+import dev.morphia.internal.PathTarget;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.codec.pojo.EntityModel;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static dev.morphia.query.experimental.filters.Filters.elemMatch;
+import static dev.morphia.query.experimental.filters.Filters.eq;
+import static dev.morphia.query.experimental.filters.Filters.gt;
+import static dev.morphia.query.experimental.filters.Filters.gte;
+import static dev.morphia.query.experimental.filters.Filters.in;
+import static dev.morphia.query.experimental.filters.Filters.lt;
+
+/**
+ * Measures building query documents from {@code Filters} and translating property paths to their mapped field names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark {
+    private static final List<String> TAGS = List.of("red", "green", "blue", "yellow", "purple");
+
+    private Datastore datastore;
+    private Mapper mapper;
+    private EntityModel nested;
+
+    /**
+     * Captures the mapped state
+     *
+     * @param state the datastore state
+     */
+    @Setup
+    public void setup(BenchmarkState state) {
+        datastore = state.getDatastore();
+        mapper = datastore.getMapper();
+        nested = mapper.getEntityModel(Nested.class);
+    }
+
+    /**
+     * @return the query document
+     */
+    @Benchmark
+    public Document equality() {
+        return datastore.find(Flat.class)
+                        .filter(eq("name", "flat-42"))
+                        .toDocument();
+    }
+
+    /**
+     * @return the query document
+     */
+    @Benchmark
+    public Document range() {
+        return datastore.find(Flat.class)
+                        .filter(gte("count", 10), lt("count", 100))
+                        .toDocument();
+    }
+
+    /**
+     * @return the query document
+     */
+    @Benchmark
+    public Document inList() {
+        return datastore.find(Flat.class)
+                        .filter(in("tags", TAGS))
+                        .toDocument();
+    }
+
+    /**
+     * @return the query document
+     */
+    @Benchmark
+    public Document nestedPath() {
+        return datastore.find(Nested.class)
+                        .filter(eq("address.city", "Springfield"))
+                        .toDocument();
+    }
+
+    /**
+     * @return the query document
+     */
+    @Benchmark
+    public Document elementMatch() {
+        return datastore.find(Nested.class)
+                        .filter(elemMatch("items", eq("sku", "sku-4"), gt("quantity", 2)))
+                        .toDocument();
+    }
+
+    /**
+     * @return the translated path
+     */
+    @Benchmark
+    public String pathTarget() {
+        return new PathTarget(mapper, nested, "items.quantity").translatedPath();
+    }
+}
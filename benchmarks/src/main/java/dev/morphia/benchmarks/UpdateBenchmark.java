@@ -0,0 +1,72 @@
+package dev.morphia.benchmarks;
+
+import dev.morphia.Datastore;
+import dev.morphia.benchmarks.models.Address;
+import dev.morphia.benchmarks.models.Flat;
+import dev.morphia.benchmarks.models.Nested;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static dev.morphia.query.experimental.filters.Filters.eq;
+import static dev.morphia.query.experimental.updates.UpdateOperators.inc;
+import static dev.morphia.query.experimental.updates.UpdateOperators.push;
+import static dev.morphia.query.experimental.updates.UpdateOperators.set;
+
+/**
+ * Measures building update documents from {@code UpdateOperators}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpdateBenchmark {
+    private final ObjectId id = new ObjectId();
+    private final Address address = new Address("1 Main Street", "Springfield", "01234");
+    private Datastore datastore;
+
+    /**
+     * Captures the mapped state
+     *
+     * @param state the datastore state
+     */
+    @Setup
+    public void setup(BenchmarkState state) {
+        datastore = state.getDatastore();
+    }
+
+    /**
+     * @return the update document
+     */
+    @Benchmark
+    public Document scalars() {
+        return datastore.find(Flat.class)
+                        .filter(eq("_id", id))
+                        .update(set("name", "updated"), inc("count"), push("tags", "orange"))
+                        .toDocument();
+    }
+
+    /**
+     * @return the update document
+     */
+    @Benchmark
+    public Document embedded() {
+        return datastore.find(Nested.class)
+                        .filter(eq("_id", id))
+                        .update(set("address", address), set("items.0.quantity", 5))
+                        .toDocument();
+    }
+}
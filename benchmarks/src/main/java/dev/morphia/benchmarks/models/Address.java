@@ -0,0 +1,34 @@
+package dev.morphia.benchmarks.models;
+
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Property;
+
+/**
+ * An embedded address
+ */
+@Entity
+public class Address {
+    private String street;
+    @Property("c")
+    private String city;
+    private String zip;
+
+    /**
+     * Creates an empty instance
+     */
+    public Address() {
+    }
+
+    /**
+     * Creates a populated instance
+     *
+     * @param street the street
+     * @param city   the city
+     * @param zip    the zip code
+     */
+    public Address(String street, String city, String zip) {
+        this.street = street;
+        this.city = city;
+        this.zip = zip;
+    }
+}
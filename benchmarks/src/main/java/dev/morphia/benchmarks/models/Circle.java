@@ -0,0 +1,28 @@
+package dev.morphia.benchmarks.models;
+
+import dev.morphia.annotations.Entity;
+
+/**
+ * A circle
+ */
+@Entity
+public class Circle extends Shape {
+    private double radius;
+
+    /**
+     * Creates an empty instance
+     */
+    public Circle() {
+    }
+
+    /**
+     * Creates a circle
+     *
+     * @param color  the color
+     * @param radius the radius
+     */
+    public Circle(String color, double radius) {
+        super(color);
+        this.radius = radius;
+    }
+}
@@ -0,0 +1,50 @@
+package dev.morphia.benchmarks.models;
+
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import org.bson.types.ObjectId;
+
+import java.util.List;
+
+/**
+ * An entity with only scalar properties.
+ */
+@Entity("flat")
+public class Flat {
+    @Id
+    private ObjectId id;
+    private String name;
+    private int count;
+    private double price;
+    private boolean active;
+    private long created;
+    private List<String> tags;
+
+    /**
+     * Creates an empty instance
+     */
+    public Flat() {
+    }
+
+    /**
+     * Creates a populated instance
+     *
+     * @param seed the value used to vary the contents
+     */
+    public Flat(int seed) {
+        id = new ObjectId();
+        name = "flat-" + seed;
+        count = seed;
+        price = seed * 1.5;
+        active = seed % 2 == 0;
+        created = 1_600_000_000_000L + seed;
+        tags = List.of("red", "green", "blue-" + seed);
+    }
+
+    /**
+     * @return the ID
+     */
+    public ObjectId getId() {
+        return id;
+    }
+}
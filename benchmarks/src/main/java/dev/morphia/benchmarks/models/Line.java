@@ -0,0 +1,34 @@
+package dev.morphia.benchmarks.models;
+
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Property;
+
+/**
+ * An embedded order line
+ */
+@Entity
+public class Line {
+    private String sku;
+    @Property("qty")
+    private int quantity;
+    private double price;
+
+    /**
+     * Creates an empty instance
+     */
+    public Line() {
+    }
+
+    /**
+     * Creates a populated instance
+     *
+     * @param sku      the sku
+     * @param quantity the quantity
+     * @param price    the unit price
+     */
+    public Line(String sku, int quantity, double price) {
+        this.sku = sku;
+        this.quantity = quantity;
+        this.price = price;
+    }
+}
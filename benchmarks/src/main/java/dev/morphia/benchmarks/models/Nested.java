@@ -0,0 +1,44 @@
+package dev.morphia.benchmarks.models;
+
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An entity with embedded documents, lists of embedded documents and a map.
+ */
+@Entity("nested")
+public class Nested {
+    @Id
+    private ObjectId id;
+    private String name;
+    private Address address;
+    private List<Line> items;
+    private Map<String, Integer> counts;
+
+    /**
+     * Creates an empty instance
+     */
+    public Nested() {
+    }
+
+    /**
+     * Creates a populated instance
+     *
+     * @param seed the value used to vary the contents
+     */
+    public Nested(int seed) {
+        id = new ObjectId();
+        name = "nested-" + seed;
+        address = new Address(seed + " Main Street", "Springfield", "0" + seed);
+        items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            items.add(new Line("sku-" + i, i + seed, i * 2.5));
+        }
+        counts = Map.of("views", seed, "likes", seed * 2, "shares", seed * 3);
+    }
+}
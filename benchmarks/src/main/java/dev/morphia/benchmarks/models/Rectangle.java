@@ -0,0 +1,31 @@
+package dev.morphia.benchmarks.models;
+
+import dev.morphia.annotations.Entity;
+
+/**
+ * A rectangle
+ */
+@Entity
+public class Rectangle extends Shape {
+    private double width;
+    private double height;
+
+    /**
+     * Creates an empty instance
+     */
+    public Rectangle() {
+    }
+
+    /**
+     * Creates a rectangle
+     *
+     * @param color  the color
+     * @param width  the width
+     * @param height the height
+     */
+    public Rectangle(String color, double width, double height) {
+        super(color);
+        this.width = width;
+        this.height = height;
+    }
+}
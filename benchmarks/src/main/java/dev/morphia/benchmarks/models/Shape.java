@@ -0,0 +1,30 @@
+package dev.morphia.benchmarks.models;
+
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import org.bson.types.ObjectId;
+
+/**
+ * The root of a polymorphic hierarchy stored in a single collection.
+ */
+@Entity("shapes")
+public abstract class Shape {
+    @Id
+    private ObjectId id = new ObjectId();
+    private String color;
+
+    /**
+     * Creates an empty instance
+     */
+    protected Shape() {
+    }
+
+    /**
+     * Creates a colored shape
+     *
+     * @param color the color
+     */
+    protected Shape(String color) {
+        this.color = color;
+    }
+}
@@ -0,0 +1,45 @@
+package dev.morphia.benchmarks.models;
+
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.mapping.experimental.MorphiaReference;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.morphia.mapping.experimental.MorphiaReference.wrap;
+
+/**
+ * An entity referencing other entities.  The references are lazy so decoding never touches the database.
+ */
+@Entity("references")
+public class WithReference {
+    @Id
+    private ObjectId id;
+    private String name;
+    private MorphiaReference<Flat> owner;
+    private MorphiaReference<List<Flat>> related;
+
+    /**
+     * Creates an empty instance
+     */
+    public WithReference() {
+    }
+
+    /**
+     * Creates a populated instance
+     *
+     * @param seed the value used to vary the contents
+     */
+    public WithReference(int seed) {
+        id = new ObjectId();
+        name = "references-" + seed;
+        owner = wrap(new Flat(seed));
+        List<Flat> list = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            list.add(new Flat(seed + i));
+        }
+        related = wrap(list);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * The entities exercised by the benchmarks
+ */
+package dev.morphia.benchmarks.models;
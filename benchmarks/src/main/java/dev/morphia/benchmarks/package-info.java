@@ -0,0 +1,4 @@
+/**
+ * JMH benchmarks for the mapping and query hot paths.  None of them need a running server.
+ */
+package dev.morphia.benchmarks;
@@ -26,6 +26,8 @@ import dev.morphia.query.experimental.updates.UpdateOperator;
 import dev.morphia.transactions.experimental.MorphiaTransaction;
 import org.bson.Document;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -164,6 +166,22 @@ public interface Datastore {
      */
     void ensureIndexes();
 
+    /**
+     * Ensures (creating if necessary) the indexes found during class mapping.  The indexes already defined on each collection are
+     * listed and compared to those declared on the mapped entities.  Only the missing indexes are created, with one command per
+     * collection.  Creating an index which exists with different options fails with the server's error unless
+     * {@link EnsureIndexesOptions#recreateChanged(boolean)} or {@link EnsureIndexesOptions#skipChanged(boolean)} is set.
+     *
+     * @param options the options to apply
+     * @return the indexes which were missing or differ from their declaration.  If {@link EnsureIndexesOptions#dryRun(boolean)} is set,
+     * nothing is created and only this list is computed.
+     * @see Indexes
+     * @see Indexed
+     * @see Text
+     * @since 2.2
+     */
+    List<IndexChange> ensureIndexes(EnsureIndexesOptions options);
+
     /**
      * Ensures (creating if necessary) the indexes found during class mapping
      *
@@ -175,6 +193,36 @@ public interface Datastore {
      */
     <T> void ensureIndexes(Class<T> clazz);
 
+    /**
+     * Writes every stored entity of a type to a file as concatenated BSON documents, the format written by {@code mongodump}.  The
+     * documents are copied as stored without being decoded.
+     *
+     * @param type the entity type
+     * @param path the file to write
+     * @param <T>  the entity type
+     * @return the number of documents written
+     * @throws IOException if the file can not be written
+     * @see #load(Class, Path, LoadOptions)
+     * @since 2.2
+     */
+    default <T> long export(Class<T> type, Path path) throws IOException {
+        return export(find(type), path);
+    }
+
+    /**
+     * Writes the documents matching a query to a file as concatenated BSON documents, the format written by {@code mongodump}.  The
+     * documents are copied as stored without being decoded.
+     *
+     * @param query the query selecting the documents
+     * @param path  the file to write
+     * @param <T>   the entity type
+     * @return the number of documents written
+     * @throws IOException if the file can not be written
+     * @see #load(Class, Path, LoadOptions)
+     * @since 2.2
+     */
+    <T> long export(Query<T> query, Path path) throws IOException;
+
     /**
      * Find all instances by type
      *
@@ -373,6 +421,38 @@ public interface Datastore {
      */
     <T> void insert(List<T> entities, InsertManyOptions options);
 
+    /**
+     * Loads the entities in a file of concatenated BSON documents, such as one written by {@link #export(Class, Path)} or
+     * {@code mongodump}, in to the mapped collection.
+     *
+     * @param type the entity type
+     * @param path the file to read
+     * @param <T>  the entity type
+     * @return the number of entities inserted
+     * @throws IOException if the file can not be read or is malformed
+     * @since 2.2
+     */
+    default <T> long load(Class<T> type, Path path) throws IOException {
+        return load(type, path, new LoadOptions());
+    }
+
+    /**
+     * Loads the entities in a file of concatenated BSON documents, such as one written by {@link #export(Class, Path)} or
+     * {@code mongodump}, in to the mapped collection.  Every document is decoded as the given type so the current mapping is applied
+     * and documents which can not be decoded abort the load.  The entities are inserted with unordered {@code insertMany} batches,
+     * sized by their encoded bytes, which are decoded and inserted concurrently.  As batches are inserted independently, a failed load
+     * may leave some of the entities inserted.
+     *
+     * @param type    the entity type
+     * @param path    the file to read
+     * @param options the options to apply
+     * @param <T>     the entity type
+     * @return the number of entities inserted
+     * @throws IOException if the file can not be read or is malformed
+     * @since 2.2
+     */
+    <T> long load(Class<T> type, Path path, LoadOptions options) throws IOException;
+
     /**
      * Work as if you did an update with each field in the entity doing a $set; Only at the top level of the entity.
      *
@@ -571,6 +651,37 @@ public interface Datastore {
                                                     .writeConcern(getMapper().getWriteConcern(query.getEntityClass())));
     }
 
+    /**
+     * Inserts or replaces entities matched by key properties rather than by id.
+     *
+     * @param entities      the entities to upsert
+     * @param keyProperties the properties identifying an entity's document
+     * @param <T>           the type of the entities
+     * @return the outcome of the upsert
+     * @see #upsert(List, UpsertOptions, String...)
+     * @since 2.2
+     */
+    default <T> UpsertResult upsert(List<T> entities, String... keyProperties) {
+        return upsert(entities, new UpsertOptions(), keyProperties);
+    }
+
+    /**
+     * Inserts or replaces entities matched by key properties rather than by id.  Each entity replaces the document whose key properties
+     * hold the same values, or is inserted if there is none, with all the entities of a collection sent in one unordered
+     * {@code bulkWrite}.  An existing document keeps its id.  A new document takes the entity's id if it has one, or is given one, and
+     * the ids of new documents are set on their entities.  Versions are not checked.  The key values must be unique among the entities
+     * of a collection.
+     *
+     * @param entities      the entities to upsert
+     * @param options       the options to apply
+     * @param keyProperties the properties identifying an entity's document.  These use the same property paths as filters do.
+     * @param <T>           the type of the entities
+     * @return the outcome of the upsert
+     * @mongodb.server.release 4.2
+     * @since 2.2
+     */
+    <T> UpsertResult upsert(List<T> entities, UpsertOptions options, String... keyProperties);
+
     /**
      * @param transaction the transaction wrapper
      * @param <T>         the return type
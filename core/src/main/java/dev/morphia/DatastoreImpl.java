@@ -1,6 +1,7 @@
 package dev.morphia;
 
 import com.mongodb.ClientSessionOptions;
+import com.mongodb.ErrorCategory;
 import com.mongodb.MongoCommandException;
 import com.mongodb.MongoWriteException;
 import com.mongodb.client.ClientSession;
@@ -27,23 +28,37 @@ import dev.morphia.mapping.MapperOptions;
 import dev.morphia.mapping.MappingException;
 import dev.morphia.mapping.codec.pojo.EntityModel;
 import dev.morphia.mapping.codec.pojo.PropertyModel;
+import dev.morphia.metrics.MorphiaMetrics;
+import dev.morphia.metrics.MorphiaMetrics.Operation;
 import dev.morphia.query.FindOptions;
+import dev.morphia.query.LoggedQuery;
 import dev.morphia.query.Query;
 import dev.morphia.query.QueryFactory;
+import dev.morphia.query.QueryLogger;
 import dev.morphia.query.UpdateException;
 import dev.morphia.query.ValidationException;
 import dev.morphia.query.experimental.updates.UpdateOperators;
 import dev.morphia.sofia.Sofia;
 import dev.morphia.transactions.experimental.MorphiaTransaction;
+import org.bson.BsonDocument;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static dev.morphia.query.experimental.filters.Filters.eq;
 import static java.lang.String.format;
@@ -124,11 +139,14 @@ public class DatastoreImpl implements AdvancedDatastore {
             throw new MappingException(format(Sofia.deleteWithClass(entity.getClass().getName())));
         }
         Object id = mapper.getId(entity);
-        return id != null
-               ? find(entity.getClass())
-                     .filter(eq("_id", id))
-                     .delete(options)
-               : new NoDeleteResult();
+        if (id == null) {
+            return new NoDeleteResult();
+        }
+        long start = startTime();
+        DeleteResult result = findById(entity, id)
+                                  .delete(options);
+        record(Operation.DELETE, entity.getClass(), 1, start);
+        return result;
     }
 
     @Override
@@ -176,15 +194,74 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     @Override
     public void ensureIndexes() {
+        ensureIndexes(new EnsureIndexesOptions());
+    }
+
+    @Override
+    public List<IndexChange> ensureIndexes(EnsureIndexesOptions options) {
         if (mapper.getMappedEntities().isEmpty()) {
             Sofia.logNoMappedClasses();
         }
-        final IndexHelper indexHelper = new IndexHelper(mapper);
+        Map<String, List<EntityModel>> byCollection = new LinkedHashMap<>();
         for (EntityModel model : mapper.getMappedEntities()) {
             if (model.getIdProperty() != null) {
-                indexHelper.createIndex(mapper.getCollection(model.getType()), model);
+                byCollection.computeIfAbsent(model.getCollectionName(), name -> new ArrayList<>()).add(model);
             }
         }
+
+        final IndexHelper indexHelper = new IndexHelper(mapper);
+        List<Callable<List<IndexChange>>> tasks = new ArrayList<>();
+        for (List<EntityModel> models : byCollection.values()) {
+            tasks.add(() -> indexHelper.ensureIndexes(mapper.getCollection(models.get(0).getType()), models, options));
+        }
+
+        List<IndexChange> changes = new ArrayList<>();
+        int threads = Math.min(options.getParallelism(), tasks.size());
+        if (threads <= 1) {
+            for (Callable<List<IndexChange>> task : tasks) {
+                changes.addAll(call(task));
+            }
+            return changes;
+        }
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "morphia-indexes-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (Future<List<IndexChange>> future : executor.invokeAll(tasks)) {
+                changes.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MappingException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new MappingException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return changes;
+    }
+
+    private static <V> V call(Callable<V> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> long export(Query<T> query, Path path) throws IOException {
+        MongoCollection<RawBsonDocument> collection = mapper.getCollection(query.getEntityClass())
+                                                            .withDocumentClass(RawBsonDocument.class);
+        return EntityTransfer.export(collection.find(query.toDocument()), path);
     }
 
     @Override
@@ -229,11 +306,16 @@ public class DatastoreImpl implements AdvancedDatastore {
     @Override
     public String getLoggedQuery(FindOptions options) {
         if (options.isLogQuery()) {
+            QueryLogger logger = mapper.getOptions().getQueryLogger();
+            LoggedQuery query = logger != null ? logger.getLoggedQuery(options.getQueryLogId()) : null;
+            if (query != null) {
+                BsonDocument filter = query.getFilter();
+                return filter != null ? filter.toJson() : "{}";
+            }
             String json = "{}";
             Document first = getDatabase()
                                  .getCollection("system.profile")
-                                 .find(new Document("command.comment", "logged query: " + options.getQueryLogId()),
-                                     Document.class)
+                                 .find(new Document("command.comment", Sofia.loggedQuery(options.getQueryLogId())), Document.class)
                                  .projection(new Document("command.filter", 1))
                                  .first();
             if (first != null) {
@@ -291,6 +373,7 @@ public class DatastoreImpl implements AdvancedDatastore {
 
     @Override
     public <T> T merge(T entity, InsertOneOptions options) {
+        long start = startTime();
         final Object id = mapper.getId(entity);
         if (id == null) {
             throw new MappingException("Could not get id for " + entity.getClass().getName());
@@ -306,7 +389,7 @@ public class DatastoreImpl implements AdvancedDatastore {
             newVersion = oldVersion == null ? 1L : oldVersion + 1;
         }
 
-        final Query<T> query = (Query<T>) find(entity.getClass()).filter(eq("_id", id));
+        final Query<T> query = findById(entity, id);
         if (newVersion != -1) {
             updateVersion(entity, versionProperty, newVersion);
             query.filter(eq(versionProperty.getMappedName(), oldVersion));
@@ -324,7 +407,9 @@ public class DatastoreImpl implements AdvancedDatastore {
             throw new UpdateException("Nothing updated");
         }
 
-        return (T) find(entity.getClass()).filter(eq("_id", id)).iterator(new FindOptions().limit(1)).next();
+        T merged = findById(entity, id).iterator(new FindOptions().limit(1)).next();
+        record(Operation.MERGE, entity.getClass(), 1, start);
+        return merged;
     }
 
     @Override
@@ -360,13 +445,19 @@ public class DatastoreImpl implements AdvancedDatastore {
         }
 
         for (Entry<MongoCollection, List<T>> entry : grouped.entrySet()) {
+            long start = startTime();
             MongoCollection<T> collection = entry.getKey();
             ClientSession clientSession = options.clientSession();
-            if (clientSession == null) {
-                collection.insertMany(entry.getValue(), options.getOptions());
-            } else {
-                collection.insertMany(clientSession, entry.getValue(), options.getOptions());
+            try {
+                if (clientSession == null) {
+                    collection.insertMany(entry.getValue(), options.getOptions());
+                } else {
+                    collection.insertMany(clientSession, entry.getValue(), options.getOptions());
+                }
+            } finally {
+                mapper.invalidateQueryCache(collection);
             }
+            record(Operation.SAVE, entry.getValue().get(0).getClass(), entry.getValue().size(), start);
         }
 
         InsertOneOptions insertOneOptions = new InsertOneOptions()
@@ -400,6 +491,11 @@ public class DatastoreImpl implements AdvancedDatastore {
         return new MorphiaSessionImpl(mongoClient.startSession(options), mongoClient, database, mapper, queryFactory);
     }
 
+    @Override
+    public <T> UpsertResult upsert(List<T> entities, UpsertOptions options, String... keyProperties) {
+        return EntityUpsert.upsert(this, entities, options, keyProperties);
+    }
+
     @Override
     public <T> T withTransaction(MorphiaTransaction<T> body) {
         return doTransaction(startSession(), body);
@@ -418,6 +514,7 @@ public class DatastoreImpl implements AdvancedDatastore {
     @Override
     public <T> void insert(List<T> entities, InsertManyOptions options) {
         if (!entities.isEmpty()) {
+            long start = startTime();
             Class<?> type = entities.get(0).getClass();
             EntityModel model = mapper.getEntityModel(type);
             for (T entity : entities) {
@@ -426,14 +523,24 @@ public class DatastoreImpl implements AdvancedDatastore {
 
             MongoCollection mongoCollection = options.prepare(mapper.getCollection(type));
             ClientSession session = options.clientSession();
-            if (session == null) {
-                mongoCollection.insertMany(entities, options.getOptions());
-            } else {
-                mongoCollection.insertMany(session, entities, options.getOptions());
+            try {
+                if (session == null) {
+                    mongoCollection.insertMany(entities, options.getOptions());
+                } else {
+                    mongoCollection.insertMany(session, entities, options.getOptions());
+                }
+            } finally {
+                mapper.invalidateQueryCache(mongoCollection);
             }
+            record(Operation.INSERT, type, entities.size(), start);
         }
     }
 
+    @Override
+    public <T> long load(Class<T> type, Path path, LoadOptions options) throws IOException {
+        return EntityTransfer.load(mapper, mapper.getCollection(type), type, path, options);
+    }
+
     /**
      * @param model      internal
      * @param validation internal
@@ -464,14 +571,20 @@ public class DatastoreImpl implements AdvancedDatastore {
     }
 
     protected <T> void insert(MongoCollection collection, T entity, InsertOneOptions options) {
+        long start = startTime();
         setInitialVersion(mapper.getEntityModel(entity.getClass()), entity);
         MongoCollection mongoCollection = mapper.enforceWriteConcern(collection, entity.getClass());
         ClientSession clientSession = findSession(options);
-        if (clientSession == null) {
-            mongoCollection.insertOne(entity, options.getOptions());
-        } else {
-            mongoCollection.insertOne(clientSession, entity, options.getOptions());
+        try {
+            if (clientSession == null) {
+                mongoCollection.insertOne(entity, options.getOptions());
+            } else {
+                mongoCollection.insertOne(clientSession, entity, options.getOptions());
+            }
+        } finally {
+            mapper.invalidateQueryCache(mongoCollection);
         }
+        record(Operation.INSERT, entity.getClass(), 1, start);
     }
 
     private <T> T doTransaction(MorphiaSession morphiaSession, MorphiaTransaction<T> body) {
@@ -481,6 +594,9 @@ public class DatastoreImpl implements AdvancedDatastore {
                 throw new IllegalStateException("No session could be found for the transaction.");
             }
             return session.withTransaction(() -> body.execute(morphiaSession));
+        } finally {
+            // writes in the transaction only become visible now so results cached while it was open may be stale
+            mapper.invalidateQueryCache();
         }
     }
 
@@ -515,6 +631,7 @@ public class DatastoreImpl implements AdvancedDatastore {
     }
 
     private <T> void save(MongoCollection collection, T entity, InsertOneOptions options) {
+        long start = startTime();
         ClientSession clientSession = findSession(options);
 
         PropertyModel idField = mapper.findIdProperty(entity.getClass());
@@ -530,6 +647,7 @@ public class DatastoreImpl implements AdvancedDatastore {
             newVersion = oldVersion == null ? 1L : oldVersion + 1;
         }
 
+        Document shardKey = model.getShardKey(entity);
         Runnable operation;
 
         if (id == null || newVersion == 1) {
@@ -541,10 +659,13 @@ public class DatastoreImpl implements AdvancedDatastore {
                 }
             };
         } else {
+            // the shard key keeps the replace on a single shard.  if the shard key has changed, the upsert collides with the stored
+            // document on _id and is reported below rather than inserting a second copy.
             ReplaceOptions updateOptions = new ReplaceOptions()
                                                .bypassDocumentValidation(options.getBypassDocumentValidation())
                                                .upsert(true);
             Document filter = new Document("_id", id);
+            filter.putAll(shardKey);
             if (versionProperty != null) {
                 filter.put(versionProperty.getMappedName(), oldVersion);
             }
@@ -569,7 +690,35 @@ public class DatastoreImpl implements AdvancedDatastore {
             if (versionProperty != null) {
                 throw new VersionMismatchException(entity.getClass(), id);
             }
+            if (id != null && !shardKey.isEmpty() && e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                throw new UpdateException(Sofia.shardKeyChanged(entity.getClass().getName(), id));
+            }
             throw e;
+        } finally {
+            mapper.invalidateQueryCache(collection);
+        }
+        record(Operation.SAVE, entity.getClass(), 1, start);
+    }
+
+    /**
+     * Creates a query matching the entity by its ID and, if one is declared, its shard key so the operation is sent to a single shard.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Query<T> findById(T entity, Object id) {
+        Query<T> query = (Query<T>) find(entity.getClass()).filter(eq("_id", id));
+        mapper.getEntityModel(entity.getClass()).getShardKey(entity)
+              .forEach((name, value) -> query.filter(eq(name, value)));
+        return query;
+    }
+
+    private long startTime() {
+        return mapper.getOptions().getMetrics().isEnabled() ? System.nanoTime() : 0;
+    }
+
+    private void record(Operation operation, Class<?> type, int count, long start) {
+        MorphiaMetrics metrics = mapper.getOptions().getMetrics();
+        if (metrics.isEnabled()) {
+            metrics.operation(operation, type, count, System.nanoTime() - start);
         }
     }
 
@@ -0,0 +1,98 @@
+package dev.morphia;
+
+/**
+ * The options to apply when ensuring the indexes of the mapped entities
+ *
+ * @see Datastore#ensureIndexes(EnsureIndexesOptions)
+ * @since 2.2
+ */
+public final class EnsureIndexesOptions {
+    private boolean dryRun;
+    private int parallelism = 1;
+    private boolean recreateChanged;
+    private boolean skipChanged;
+
+    /**
+     * Creates a new options instance
+     */
+    public EnsureIndexesOptions() {
+    }
+
+    /**
+     * Only compares the declared indexes with those in the database and reports the differences without creating anything.
+     *
+     * @param dryRun true to skip creating the indexes
+     * @return this
+     */
+    public EnsureIndexesOptions dryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+        return this;
+    }
+
+    /**
+     * @return true if no indexes should be created
+     */
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    /**
+     * Sets how many collections are processed concurrently.  Defaults to 1 so the collections are processed one after the other.
+     *
+     * @param parallelism the number of collections to process at once
+     * @return this
+     */
+    public EnsureIndexesOptions parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @return the number of collections processed concurrently
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Drops the indexes which exist with different options than declared and creates them as declared.  Defaults to false in which case
+     * creating such an index fails with the server's error unless {@link #skipChanged(boolean)} is set.  Rebuilding an index on a
+     * large collection can take a long time and a dropped unique index no longer enforces uniqueness until it is recreated.
+     *
+     * @param recreateChanged true to drop and recreate the changed indexes
+     * @return this
+     */
+    public EnsureIndexesOptions recreateChanged(boolean recreateChanged) {
+        this.recreateChanged = recreateChanged;
+        return this;
+    }
+
+    /**
+     * @return true if changed indexes are dropped and recreated
+     */
+    public boolean isRecreateChanged() {
+        return recreateChanged;
+    }
+
+    /**
+     * Leaves the indexes which exist with different options than declared as they are.  They are reported as
+     * {@link IndexChange.Kind#CHANGED} and logged instead of failing with the server's error.  Defaults to false.
+     *
+     * @param skipChanged true to keep the changed indexes
+     * @return this
+     */
+    public EnsureIndexesOptions skipChanged(boolean skipChanged) {
+        this.skipChanged = skipChanged;
+        return this;
+    }
+
+    /**
+     * @return true if changed indexes are left as they are
+     */
+    public boolean isSkipChanged() {
+        return skipChanged;
+    }
+}
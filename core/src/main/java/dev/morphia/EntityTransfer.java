@@ -0,0 +1,244 @@
+package dev.morphia;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.lang.Nullable;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.MappingException;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Moves entities between collections and files of concatenated BSON documents, the format written by {@code mongodump}.  Exports copy
+ * the stored bytes without decoding them.  Loads decode every document with the entity's codec, so that the current mapping is
+ * applied and invalid documents are rejected, and insert the entities with unordered {@code insertMany} batches processed
+ * concurrently.
+ *
+ * @morphia.internal
+ * @since 2.2
+ */
+final class EntityTransfer {
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private EntityTransfer() {
+    }
+
+    static long export(FindIterable<RawBsonDocument> documents, Path path) throws IOException {
+        long count = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+             MongoCursor<RawBsonDocument> cursor = documents.iterator()) {
+            while (cursor.hasNext()) {
+                ByteBuffer document = cursor.next().getByteBuffer().asNIO();
+                if (document.remaining() > buffer.remaining()) {
+                    write(channel, buffer);
+                }
+                if (document.remaining() > buffer.remaining()) {
+                    while (document.hasRemaining()) {
+                        channel.write(document);
+                    }
+                } else {
+                    buffer.put(document);
+                }
+                count++;
+            }
+            write(channel, buffer);
+        }
+        return count;
+    }
+
+    static <T> long load(Mapper mapper, MongoCollection<T> collection, Class<T> type, Path path, LoadOptions options)
+        throws IOException {
+        Codec<T> codec = mapper.getCodecRegistry().get(type);
+        MongoCollection<T> prepared = options.prepare(collection);
+        InsertManyOptions insertOptions = new InsertManyOptions()
+                                              .ordered(false)
+                                              .bypassDocumentValidation(options.getBypassDocumentValidation());
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(options.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "morphia-load-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore pending = new Semaphore(options.getParallelism() * 2);
+        List<Future<Integer>> batches = new ArrayList<>();
+        long count = 0;
+        try (BsonFileReader reader = new BsonFileReader(path, options.isMemoryMapped())) {
+            List<byte[]> batch = new ArrayList<>();
+            int size = 0;
+            byte[] document;
+            while ((document = reader.next()) != null) {
+                if (!batch.isEmpty() && size + document.length > options.getBatchSize()) {
+                    count += completed(batches);
+                    batches.add(submit(executor, pending, codec, prepared, insertOptions, batch));
+                    batch = new ArrayList<>();
+                    size = 0;
+                }
+                batch.add(document);
+                size += document.length;
+            }
+            if (!batch.isEmpty()) {
+                batches.add(submit(executor, pending, codec, prepared, insertOptions, batch));
+            }
+            for (Future<Integer> future : batches) {
+                count += get(future);
+            }
+            return count;
+        } finally {
+            executor.shutdownNow();
+            mapper.invalidateQueryCache(collection);
+        }
+    }
+
+    private static <T> Future<Integer> submit(ExecutorService executor, Semaphore pending, Codec<T> codec, MongoCollection<T> collection,
+                                              InsertManyOptions options, List<byte[]> batch) {
+        try {
+            pending.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MappingException(e.getMessage(), e);
+        }
+        return executor.submit(() -> {
+            try {
+                List<T> entities = new ArrayList<>(batch.size());
+                for (byte[] document : batch) {
+                    entities.add(new RawBsonDocument(document).decode(codec));
+                }
+                collection.insertMany(entities, options);
+                return entities.size();
+            } finally {
+                pending.release();
+            }
+        });
+    }
+
+    private static long completed(List<Future<Integer>> batches) {
+        long count = 0;
+        Iterator<Future<Integer>> iterator = batches.iterator();
+        while (iterator.hasNext()) {
+            Future<Integer> future = iterator.next();
+            if (future.isDone()) {
+                count += get(future);
+                iterator.remove();
+            }
+        }
+        return count;
+    }
+
+    private static int get(Future<Integer> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MappingException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new MappingException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Splits a file in to its BSON documents reading it either through a buffer or by mapping regions of it in to memory.
+     */
+    private static final class BsonFileReader implements Closeable {
+        private final FileChannel channel;
+        private final boolean mapped;
+        private final long size;
+        private ByteBuffer buffer;
+        private long offset;
+
+        private BsonFileReader(Path path, boolean mapped) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.mapped = mapped;
+            size = channel.size();
+            buffer = ByteBuffer.allocate(mapped ? 0 : BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (!mapped) {
+                buffer.flip();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        @Nullable
+        byte[] next() throws IOException {
+            if (!ensure(4)) {
+                if (buffer.hasRemaining()) {
+                    throw new IOException("The file ends with a truncated document");
+                }
+                return null;
+            }
+            int length = buffer.getInt(buffer.position());
+            if (length < 5) {
+                throw new IOException("Invalid document length " + length + " at offset " + (offset + buffer.position()));
+            }
+            if (!ensure(length)) {
+                throw new IOException("The file ends with a truncated document");
+            }
+            byte[] document = new byte[length];
+            buffer.get(document);
+            return document;
+        }
+
+        private boolean ensure(int length) throws IOException {
+            if (buffer.remaining() >= length) {
+                return true;
+            }
+            long position = offset + buffer.position();
+            if (mapped) {
+                long region = Math.min(size - position, Integer.MAX_VALUE);
+                if (region < length) {
+                    return false;
+                }
+                buffer = channel.map(MapMode.READ_ONLY, position, region).order(ByteOrder.LITTLE_ENDIAN);
+                offset = position;
+                return true;
+            }
+            ByteBuffer target = buffer.capacity() < length
+                                ? ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2)).order(ByteOrder.LITTLE_ENDIAN).put(buffer)
+                                : buffer.compact();
+            offset = position;
+            while (target.position() < length) {
+                if (channel.read(target) == -1) {
+                    break;
+                }
+            }
+            buffer = target.flip();
+            return buffer.remaining() >= length;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package dev.morphia;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.lang.Nullable;
+import dev.morphia.internal.PathTarget;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.MappingException;
+import dev.morphia.mapping.codec.pojo.EntityModel;
+import dev.morphia.mapping.codec.pojo.PropertyModel;
+import dev.morphia.metrics.MorphiaMetrics;
+import dev.morphia.metrics.MorphiaMetrics.Operation;
+import dev.morphia.query.ValidationException;
+import dev.morphia.sofia.Sofia;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonReader;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.IdGenerator;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static dev.morphia.mapping.codec.Conversions.convert;
+
+/**
+ * Upserts entities matched by key properties rather than by id.  The entities are grouped by collection and each group is written with
+ * a single unordered {@code bulkWrite}.  Entities without an id are written with a {@code ReplaceOneModel} whose replacement carries no
+ * {@code _id} so that an existing document keeps its id and a new one is given an id by the server.  Entities with an id, whether set
+ * or generated by a registered {@link IdGenerator}, are written with an {@code UpdateOneModel} whose pipeline replaces
+ * the document while keeping the id of an existing document and using the entity's id for a new one.  Entities sharing the same key
+ * values in one collection are rejected as the unordered writes could otherwise insert that key more than once.
+ *
+ * @morphia.internal
+ * @since 2.2
+ */
+final class EntityUpsert {
+    private static final int ID_QUERY_SIZE = 1000;
+
+    private EntityUpsert() {
+    }
+
+    static <T> UpsertResult upsert(DatastoreImpl datastore, List<T> entities, UpsertOptions options, String... keyProperties) {
+        if (keyProperties.length == 0) {
+            throw new IllegalArgumentException(Sofia.upsertKeysRequired());
+        }
+        Mapper mapper = datastore.getMapper();
+        Map<Class<?>, List<String>> keys = new HashMap<>();
+        Map<String, Batch<T>> batches = new LinkedHashMap<>();
+        try {
+            for (int index = 0; index < entities.size(); index++) {
+                T entity = entities.get(index);
+                EntityModel model = mapper.getEntityModel(entity.getClass());
+                PropertyModel idProperty = model.getIdProperty();
+                if (idProperty == null) {
+                    throw new MappingException(Sofia.idRequired(model.getType().getName()));
+                }
+                List<String> paths = keys.computeIfAbsent(model.getType(), type -> translate(mapper, model, keyProperties));
+                IdGenerator generator = mapper.getIdGenerator(model);
+                boolean assigned = idProperty.getValue(entity) != null;
+                boolean hasId = assigned || generator != null;
+
+                Document document = mapper.toDocument(entity);
+                Object id = document.remove("_id");
+                Document filter = new Document();
+                for (String path : paths) {
+                    Object value = extract(document, path);
+                    if (value == null) {
+                        throw new ValidationException(Sofia.upsertKeyMissing(path, model.getType().getName()));
+                    }
+                    filter.put(path, value);
+                }
+                filter.putAll(model.getShardKey(entity));
+                Batch<T> batch = batches.computeIfAbsent(model.getCollectionName(), name -> new Batch<>());
+                if (!batch.filters.add(filter)) {
+                    // unordered writes of the same key would race and could insert the key twice
+                    throw new ValidationException(Sofia.upsertDuplicateKey(filter.toJson(), model.getCollectionName()));
+                }
+
+                if (!assigned && generator != null) {
+                    // toDocument() does not generate ids
+                    id = convert(generator.generate(), idProperty.getType());
+                    idProperty.setValue(entity, id);
+                }
+
+                WriteModel<Document> write;
+                if (hasId) {
+                    Document replacement = new Document("$mergeObjects", List.of(
+                        new Document("_id", new Document("$ifNull", List.of("$_id", new Document("$literal", id)))),
+                        new Document("$literal", document)));
+                    write = new UpdateOneModel<>(filter, List.of(new Document("$replaceWith", replacement)),
+                        new UpdateOptions().upsert(true));
+                } else {
+                    idProperty.setValue(entity, null);
+                    write = new ReplaceOneModel<>(filter, document, new ReplaceOptions().upsert(true));
+                }
+                batch.add(new Entry<>(index, entity, idProperty, paths, hasId && !assigned, filter), write);
+            }
+        } catch (RuntimeException e) {
+            // leave the entities as they were passed in
+            for (Batch<T> batch : batches.values()) {
+                batch.clearGeneratedIds(IntStream.range(0, batch.entries.size()).boxed().collect(Collectors.toList()));
+            }
+            throw e;
+        }
+
+        ClientSession session = datastore.findSession(options);
+        boolean acknowledged = true;
+        long inserted = 0;
+        long matched = 0;
+        long modified = 0;
+        Map<Integer, Object> insertedIds = new LinkedHashMap<>();
+        MorphiaMetrics metrics = mapper.getOptions().getMetrics();
+        for (Batch<T> batch : batches.values()) {
+            long start = metrics.isEnabled() ? System.nanoTime() : 0;
+            Class<?> type = batch.entries.get(0).entity.getClass();
+            MongoCollection<Document> documents = mapper.getCollection(type).withDocumentClass(Document.class);
+            WriteConcern writeConcern = mapper.getWriteConcern(type);
+            if (writeConcern != null) {
+                documents = documents.withWriteConcern(writeConcern);
+            }
+            MongoCollection<Document> collection = options.prepare(documents);
+            BulkWriteOptions bulkOptions = new BulkWriteOptions()
+                                               .ordered(false)
+                                               .bypassDocumentValidation(options.getBypassDocumentValidation());
+            BulkWriteResult result;
+            try {
+                result = session == null
+                         ? collection.bulkWrite(batch.writes, bulkOptions)
+                         : collection.bulkWrite(session, batch.writes, bulkOptions);
+            } finally {
+                mapper.invalidateQueryCache(collection);
+            }
+            if (metrics.isEnabled()) {
+                metrics.operation(Operation.UPSERT, type, batch.writes.size(), System.nanoTime() - start);
+            }
+            if (!result.wasAcknowledged()) {
+                acknowledged = false;
+                continue;
+            }
+            inserted += result.getUpserts().size();
+            matched += result.getMatchedCount();
+            modified += result.getModifiedCount();
+
+            boolean[] upserted = new boolean[batch.writes.size()];
+            for (BulkWriteUpsert upsert : result.getUpserts()) {
+                upserted[upsert.getIndex()] = true;
+                Object id = batch.assignId(mapper.getCodecRegistry(), upsert.getIndex(), upsert.getId());
+                insertedIds.put(batch.entries.get(upsert.getIndex()).index, id);
+            }
+            List<Integer> existing = new ArrayList<>();
+            for (int position = 0; position < upserted.length; position++) {
+                if (!upserted[position]) {
+                    existing.add(position);
+                }
+            }
+            if (options.isReturnIds()) {
+                batch.readIds(mapper.getCodecRegistry(), collection, session, existing);
+            } else {
+                batch.clearGeneratedIds(existing);
+            }
+        }
+        return new UpsertResult(acknowledged, inserted, matched, modified, insertedIds);
+    }
+
+    private static List<String> translate(Mapper mapper, EntityModel model, String... keyProperties) {
+        List<String> paths = new ArrayList<>();
+        for (String key : keyProperties) {
+            paths.add(new PathTarget(mapper, model, key).translatedPath());
+        }
+        return paths;
+    }
+
+    @Nullable
+    private static Object extract(Document document, String path) {
+        Object value = document;
+        for (String name : path.split("\\.")) {
+            if (!(value instanceof Document)) {
+                return null;
+            }
+            value = ((Document) value).get(name);
+        }
+        return value;
+    }
+
+    private static final class Batch<T> {
+        private final List<Entry<T>> entries = new ArrayList<>();
+        private final List<WriteModel<Document>> writes = new ArrayList<>();
+        private final Set<Document> filters = new HashSet<>();
+
+        private void add(Entry<T> entry, WriteModel<Document> write) {
+            entries.add(entry);
+            writes.add(write);
+        }
+
+        private Object assignId(CodecRegistry registry, int position, BsonValue id) {
+            Entry<T> entry = entries.get(position);
+            Object current = entry.idProperty.getValue(entry.entity);
+            if (current != null) {
+                return current;
+            }
+            Object decoded = decode(registry, entry.idProperty, id);
+            entry.idProperty.setValue(entry.entity, decoded);
+            return decoded;
+        }
+
+        private void clearGeneratedIds(List<Integer> positions) {
+            for (Integer position : positions) {
+                Entry<T> entry = entries.get(position);
+                if (entry.generatedId) {
+                    entry.idProperty.setValue(entry.entity, null);
+                }
+            }
+        }
+
+        private void readIds(CodecRegistry registry, MongoCollection<Document> collection, @Nullable ClientSession session,
+                             List<Integer> positions) {
+            Map<List<String>, List<Entry<T>>> byPaths = new LinkedHashMap<>();
+            for (Integer position : positions) {
+                Entry<T> entry = entries.get(position);
+                byPaths.computeIfAbsent(entry.paths, paths -> new ArrayList<>()).add(entry);
+            }
+            MongoCollection<BsonDocument> raw = collection.withDocumentClass(BsonDocument.class);
+            for (Map.Entry<List<String>, List<Entry<T>>> group : byPaths.entrySet()) {
+                List<String> paths = group.getKey();
+                List<String> projection = new ArrayList<>(paths);
+                projection.add("_id");
+                List<Entry<T>> pending = group.getValue();
+                for (int from = 0; from < pending.size(); from += ID_QUERY_SIZE) {
+                    Map<List<BsonValue>, Entry<T>> byKey = new HashMap<>();
+                    BsonArray or = new BsonArray();
+                    for (Entry<T> entry : pending.subList(from, Math.min(from + ID_QUERY_SIZE, pending.size()))) {
+                        BsonDocument filter = entry.filter.toBsonDocument(BsonDocument.class, collection.getCodecRegistry());
+                        List<BsonValue> key = new ArrayList<>();
+                        for (String path : paths) {
+                            key.add(filter.get(path));
+                        }
+                        byKey.put(key, entry);
+                        or.add(filter);
+                    }
+                    BsonDocument query = new BsonDocument("$or", or);
+                    Iterable<BsonDocument> found = session == null
+                                                   ? raw.find(query).projection(Projections.include(projection))
+                                                   : raw.find(session, query).projection(Projections.include(projection));
+                    for (BsonDocument document : found) {
+                        Entry<T> entry = byKey.get(key(document, paths));
+                        if (entry != null) {
+                            entry.idProperty.setValue(entry.entity, decode(registry, entry.idProperty, document.get("_id")));
+                        }
+                    }
+                }
+            }
+        }
+
+        private static List<BsonValue> key(BsonDocument document, List<String> paths) {
+            List<BsonValue> key = new ArrayList<>();
+            for (String path : paths) {
+                BsonValue value = document;
+                for (String name : path.split("\\.")) {
+                    value = value != null && value.isDocument() ? value.asDocument().get(name) : null;
+                }
+                key.add(value);
+            }
+            return key;
+        }
+
+        private static Object decode(CodecRegistry registry, PropertyModel idProperty, BsonValue id) {
+            BsonReader reader = new BsonDocumentReader(new BsonDocument("_id", id));
+            reader.readStartDocument();
+            reader.readName();
+            return registry.get(idProperty.getType()).decode(reader, DecoderContext.builder().build());
+        }
+    }
+
+    private static final class Entry<T> {
+        private final int index;
+        private final T entity;
+        private final PropertyModel idProperty;
+        private final List<String> paths;
+        private final boolean generatedId;
+        private final Document filter;
+
+        private Entry(int index, T entity, PropertyModel idProperty, List<String> paths, boolean generatedId, Document filter) {
+            this.index = index;
+            this.entity = entity;
+            this.idProperty = idProperty;
+            this.paths = paths;
+            this.generatedId = generatedId;
+            this.filter = filter;
+        }
+    }
+}
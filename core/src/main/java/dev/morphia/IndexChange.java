@@ -0,0 +1,115 @@
+package dev.morphia;
+
+import com.mongodb.lang.Nullable;
+import org.bson.Document;
+
+import java.util.Objects;
+
+/**
+ * Describes an index declared on a mapped entity which is either missing from the database or differs from the index found there.
+ *
+ * @see Datastore#ensureIndexes(EnsureIndexesOptions)
+ * @since 2.2
+ */
+public final class IndexChange {
+    private final Kind kind;
+    private final String collection;
+    private final Document keys;
+    private final Document options;
+    private final Document existing;
+
+    /**
+     * @param kind       the kind of change
+     * @param collection the collection name
+     * @param keys       the declared keys
+     * @param options    the declared options
+     * @param existing   the conflicting index found in the database, if any
+     * @morphia.internal
+     */
+    public IndexChange(Kind kind, String collection, Document keys, Document options, @Nullable Document existing) {
+        this.kind = kind;
+        this.collection = collection;
+        this.keys = keys;
+        this.options = options;
+        this.existing = existing;
+    }
+
+    /**
+     * @return the kind of change
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the collection name
+     */
+    public String getCollection() {
+        return collection;
+    }
+
+    /**
+     * @return the keys as declared on the entity
+     */
+    public Document getKeys() {
+        return keys;
+    }
+
+    /**
+     * @return the options as declared on the entity
+     */
+    public Document getOptions() {
+        return options;
+    }
+
+    /**
+     * @return the definition of the index found in the database if this change is {@link Kind#CHANGED}
+     */
+    @Nullable
+    public Document getExisting() {
+        return existing;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, collection, keys, options, existing);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IndexChange)) {
+            return false;
+        }
+        IndexChange that = (IndexChange) o;
+        return kind == that.kind
+               && collection.equals(that.collection)
+               && keys.equals(that.keys)
+               && options.equals(that.options)
+               && Objects.equals(existing, that.existing);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %s %s%s", kind, collection, keys.toJson(), options.toJson(),
+            existing == null ? "" : " (found " + existing.toJson() + ")");
+    }
+
+    /**
+     * The kinds of index changes
+     */
+    public enum Kind {
+        /**
+         * The index does not exist
+         */
+        MISSING,
+        /**
+         * An index with the same keys or name exists but with different options.  The server rejects creating the declared index
+         * unless it is recreated with {@link EnsureIndexesOptions#recreateChanged(boolean)} or skipped with
+         * {@link EnsureIndexesOptions#skipChanged(boolean)}.
+         */
+        CHANGED
+    }
+}
@@ -0,0 +1,117 @@
+package dev.morphia;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.lang.Nullable;
+import dev.morphia.internal.WriteConfigurable;
+
+/**
+ * The options to apply when loading entities from a file
+ *
+ * @see Datastore#load(Class, java.nio.file.Path, LoadOptions)
+ * @since 2.2
+ */
+public final class LoadOptions implements WriteConfigurable<LoadOptions> {
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int batchSize = 4 * 1024 * 1024;
+    private boolean memoryMapped;
+    private Boolean bypassDocumentValidation;
+    private WriteConcern writeConcern;
+
+    /**
+     * Creates a new options instance
+     */
+    public LoadOptions() {
+    }
+
+    /**
+     * Sets the maximum size in bytes of the encoded documents sent in each {@code insertMany}.  Defaults to 4MB.
+     *
+     * @param batchSize the batch size in bytes
+     * @return this
+     */
+    public LoadOptions batchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * @return the maximum size in bytes of each batch
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets whether to bypass document validation.
+     *
+     * @param bypassDocumentValidation whether to bypass document validation, or null if unspecified
+     * @return this
+     * @mongodb.server.release 3.2
+     */
+    public LoadOptions bypassDocumentValidation(@Nullable Boolean bypassDocumentValidation) {
+        this.bypassDocumentValidation = bypassDocumentValidation;
+        return this;
+    }
+
+    /**
+     * @return whether to bypass document validation, or null if unspecified
+     */
+    @Nullable
+    public Boolean getBypassDocumentValidation() {
+        return bypassDocumentValidation;
+    }
+
+    /**
+     * Maps the file in to memory rather than reading it through a buffer.
+     *
+     * @param memoryMapped true to map the file in to memory
+     * @return this
+     */
+    public LoadOptions memoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+        return this;
+    }
+
+    /**
+     * @return true if the file is mapped in to memory
+     */
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    /**
+     * Sets how many batches are decoded and inserted concurrently.  Defaults to the number of available processors.
+     *
+     * @param parallelism the number of batches to process at once
+     * @return this
+     */
+    public LoadOptions parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @return the number of batches processed concurrently
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public LoadOptions writeConcern(@Nullable WriteConcern writeConcern) {
+        this.writeConcern = writeConcern;
+        return this;
+    }
+
+    @Override
+    @Nullable
+    public WriteConcern writeConcern() {
+        return writeConcern;
+    }
+}
@@ -4,6 +4,7 @@ import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import dev.morphia.mapping.MapperOptions;
+import dev.morphia.query.QueryLogger;
 
 
 /**
@@ -32,9 +33,15 @@ public final class Morphia {
      * @return a Datastore that you can use to interact with MongoDB
      */
     public static Datastore createDatastore(String dbName, MapperOptions options) {
-        return createDatastore(MongoClients.create(MongoClientSettings.builder()
-                                                                      .uuidRepresentation(options.getUuidRepresentation())
-                                                                      .build()), dbName, options);
+        MapperOptions mapperOptions = options.getQueryLogger() != null
+                                      ? options
+                                      : MapperOptions.builder(options)
+                                                     .queryLogger(new QueryLogger())
+                                                     .build();
+        MongoClientSettings.Builder settings = MongoClientSettings.builder()
+                                                                  .uuidRepresentation(mapperOptions.getUuidRepresentation());
+        mapperOptions.getQueryLogger().register(settings);
+        return createDatastore(MongoClients.create(settings.build()), dbName, mapperOptions);
     }
 
     /**
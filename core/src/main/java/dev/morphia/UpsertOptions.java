@@ -0,0 +1,90 @@
+package dev.morphia;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.client.ClientSession;
+import com.mongodb.lang.Nullable;
+import dev.morphia.internal.SessionConfigurable;
+import dev.morphia.internal.WriteConfigurable;
+
+/**
+ * The options to apply when upserting entities by a key
+ *
+ * @see Datastore#upsert(java.util.List, UpsertOptions, String...)
+ * @since 2.2
+ */
+public final class UpsertOptions implements SessionConfigurable<UpsertOptions>, WriteConfigurable<UpsertOptions> {
+    private Boolean bypassDocumentValidation;
+    private ClientSession clientSession;
+    private boolean returnIds;
+    private WriteConcern writeConcern;
+
+    /**
+     * Creates a new options instance
+     */
+    public UpsertOptions() {
+    }
+
+    /**
+     * Sets whether to bypass document validation.
+     *
+     * @param bypassDocumentValidation whether to bypass document validation, or null if unspecified
+     * @return this
+     * @mongodb.server.release 3.2
+     */
+    public UpsertOptions bypassDocumentValidation(@Nullable Boolean bypassDocumentValidation) {
+        this.bypassDocumentValidation = bypassDocumentValidation;
+        return this;
+    }
+
+    /**
+     * @return whether to bypass document validation, or null if unspecified
+     */
+    @Nullable
+    public Boolean getBypassDocumentValidation() {
+        return bypassDocumentValidation;
+    }
+
+    @Override
+    public UpsertOptions clientSession(@Nullable ClientSession clientSession) {
+        this.clientSession = clientSession;
+        return this;
+    }
+
+    @Override
+    @Nullable
+    public ClientSession clientSession() {
+        return clientSession;
+    }
+
+    /**
+     * Sets whether to read back the ids of the documents which already existed.  The ids of inserted documents are always set on their
+     * entities but an entity matching an existing document only learns that document's id, with one extra query per collection, when
+     * this is set.  Defaults to false.
+     *
+     * @param returnIds true to read back the ids of existing documents
+     * @return this
+     */
+    public UpsertOptions returnIds(boolean returnIds) {
+        this.returnIds = returnIds;
+        return this;
+    }
+
+    /**
+     * @return true if the ids of existing documents are read back
+     */
+    public boolean isReturnIds() {
+        return returnIds;
+    }
+
+    @Override
+    public UpsertOptions writeConcern(@Nullable WriteConcern writeConcern) {
+        this.writeConcern = writeConcern;
+        return this;
+    }
+
+    @Override
+    @Nullable
+    public WriteConcern writeConcern() {
+        return writeConcern;
+    }
+}
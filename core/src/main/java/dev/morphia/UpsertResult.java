@@ -0,0 +1,62 @@
+package dev.morphia;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The outcome of upserting entities by a key
+ *
+ * @see Datastore#upsert(java.util.List, String...)
+ * @since 2.2
+ */
+public class UpsertResult {
+    private final boolean acknowledged;
+    private final long insertedCount;
+    private final long matchedCount;
+    private final long modifiedCount;
+    private final Map<Integer, Object> insertedIds;
+
+    UpsertResult(boolean acknowledged, long insertedCount, long matchedCount, long modifiedCount, Map<Integer, Object> insertedIds) {
+        this.acknowledged = acknowledged;
+        this.insertedCount = insertedCount;
+        this.matchedCount = matchedCount;
+        this.modifiedCount = modifiedCount;
+        this.insertedIds = Collections.unmodifiableMap(insertedIds);
+    }
+
+    /**
+     * @return the number of entities inserted as no document matched their keys
+     */
+    public long getInsertedCount() {
+        return insertedCount;
+    }
+
+    /**
+     * @return the ids of the inserted documents keyed by the index of their entities in the upserted list
+     */
+    public Map<Integer, Object> getInsertedIds() {
+        return insertedIds;
+    }
+
+    /**
+     * @return the number of entities whose keys matched an existing document
+     */
+    public long getMatchedCount() {
+        return matchedCount;
+    }
+
+    /**
+     * @return the number of existing documents which were changed.  This excludes matched documents which already held the entity's
+     * values.
+     */
+    public long getModifiedCount() {
+        return modifiedCount;
+    }
+
+    /**
+     * @return true if the writes were acknowledged.  The counts and ids are only known for acknowledged writes.
+     */
+    public boolean wasAcknowledged() {
+        return acknowledged;
+    }
+}
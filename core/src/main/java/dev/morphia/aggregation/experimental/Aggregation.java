@@ -80,6 +80,16 @@ public interface Aggregation<T> {
      */
     Aggregation<T> collStats(CollectionStats stats);
 
+    /**
+     * Encodes the stages defined so far in to a reusable pipeline.  Values which vary between executions can be declared with
+     * {@link dev.morphia.aggregation.experimental.expressions.Expressions#parameter(String)} and are bound when the compiled pipeline is
+     * executed.  Stages added to this aggregation after compiling are not reflected in the compiled pipeline.
+     *
+     * @return the compiled pipeline
+     * @since 2.2
+     */
+    CompiledAggregation<T> compile();
+
     /**
      * Passes a document to the next stage that contains a count of the number of documents input to the stage.
      *
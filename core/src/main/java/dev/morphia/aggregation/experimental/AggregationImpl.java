@@ -37,6 +37,7 @@ import dev.morphia.aggregation.experimental.stages.Stage;
 import dev.morphia.aggregation.experimental.stages.UnionWith;
 import dev.morphia.aggregation.experimental.stages.Unset;
 import dev.morphia.aggregation.experimental.stages.Unwind;
+import dev.morphia.mapping.Mapper;
 import dev.morphia.mapping.codec.pojo.EntityModel;
 import dev.morphia.mapping.codec.reader.DocumentReader;
 import dev.morphia.mapping.codec.writer.DocumentWriter;
@@ -97,6 +98,11 @@ public class AggregationImpl<T> implements Aggregation<T> {
         return this;
     }
 
+    @Override
+    public CompiledAggregation<T> compile() {
+        return new CompiledAggregation<>(this, getDocuments());
+    }
+
     @Override
     public Aggregation<T> count(String name) {
         stages.add(new Count(name));
@@ -111,23 +117,12 @@ public class AggregationImpl<T> implements Aggregation<T> {
 
     @Override
     public <R> MorphiaCursor<R> execute(Class<R> resultType) {
-        MongoCursor<R> cursor;
-        if (datastore.getMapper().isMappable(resultType) && !resultType.equals(this.collection.getDocumentClass())) {
-            MongoCollection<Document> collection = this.collection.withDocumentClass(Document.class);
-            MongoCursor<Document> results = collection.aggregate(getDocuments()).iterator();
-            EntityModel entityModel = datastore.getMapper().getEntityModel(this.collection.getDocumentClass());
-            cursor = new MappingCursor<>(results, datastore.getMapper().getCodecRegistry().get(resultType),
-                entityModel.getDiscriminatorKey());
-        } else {
-            cursor = collection.aggregate(getDocuments(), resultType).iterator();
-        }
-        return new MorphiaCursor<>(cursor);
+        return execute(getDocuments(), resultType);
     }
 
     @Override
     public <R> MorphiaCursor<R> execute(Class<R> resultType, AggregationOptions options) {
-        return new MorphiaCursor<>(options.apply(getDocuments(), collection, resultType)
-                                          .iterator());
+        return execute(getDocuments(), resultType, options);
     }
 
     @Override
@@ -181,8 +176,12 @@ public class AggregationImpl<T> implements Aggregation<T> {
     @Override
     public <M> void merge(Merge<M> merge) {
         stages.add(merge);
-        collection.aggregate(getDocuments())
-                  .toCollection();
+        try {
+            collection.aggregate(getDocuments())
+                      .toCollection();
+        } finally {
+            invalidateQueryCache(merge.getType(), merge.getCollection());
+        }
     }
 
     @Override
@@ -190,15 +189,23 @@ public class AggregationImpl<T> implements Aggregation<T> {
         stages.add(merge);
         Class<?> type = merge.getType();
         type = type != null ? type : Document.class;
-        options.apply(getDocuments(), collection, type)
-               .toCollection();
+        try {
+            options.apply(getDocuments(), collection, type)
+                   .toCollection();
+        } finally {
+            invalidateQueryCache(merge.getType(), merge.getCollection());
+        }
     }
 
     @Override
     public <O> void out(Out<O> out) {
         stages.add(out);
-        collection.aggregate(getDocuments())
-                  .toCollection();
+        try {
+            collection.aggregate(getDocuments())
+                      .toCollection();
+        } finally {
+            invalidateQueryCache(out.getType(), out.getCollection());
+        }
     }
 
     @Override
@@ -206,7 +213,11 @@ public class AggregationImpl<T> implements Aggregation<T> {
         stages.add(out);
         Class<?> type = out.getType();
         type = type != null ? type : Document.class;
-        options.apply(getDocuments(), collection, type).toCollection();
+        try {
+            options.apply(getDocuments(), collection, type).toCollection();
+        } finally {
+            invalidateQueryCache(out.getType(), out.getCollection());
+        }
     }
 
     @Override
@@ -287,6 +298,34 @@ public class AggregationImpl<T> implements Aggregation<T> {
         return this;
     }
 
+    <R> MorphiaCursor<R> execute(List<Document> pipeline, Class<R> resultType) {
+        MongoCursor<R> cursor;
+        if (datastore.getMapper().isMappable(resultType) && !resultType.equals(this.collection.getDocumentClass())) {
+            MongoCollection<Document> collection = this.collection.withDocumentClass(Document.class);
+            MongoCursor<Document> results = collection.aggregate(pipeline).iterator();
+            EntityModel entityModel = datastore.getMapper().getEntityModel(this.collection.getDocumentClass());
+            cursor = new MappingCursor<>(results, datastore.getMapper().getCodecRegistry().get(resultType),
+                entityModel.getDiscriminatorKey());
+        } else {
+            cursor = collection.aggregate(pipeline, resultType).iterator();
+        }
+        return new MorphiaCursor<>(cursor);
+    }
+
+    <R> MorphiaCursor<R> execute(List<Document> pipeline, Class<R> resultType, AggregationOptions options) {
+        return new MorphiaCursor<>(options.apply(pipeline, collection, resultType)
+                                          .iterator());
+    }
+
+    private void invalidateQueryCache(@Nullable Class<?> type, @Nullable String target) {
+        Mapper mapper = datastore.getMapper();
+        if (type != null) {
+            mapper.invalidateQueryCache(mapper.getCollection(type));
+        } else if (target != null) {
+            mapper.invalidateQueryCache(datastore.getDatabase().getCollection(target));
+        }
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     private List<Document> getDocuments() {
         return stages.stream()
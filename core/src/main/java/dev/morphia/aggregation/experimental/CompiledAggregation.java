@@ -0,0 +1,144 @@
+package dev.morphia.aggregation.experimental;
+
+import dev.morphia.aggregation.experimental.expressions.impls.ParameterExpression;
+import dev.morphia.query.internal.MorphiaCursor;
+import dev.morphia.sofia.Sofia;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * An aggregation pipeline which has been encoded once and can be executed repeatedly.  Executing a compiled pipeline only substitutes
+ * the values bound to its {@link dev.morphia.aggregation.experimental.expressions.Expressions#parameter(String) parameters} in to the
+ * encoded stages rather than encoding every stage again.  Stages without parameters are shared between executions.  Instances are safe
+ * to share between threads.
+ *
+ * @param <T> the initial type of the aggregation
+ * @see Aggregation#compile()
+ * @since 2.2
+ */
+public class CompiledAggregation<T> {
+    private final AggregationImpl<T> aggregation;
+    private final List<Document> stages;
+    private final boolean[] parameterized;
+    private final Set<String> parameters = new LinkedHashSet<>();
+
+    CompiledAggregation(AggregationImpl<T> aggregation, List<Document> stages) {
+        this.aggregation = aggregation;
+        this.stages = List.copyOf(stages);
+        parameterized = new boolean[stages.size()];
+        for (int i = 0; i < stages.size(); i++) {
+            parameterized[i] = collect(stages.get(i));
+        }
+    }
+
+    /**
+     * Creates the pipeline with the given values bound to its parameters.  The returned documents must not be modified.
+     *
+     * @param values the parameter values keyed by name
+     * @return the pipeline
+     * @throws AggregationException if a parameter has no value or a value is given for an unknown parameter
+     */
+    public List<Document> bind(Map<String, ?> values) {
+        for (String name : values.keySet()) {
+            if (!parameters.contains(name)) {
+                throw new AggregationException(Sofia.unknownParameter(name, parameters));
+            }
+        }
+        for (String name : parameters) {
+            if (!values.containsKey(name)) {
+                throw new AggregationException(Sofia.unboundParameter(name));
+            }
+        }
+        if (parameters.isEmpty()) {
+            return stages;
+        }
+        List<Document> pipeline = new ArrayList<>(stages.size());
+        for (int i = 0; i < stages.size(); i++) {
+            pipeline.add(parameterized[i] ? (Document) substitute(stages.get(i), values) : stages.get(i));
+        }
+        return pipeline;
+    }
+
+    /**
+     * Execute the pipeline and get the results.
+     *
+     * @param resultType the type of the result
+     * @param values     the parameter values keyed by name
+     * @param <S>        the output type
+     * @return a MorphiaCursor
+     */
+    public <S> MorphiaCursor<S> execute(Class<S> resultType, Map<String, ?> values) {
+        return aggregation.execute(bind(values), resultType);
+    }
+
+    /**
+     * Execute the pipeline and get the results.
+     *
+     * @param resultType the type of the result
+     * @param options    the options to apply
+     * @param values     the parameter values keyed by name
+     * @param <S>        the output type
+     * @return a MorphiaCursor
+     */
+    public <S> MorphiaCursor<S> execute(Class<S> resultType, AggregationOptions options, Map<String, ?> values) {
+        return aggregation.execute(bind(values), resultType, options);
+    }
+
+    /**
+     * @return the names of the parameters in this pipeline
+     */
+    public Set<String> getParameters() {
+        return Collections.unmodifiableSet(parameters);
+    }
+
+    private boolean collect(Object value) {
+        boolean found = false;
+        if (value instanceof Document) {
+            Document document = (Document) value;
+            if (isParameter(document)) {
+                parameters.add(document.getString(ParameterExpression.OPERATION));
+                return true;
+            }
+            for (Object child : document.values()) {
+                found |= collect(child);
+            }
+        } else if (value instanceof List) {
+            for (Object child : (List<?>) value) {
+                found |= collect(child);
+            }
+        }
+        return found;
+    }
+
+    private static boolean isParameter(Document document) {
+        return document.size() == 1 && document.get(ParameterExpression.OPERATION) instanceof String;
+    }
+
+    private static Object substitute(Object value, Map<String, ?> values) {
+        if (value instanceof Document) {
+            Document document = (Document) value;
+            if (isParameter(document)) {
+                return values.get(document.getString(ParameterExpression.OPERATION));
+            }
+            Document copy = new Document();
+            for (Entry<String, Object> entry : document.entrySet()) {
+                copy.put(entry.getKey(), substitute(entry.getValue(), values));
+            }
+            return copy;
+        } else if (value instanceof List) {
+            List<Object> copy = new ArrayList<>(((List<?>) value).size());
+            for (Object child : (List<?>) value) {
+                copy.add(substitute(child, values));
+            }
+            return copy;
+        }
+        return value;
+    }
+}
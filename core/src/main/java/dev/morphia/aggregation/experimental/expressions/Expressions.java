@@ -4,6 +4,7 @@ import dev.morphia.aggregation.experimental.expressions.impls.DocumentExpression
 import dev.morphia.aggregation.experimental.expressions.impls.Expression;
 import dev.morphia.aggregation.experimental.expressions.impls.LiteralExpression;
 import dev.morphia.aggregation.experimental.expressions.impls.MetaExpression;
+import dev.morphia.aggregation.experimental.expressions.impls.ParameterExpression;
 import dev.morphia.aggregation.experimental.expressions.impls.ValueExpression;
 
 import java.util.ArrayList;
@@ -61,6 +62,18 @@ public final class Expressions {
         return new DocumentExpression();
     }
 
+    /**
+     * Creates a named parameter for use in a {@link dev.morphia.aggregation.experimental.CompiledAggregation compiled pipeline}.  The
+     * value is bound each time the pipeline is executed.  Parameters may be used anywhere an expression or a filter value is accepted.
+     *
+     * @param name the parameter name
+     * @return the new expression
+     * @since 2.2
+     */
+    public static ParameterExpression parameter(String name) {
+        return new ParameterExpression(name);
+    }
+
     /**
      * @param first      the first item
      * @param additional additional items
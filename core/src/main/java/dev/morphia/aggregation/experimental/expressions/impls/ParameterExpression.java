@@ -0,0 +1,31 @@
+package dev.morphia.aggregation.experimental.expressions.impls;
+
+/**
+ * A named placeholder in a compiled pipeline which is replaced by the value bound to it each time the pipeline is executed.
+ *
+ * @see dev.morphia.aggregation.experimental.CompiledAggregation
+ * @since 2.2
+ */
+public class ParameterExpression extends Expression {
+    /**
+     * The operation name used to mark parameters in the encoded pipeline.
+     *
+     * @morphia.internal
+     */
+    public static final String OPERATION = "$morphiaParameter";
+
+    /**
+     * @param name the parameter name
+     * @morphia.internal
+     */
+    public ParameterExpression(String name) {
+        super(OPERATION, name);
+    }
+
+    /**
+     * @return the parameter name
+     */
+    public String getName() {
+        return (String) getValue();
+    }
+}
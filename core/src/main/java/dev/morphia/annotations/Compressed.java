@@ -0,0 +1,35 @@
+package dev.morphia.annotations;
+
+import dev.morphia.mapping.codec.CompressedCodec;
+import dev.morphia.mapping.codec.Compressor;
+import dev.morphia.mapping.codec.DeflateCompressor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stores a {@code String} or {@code byte[]} property as compressed binary data once its encoded size reaches a threshold.  Smaller
+ * values are stored as is.  Both forms are read back transparently.  Compressed values can not be queried by content.
+ *
+ * @since 2.2
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Handler(CompressedCodec.class)
+public @interface Compressed {
+    /**
+     * @return the size in bytes, of the UTF-8 encoding for strings, below which values are stored uncompressed
+     */
+    int threshold() default 1024;
+
+    /**
+     * @return the compression to use.  The type must have a no argument constructor.
+     */
+    Class<? extends Compressor> compressor() default DeflateCompressor.class;
+}
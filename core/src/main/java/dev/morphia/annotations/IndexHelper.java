@@ -17,21 +17,32 @@
 package dev.morphia.annotations;
 
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexModel;
 import com.mongodb.lang.Nullable;
+import dev.morphia.EnsureIndexesOptions;
+import dev.morphia.IndexChange;
 import dev.morphia.internal.PathTarget;
+import dev.morphia.internal.jfr.IndexCreationEvent;
 import dev.morphia.mapping.Mapper;
 import dev.morphia.mapping.MappingException;
 import dev.morphia.mapping.codec.pojo.EntityModel;
 import dev.morphia.sofia.Sofia;
 import dev.morphia.utils.IndexType;
+import org.bson.BsonDocument;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -213,19 +224,208 @@ public final class IndexHelper {
      * @morphia.internal
      */
     public void createIndex(MongoCollection<?> collection, EntityModel model) {
-        if (!model.isInterface() && !model.isAbstract()) {
-            for (Index index : collectIndexes(model, Collections.emptyList())) {
-                createIndex(collection, model, index);
+        ensureIndexes(collection, List.of(model), new EnsureIndexesOptions());
+    }
+
+    /**
+     * Compares the indexes declared on the models with those already defined on the collection.  Unless this is a dry run, the missing
+     * indexes are then created with a single {@code createIndexes} command.  Changed indexes are dropped and created again along with
+     * the missing ones if they should be recreated, logged and left as they are if they should be skipped, and otherwise submitted
+     * after the missing ones so the server rejects them.
+     *
+     * @param collection the collection
+     * @param models     the models mapped to the collection
+     * @param options    the options to apply
+     * @return the missing and changed indexes
+     * @morphia.internal
+     * @since 2.2
+     */
+    public List<IndexChange> ensureIndexes(MongoCollection<?> collection, List<EntityModel> models, EnsureIndexesOptions options) {
+        Map<String, IndexModel> declared = new LinkedHashMap<>();
+        for (EntityModel model : models) {
+            if (!model.isInterface() && !model.isAbstract()) {
+                for (Index index : collectIndexes(model, Collections.emptyList())) {
+                    IndexModel indexModel = toIndexModel(model, index);
+                    declared.putIfAbsent(((Document) indexModel.getKeys()).toJson() + indexModel.getOptions().getName(), indexModel);
+                }
             }
         }
+        if (declared.isEmpty()) {
+            return emptyList();
+        }
+
+        String name = collection.getNamespace().getCollectionName();
+        List<Document> existing = collection.listIndexes().into(new ArrayList<>());
+        List<IndexChange> changes = new ArrayList<>();
+        List<IndexModel> create = new ArrayList<>();
+        List<IndexModel> conflicting = new ArrayList<>();
+        for (IndexModel index : declared.values()) {
+            IndexChange change = compare(collection, index, existing);
+            if (change != null) {
+                changes.add(change);
+                if (options.isDryRun()) {
+                    LOG.info(Sofia.indexChange(change));
+                } else if (change.getKind() == IndexChange.Kind.MISSING) {
+                    create.add(index);
+                } else if (options.isRecreateChanged()) {
+                    collection.dropIndex(change.getExisting().getString("name"));
+                    create.add(index);
+                } else if (options.isSkipChanged()) {
+                    Sofia.logIndexNotRecreated(change);
+                } else {
+                    conflicting.add(index);
+                }
+            }
+        }
+        createIndexes(collection, create);
+        // the server rejects these with an error naming the conflicting index
+        createIndexes(collection, conflicting);
+        LOG.debug("{} of {} indexes on {} need creating", changes.size(), declared.size(), name);
+        return changes;
     }
 
     void createIndex(MongoCollection<?> collection, EntityModel entityModel, Index index) {
+        createIndexes(collection, List.of(toIndexModel(entityModel, index)));
+    }
+
+    private void createIndexes(MongoCollection<?> collection, List<IndexModel> indexes) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        List<IndexCreationEvent> events = new ArrayList<>();
+        for (int i = 0; i < indexes.size(); i++) {
+            IndexCreationEvent event = new IndexCreationEvent();
+            event.begin();
+            events.add(event);
+        }
+
+        List<String> names = collection.createIndexes(indexes);
+        for (int i = 0; i < indexes.size(); i++) {
+            IndexCreationEvent event = events.get(i);
+            if (event.isEnabled()) {
+                event.complete(collection.getNamespace().getCollectionName(), ((Document) indexes.get(i).getKeys()).toJson(),
+                    names.get(i));
+            }
+        }
+    }
+
+    private IndexModel toIndexModel(EntityModel entityModel, Index index) {
         Document keys = calculateKeys(entityModel, index);
         com.mongodb.client.model.IndexOptions indexOptions = convert(index.options());
         calculateWeights(index, indexOptions);
+        return new IndexModel(keys, indexOptions);
+    }
 
-        collection.createIndex(keys, indexOptions);
+    @Nullable
+    private IndexChange compare(MongoCollection<?> collection, IndexModel index, List<Document> existing) {
+        Document keys = (Document) index.getKeys();
+        com.mongodb.client.model.IndexOptions options = index.getOptions();
+        Document declared = describe(collection, options);
+        String name = collection.getNamespace().getCollectionName();
+        for (Document candidate : existing) {
+            Document candidateKeys = candidate.get("key", Document.class);
+            boolean sameKeys = isText(keys) ? isText(candidateKeys) : sameKeys(keys, candidateKeys);
+            boolean sameName = options.getName() != null && options.getName().equals(candidate.getString("name"));
+            if (sameKeys || sameName) {
+                boolean matches = sameKeys && (options.getName() == null || sameName) && sameOptions(collection, declared, candidate);
+                return matches ? null : new IndexChange(IndexChange.Kind.CHANGED, name, keys, declared, candidate);
+            }
+        }
+        return new IndexChange(IndexChange.Kind.MISSING, name, keys, declared, null);
+    }
+
+    /**
+     * Describes the options the way {@code listIndexes} reports them, omitting defaults and the options the server does not keep.
+     */
+    private Document describe(MongoCollection<?> collection, com.mongodb.client.model.IndexOptions options) {
+        Document document = new Document();
+        if (options.getName() != null) {
+            document.put("name", options.getName());
+        }
+        if (options.isUnique()) {
+            document.put("unique", true);
+        }
+        if (options.isSparse()) {
+            document.put("sparse", true);
+        }
+        if (options.getExpireAfter(TimeUnit.SECONDS) != null) {
+            document.put("expireAfterSeconds", options.getExpireAfter(TimeUnit.SECONDS));
+        }
+        if (options.getPartialFilterExpression() != null) {
+            document.put("partialFilterExpression", toBson(collection, options.getPartialFilterExpression()));
+        }
+        if (options.getCollation() != null && !"simple".equals(options.getCollation().getLocale())) {
+            document.put("collation", options.getCollation().asDocument());
+        }
+        if (options.getWeights() != null) {
+            document.put("weights", toBson(collection, options.getWeights()));
+        }
+        if (options.getDefaultLanguage() != null) {
+            document.put("default_language", options.getDefaultLanguage());
+        }
+        if (options.getLanguageOverride() != null) {
+            document.put("language_override", options.getLanguageOverride());
+        }
+        return document;
+    }
+
+    private boolean sameOptions(MongoCollection<?> collection, Document declared, Document existing) {
+        Number expireAfter = existing.get("expireAfterSeconds", Number.class);
+        Document partialFilter = existing.get("partialFilterExpression", Document.class);
+        return declared.getBoolean("unique", false) == existing.getBoolean("unique", false)
+               && declared.getBoolean("sparse", false) == existing.getBoolean("sparse", false)
+               && Objects.equals(declared.getLong("expireAfterSeconds"), expireAfter == null ? null : expireAfter.longValue())
+               && Objects.equals(declared.get("partialFilterExpression"), partialFilter == null ? null : toBson(collection, partialFilter))
+               && Objects.equals(declared.get("collation"), collation(collection, existing))
+               && (!declared.containsKey("weights")
+                   || declared.get("weights", BsonDocument.class).keySet().equals(existing.get("weights", Document.class).keySet()))
+               && (!declared.containsKey("default_language")
+                   || declared.getString("default_language").equals(existing.getString("default_language")))
+               && (!declared.containsKey("language_override")
+                   || declared.getString("language_override").equals(existing.getString("language_override")));
+    }
+
+    /**
+     * The collation of an existing index without the ICU version the server adds to it
+     */
+    @Nullable
+    private BsonDocument collation(MongoCollection<?> collection, Document index) {
+        Document collation = index.get("collation", Document.class);
+        if (collation == null) {
+            return null;
+        }
+        BsonDocument document = toBson(collection, collation);
+        document.remove("version");
+        return document;
+    }
+
+    private BsonDocument toBson(MongoCollection<?> collection, Bson bson) {
+        return bson.toBsonDocument(BsonDocument.class, collection.getCodecRegistry());
+    }
+
+    private boolean isText(Document keys) {
+        return keys.containsKey("_fts") || keys.containsValue(IndexType.TEXT.toIndexValue());
+    }
+
+    private boolean sameKeys(Document declared, Document existing) {
+        if (declared.size() != existing.size()) {
+            return false;
+        }
+        Iterator<Entry<String, Object>> iterator = existing.entrySet().iterator();
+        for (Entry<String, Object> entry : declared.entrySet()) {
+            Entry<String, Object> other = iterator.next();
+            if (!entry.getKey().equals(other.getKey()) || !sameKeyValue(entry.getValue(), other.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameKeyValue(Object declared, Object existing) {
+        if (declared instanceof Number && existing instanceof Number) {
+            return ((Number) declared).doubleValue() == ((Number) existing).doubleValue();
+        }
+        return declared.equals(existing);
     }
 
     String findField(EntityModel entityModel, IndexOptions options, String path) {
@@ -0,0 +1,28 @@
+package dev.morphia.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the shard key of an entity's collection.  When saving, merging, deleting or refreshing an entity the current values of
+ * these properties are added to the {@code _id} filter so the operation can be routed to a single shard.  Queries can optionally be
+ * checked for a shard key predicate.
+ *
+ * @mongodb.driver.manual core/sharding-shard-key/ Shard Keys
+ * @see dev.morphia.mapping.MapperOptions.Builder#shardKeyValidation(dev.morphia.mapping.MapperOptions.ShardKeyValidation)
+ * @since 2.2
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+public @interface ShardKey {
+    /**
+     * @return the names of the properties making up the shard key in the order they are declared on the collection
+     */
+    String[] value();
+}
@@ -70,22 +70,38 @@ public abstract class BaseMorphiaSession extends DatastoreImpl implements Morphi
 
     @Override
     public void commitTransaction() {
-        session.commitTransaction();
+        try {
+            session.commitTransaction();
+        } finally {
+            getMapper().invalidateQueryCache();
+        }
     }
 
     @Override
     public void abortTransaction() {
-        session.abortTransaction();
+        try {
+            session.abortTransaction();
+        } finally {
+            getMapper().invalidateQueryCache();
+        }
     }
 
     @Override
     public <T> T withTransaction(TransactionBody<T> transactionBody) {
-        return session.withTransaction(transactionBody);
+        try {
+            return session.withTransaction(transactionBody);
+        } finally {
+            getMapper().invalidateQueryCache();
+        }
     }
 
     @Override
     public <T> T withTransaction(TransactionBody<T> transactionBody, TransactionOptions options) {
-        return session.withTransaction(transactionBody, options);
+        try {
+            return session.withTransaction(transactionBody, options);
+        } finally {
+            getMapper().invalidateQueryCache();
+        }
     }
 
     @Override
@@ -0,0 +1,51 @@
+package dev.morphia.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.DataAmount;
+
+/**
+ * The encoding of an entity to BSON.
+ *
+ * @morphia.internal
+ * @since 2.2
+ */
+@Name("dev.morphia.EntityEncode")
+@Label("Entity Encode")
+@Category("Morphia")
+@Description("The encoding of an entity to BSON.")
+@Enabled(false)
+@StackTrace(false)
+public class EntityEncodeEvent extends Event {
+    @Label("Entity Type")
+    private Class<?> entityType;
+
+    @Label("Fields")
+    private int fields;
+
+    @Label("Size")
+    @Description("The encoded size or -1 if it is unknown.")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Ends the event and commits it if it is enabled and passes the configured threshold.
+     *
+     * @param entityType the entity type
+     * @param fields     the number of fields
+     * @param bytes      the size in bytes or -1 if unknown
+     */
+    public void complete(Class<?> entityType, int fields, long bytes) {
+        if (shouldCommit()) {
+            this.entityType = entityType;
+            this.fields = fields;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
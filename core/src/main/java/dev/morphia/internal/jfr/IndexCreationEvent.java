@@ -0,0 +1,48 @@
+package dev.morphia.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The creation of an index.
+ *
+ * @morphia.internal
+ * @since 2.2
+ */
+@Name("dev.morphia.IndexCreation")
+@Label("Index Creation")
+@Category("Morphia")
+@Description("The creation of an index.")
+@Enabled(false)
+@StackTrace(false)
+public class IndexCreationEvent extends Event {
+    @Label("Collection")
+    private String collection;
+
+    @Label("Keys")
+    private String keys;
+
+    @Label("Name")
+    private String name;
+
+    /**
+     * Ends the event and commits it if it is enabled and passes the configured threshold.
+     *
+     * @param collection the collection
+     * @param keys       the index keys
+     * @param name       the index name
+     */
+    public void complete(String collection, String keys, String name) {
+        if (shouldCommit()) {
+            this.collection = collection;
+            this.keys = keys;
+            this.name = name;
+            commit();
+        }
+    }
+}
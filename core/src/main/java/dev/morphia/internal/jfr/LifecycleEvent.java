@@ -0,0 +1,43 @@
+package dev.morphia.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The invocation of the lifecycle methods and interceptors for an entity.
+ *
+ * @morphia.internal
+ * @since 2.2
+ */
+@Name("dev.morphia.Lifecycle")
+@Label("Lifecycle Callback")
+@Category("Morphia")
+@Description("The invocation of the lifecycle methods and interceptors for an entity.")
+@Enabled(false)
+@StackTrace(false)
+public class LifecycleEvent extends Event {
+    @Label("Entity Type")
+    private Class<?> entityType;
+
+    @Label("Callback")
+    private String callback;
+
+    /**
+     * Ends the event and commits it if it is enabled and passes the configured threshold.
+     *
+     * @param entityType the entity type
+     * @param callback   the lifecycle annotation
+     */
+    public void complete(Class<?> entityType, String callback) {
+        if (shouldCommit()) {
+            this.entityType = entityType;
+            this.callback = callback;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package dev.morphia.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The execution of a query and the iteration of its results.
+ *
+ * @morphia.internal
+ * @since 2.2
+ */
+@Name("dev.morphia.Query")
+@Label("Query")
+@Category("Morphia")
+@Description("The execution of a query and the iteration of its results.")
+@Enabled(false)
+@StackTrace(false)
+public class QueryEvent extends Event {
+    @Label("Operation")
+    private String operation;
+
+    @Label("Collection")
+    private String collection;
+
+    @Label("Entity Type")
+    private Class<?> entityType;
+
+    @Label("Shape Hash")
+    @Description("The hash of the query with its values removed.  Executions of the same query with different parameters share a hash.")
+    private int shapeHash;
+
+    @Label("Documents")
+    private long documents;
+
+    @Label("Decode Time")
+    @Description("The time spent fetching and decoding the results including any getMore round trips.")
+    @Timespan
+    private long decodeTime;
+
+    /**
+     * Describes the query being executed
+     *
+     * @param operation  the operation, e.g. find or count
+     * @param collection the collection
+     * @param entityType the entity type
+     * @param shapeHash  the hash of the query shape
+     * @return this
+     */
+    public QueryEvent describe(String operation, String collection, Class<?> entityType, int shapeHash) {
+        this.operation = operation;
+        this.collection = collection;
+        this.entityType = entityType;
+        this.shapeHash = shapeHash;
+        return this;
+    }
+
+    /**
+     * Records time spent iterating the results
+     *
+     * @param documents the number of documents read
+     * @param nanos     the time taken
+     */
+    public void iterated(long documents, long nanos) {
+        this.documents += documents;
+        this.decodeTime += nanos;
+    }
+
+    /**
+     * Ends the event and commits it if it is enabled and passes the configured threshold.
+     */
+    public void complete() {
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
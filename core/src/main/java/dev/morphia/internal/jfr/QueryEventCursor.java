@@ -0,0 +1,89 @@
+package dev.morphia.internal.jfr;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.lang.NonNull;
+import com.mongodb.lang.Nullable;
+
+/**
+ * Tracks the iteration of a cursor on a {@link QueryEvent}.  The event is committed once the cursor is exhausted or closed.  This
+ * wrapper is only used while the event is enabled.
+ *
+ * @param <T> the type of the results
+ * @morphia.internal
+ * @since 2.2
+ */
+public class QueryEventCursor<T> implements MongoCursor<T> {
+    private final MongoCursor<T> wrapped;
+    private final QueryEvent event;
+    private boolean completed;
+
+    /**
+     * Creates the cursor
+     *
+     * @param wrapped the cursor to track
+     * @param event   the event to update
+     */
+    public QueryEventCursor(MongoCursor<T> wrapped, QueryEvent event) {
+        this.wrapped = wrapped;
+        this.event = event;
+    }
+
+    @Override
+    public void close() {
+        try {
+            wrapped.close();
+        } finally {
+            complete();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        long start = System.nanoTime();
+        boolean hasNext = wrapped.hasNext();
+        event.iterated(0, System.nanoTime() - start);
+        if (!hasNext) {
+            complete();
+        }
+        return hasNext;
+    }
+
+    @Override
+    @NonNull
+    public T next() {
+        long start = System.nanoTime();
+        T next = wrapped.next();
+        event.iterated(1, System.nanoTime() - start);
+        return next;
+    }
+
+    @Override
+    @Nullable
+    public T tryNext() {
+        long start = System.nanoTime();
+        T next = wrapped.tryNext();
+        event.iterated(next != null ? 1 : 0, System.nanoTime() - start);
+        return next;
+    }
+
+    @Override
+    @Nullable
+    public ServerCursor getServerCursor() {
+        return wrapped.getServerCursor();
+    }
+
+    @Override
+    @NonNull
+    public ServerAddress getServerAddress() {
+        return wrapped.getServerAddress();
+    }
+
+    private void complete() {
+        if (!completed) {
+            completed = true;
+            event.complete();
+        }
+    }
+}
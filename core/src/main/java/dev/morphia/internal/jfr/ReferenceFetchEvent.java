@@ -0,0 +1,43 @@
+package dev.morphia.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The fetch of referenced entities.
+ *
+ * @morphia.internal
+ * @since 2.2
+ */
+@Name("dev.morphia.ReferenceFetch")
+@Label("Reference Fetch")
+@Category("Morphia")
+@Description("The fetch of referenced entities.")
+@Enabled(false)
+@StackTrace(false)
+public class ReferenceFetchEvent extends Event {
+    @Label("Entity Type")
+    private Class<?> entityType;
+
+    @Label("Entities")
+    private int count;
+
+    /**
+     * Ends the event and commits it if it is enabled and passes the configured threshold.
+     *
+     * @param entityType the referenced type
+     * @param count      the number of entities fetched
+     */
+    public void complete(Class<?> entityType, int count) {
+        if (shouldCommit()) {
+            this.entityType = entityType;
+            this.count = count;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Flight Recorder events for Morphia operations.  All the events are disabled by default and can be enabled by name, e.g.
+ * {@code dev.morphia.Query}, in a recording's settings.
+ *
+ * @morphia.internal
+ */
+@NonNullApi
+package dev.morphia.internal.jfr;
+
+import com.mongodb.lang.NonNullApi;
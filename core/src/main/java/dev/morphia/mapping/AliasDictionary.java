@@ -0,0 +1,122 @@
+package dev.morphia.mapping;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Assigns short stored names to properties.  The names are kept in an append-only dictionary collection, one document per mapped
+ * collection, so every application sharing a database stores a property under the same name.  Each change to a dictionary increments
+ * its version which guards concurrent additions.
+ *
+ * @morphia.internal
+ * @see MapperOptions#isShortPropertyNames()
+ * @since 2.2
+ */
+public final class AliasDictionary {
+    /**
+     * The collection holding the dictionaries
+     */
+    public static final String COLLECTION = "morphia_aliases";
+
+    private final Supplier<MongoCollection<Document>> collection;
+    private final Map<String, Map<String, String>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new dictionary
+     *
+     * @param collection supplies the collection holding the dictionaries
+     */
+    public AliasDictionary(Supplier<MongoCollection<Document>> collection) {
+        this.collection = collection;
+    }
+
+    /**
+     * Generates the alias for a position in the dictionary:  a, b, ... z, aa, ab, ...
+     *
+     * @param index the position
+     * @return the alias
+     */
+    static String alias(int index) {
+        StringBuilder alias = new StringBuilder();
+        int remaining = index;
+        do {
+            alias.insert(0, (char) ('a' + remaining % 26));
+            remaining = remaining / 26 - 1;
+        } while (remaining >= 0);
+        return alias.toString();
+    }
+
+    /**
+     * Finds the aliases for a set of names adding any that are missing to the dictionary.
+     *
+     * @param key      the dictionary to use.  This is the collection name for entities.
+     * @param names    the names to alias
+     * @param reserved the stored names already in use which must not be assigned as aliases
+     * @return the aliases keyed by name
+     */
+    public synchronized Map<String, String> aliases(String key, Collection<String> names, Set<String> reserved) {
+        Map<String, String> aliases = cache.get(key);
+        if (aliases == null || !aliases.keySet().containsAll(names)) {
+            aliases = append(key, names, reserved);
+            cache.put(key, aliases);
+        }
+        return aliases;
+    }
+
+    private Map<String, String> append(String key, Collection<String> names, Set<String> reserved) {
+        MongoCollection<Document> dictionaries = collection.get();
+        while (true) {
+            Document current = dictionaries.find(new Document("_id", key)).first();
+            Map<String, String> aliases = new LinkedHashMap<>();
+            int version = 0;
+            if (current != null) {
+                current.get("aliases", Document.class).forEach((name, alias) -> aliases.put(name, (String) alias));
+                version = current.getInteger("version");
+            }
+
+            Set<String> used = new HashSet<>(aliases.values());
+            used.addAll(reserved);
+            Document added = new Document();
+            int next = 0;
+            for (String name : names) {
+                if (!aliases.containsKey(name)) {
+                    String alias;
+                    do {
+                        alias = alias(next++);
+                    } while (used.contains(alias));
+                    used.add(alias);
+                    aliases.put(name, alias);
+                    added.put("aliases." + name, alias);
+                }
+            }
+            if (added.isEmpty()) {
+                return aliases;
+            }
+
+            added.put("version", version + 1);
+            try {
+                UpdateResult result = dictionaries.updateOne(new Document("_id", key).append("version", version),
+                    new Document("$set", added), new UpdateOptions().upsert(current == null));
+                if (result.getMatchedCount() == 1 || result.getUpsertedId() != null) {
+                    return aliases;
+                }
+            } catch (MongoWriteException e) {
+                if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
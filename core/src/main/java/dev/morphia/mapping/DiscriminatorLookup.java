@@ -16,14 +16,22 @@
 
 package dev.morphia.mapping;
 
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.lang.Nullable;
 import dev.morphia.mapping.codec.pojo.EntityModel;
+import org.bson.Document;
 import org.bson.codecs.configuration.CodecConfigurationException;
 
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Supplier;
 
 import static java.lang.String.format;
 
@@ -33,9 +41,22 @@ import static java.lang.String.format;
  * @morphia.internal
  */
 public final class DiscriminatorLookup {
+    /**
+     * The collection holding the integers assigned to discriminator values when compact discriminators are enabled
+     *
+     * @see MapperOptions#isCompactDiscriminators()
+     * @since 2.2
+     */
+    public static final String REGISTRY = "morphia_discriminators";
+    private static final String SEQUENCE = "$sequence";
+
     private final Map<String, Class<?>> discriminatorClassMap = new ConcurrentHashMap<>();
+    private final Map<String, Integer> compactValues = new ConcurrentHashMap<>();
+    private final Map<Integer, String> compactDiscriminators = new ConcurrentHashMap<>();
     private final Set<String> packages = new ConcurrentSkipListSet<>();
     private final ClassLoader classLoader;
+    private final Supplier<MongoCollection<Document>> registry;
+    private boolean loaded;
 
     /**
      * Creates a new lookup
@@ -43,7 +64,19 @@ public final class DiscriminatorLookup {
      * @param classLoader the classloader to use for look ups
      */
     public DiscriminatorLookup(ClassLoader classLoader) {
+        this(classLoader, null);
+    }
+
+    /**
+     * Creates a new lookup
+     *
+     * @param classLoader the classloader to use for look ups
+     * @param registry    the collection assigning integers to discriminator values or null if compact discriminators are not used
+     * @since 2.2
+     */
+    public DiscriminatorLookup(ClassLoader classLoader, @Nullable Supplier<MongoCollection<Document>> registry) {
         this.classLoader = classLoader;
+        this.registry = registry;
     }
 
     /**
@@ -53,6 +86,61 @@ public final class DiscriminatorLookup {
      */
     public void addModel(EntityModel entityModel) {
         discriminatorClassMap.put(entityModel.getDiscriminator(), entityModel.getType());
+        if (registry != null) {
+            compact(entityModel.getDiscriminator());
+        }
+    }
+
+    /**
+     * Finds the integer assigned to a discriminator value, registering a new one if this value has not been seen before.  The values of
+     * mapped types are registered when they are mapped so encoding an entity does not need to consult the registry.
+     *
+     * @param discriminator the discriminator value
+     * @return the compact form of the discriminator
+     * @since 2.2
+     */
+    public int compact(String discriminator) {
+        Integer value = compactValues.get(discriminator);
+        if (value == null) {
+            value = register(discriminator);
+        }
+        return value;
+    }
+
+    /**
+     * Looks up a compact discriminator value
+     *
+     * @param compact the value to search with
+     * @return the mapped class
+     * @see #compact(String)
+     * @since 2.2
+     */
+    public Class<?> lookup(int compact) {
+        String discriminator = compactDiscriminators.get(compact);
+        if (discriminator == null && registry != null) {
+            Document document = getRegistry().find(new Document("value", compact)).first();
+            if (document != null) {
+                cache(document);
+                discriminator = compactDiscriminators.get(compact);
+            }
+        }
+        if (discriminator == null) {
+            throw new CodecConfigurationException(format("A class could not be found for the discriminator: '%d'.", compact));
+        }
+        return lookup(discriminator);
+    }
+
+    /**
+     * Looks up a discriminator value stored in either its string or compact form
+     *
+     * @param discriminator the value to search with
+     * @return the mapped class
+     * @since 2.2
+     */
+    public Class<?> lookup(Object discriminator) {
+        return discriminator instanceof Number
+               ? lookup(((Number) discriminator).intValue())
+               : lookup((String) discriminator);
     }
 
     /**
@@ -79,6 +167,56 @@ public final class DiscriminatorLookup {
         return clazz;
     }
 
+    private void cache(Document document) {
+        Object id = document.get("_id");
+        if (!SEQUENCE.equals(id)) {
+            compactValues.put((String) id, document.getInteger("value"));
+            compactDiscriminators.put(document.getInteger("value"), (String) id);
+        }
+    }
+
+    private MongoCollection<Document> getRegistry() {
+        if (registry == null) {
+            throw new IllegalStateException("Compact discriminators are not enabled.");
+        }
+        return registry.get();
+    }
+
+    /**
+     * Reads the whole registry the first time a value is registered so that discriminators registered by other processes are not
+     * assigned again.
+     */
+    private void load() {
+        if (!loaded) {
+            getRegistry().find().forEach(this::cache);
+            loaded = true;
+        }
+    }
+
+    /**
+     * Assigns the next value in the sequence to a discriminator unless another process got there first in which case its value wins.
+     */
+    private synchronized int register(String discriminator) {
+        load();
+        if (!compactValues.containsKey(discriminator)) {
+            MongoCollection<Document> collection = getRegistry();
+            Document sequence = collection.findOneAndUpdate(new Document("_id", SEQUENCE),
+                new Document("$inc", new Document("value", 1)),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+            try {
+                collection.updateOne(new Document("_id", discriminator),
+                    new Document("$setOnInsert", new Document("value", sequence.getInteger("value"))),
+                    new UpdateOptions().upsert(true));
+            } catch (MongoWriteException e) {
+                if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+            cache(collection.find(new Document("_id", discriminator)).first());
+        }
+        return compactValues.get(discriminator);
+    }
+
     @Nullable
     private Class<?> getClassForName(String discriminator) {
         Class<?> clazz = null;
@@ -0,0 +1,166 @@
+package dev.morphia.mapping;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.lang.Nullable;
+import org.bson.Document;
+import org.bson.codecs.IdGenerator;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Generates numeric ids by reserving blocks of ids from a counter document.  Each block is reserved with a single {@code $inc} so
+ * processes sharing the counter never hand out the same id, and ids within a block are handed out without locking.  Ids are unique
+ * and increasing per process but, as blocks are reserved by several processes, not globally ordered and any ids left in a block when
+ * the process stops are never used.  Ids are generated as {@code Long} values and converted to the type of the id property.  An
+ * {@code int} id property fails with an {@code ArithmeticException} once the counter no longer fits in an {@code int}.
+ *
+ * @see Mapper#setIdGenerator(Class, IdGenerator)
+ * @since 2.2
+ */
+public class HiLoIdGenerator implements IdGenerator {
+    /**
+     * The default collection holding the counters
+     */
+    public static final String COLLECTION = "morphia_counters";
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "morphia-hilo-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final MongoCollection<Document> counters;
+    private final String name;
+    private final int blockSize;
+    private final boolean prefetch;
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(0, 0));
+    private final AtomicReference<CompletableFuture<Block>> next = new AtomicReference<>();
+
+    /**
+     * Creates a generator which reserves a new block once the current one is exhausted
+     *
+     * @param counters  the collection holding the counters
+     * @param name      the name of the counter
+     * @param blockSize the number of ids to reserve at a time
+     */
+    public HiLoIdGenerator(MongoCollection<Document> counters, String name, int blockSize) {
+        this(counters, name, blockSize, false);
+    }
+
+    /**
+     * Creates a generator
+     *
+     * @param counters  the collection holding the counters
+     * @param name      the name of the counter
+     * @param blockSize the number of ids to reserve at a time
+     * @param prefetch  if true the next block is reserved in the background once half of the current block has been used so that
+     *                  callers do not wait on the server when a block is exhausted
+     */
+    public HiLoIdGenerator(MongoCollection<Document> counters, String name, int blockSize, boolean prefetch) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("The block size must be greater than 0");
+        }
+        this.counters = counters;
+        this.name = name;
+        this.blockSize = blockSize;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public Object generate() {
+        while (true) {
+            Block block = current.get();
+            long id = block.next.getAndIncrement();
+            if (id < block.end) {
+                if (prefetch && id == block.end - (blockSize + 1) / 2) {
+                    prefetch();
+                }
+                return id;
+            }
+            refill(block);
+        }
+    }
+
+    /**
+     * @return the number of ids reserved at a time
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @return the name of the counter
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return true if the next block is reserved in the background
+     */
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    private void prefetch() {
+        CompletableFuture<Block> pending = new CompletableFuture<>();
+        if (next.compareAndSet(null, pending)) {
+            EXECUTOR.execute(() -> {
+                try {
+                    pending.complete(reserve());
+                } catch (RuntimeException e) {
+                    pending.completeExceptionally(e);
+                }
+            });
+        }
+    }
+
+    private synchronized void refill(Block exhausted) {
+        if (current.get() == exhausted) {
+            Block block = null;
+            CompletableFuture<Block> pending = next.getAndSet(null);
+            if (pending != null) {
+                try {
+                    block = pending.join();
+                } catch (CompletionException ignored) {
+                    // reserve the block synchronously instead
+                }
+            }
+            current.set(block != null ? block : reserve());
+        }
+    }
+
+    private Block reserve() {
+        Document counter = counters.findOneAndUpdate(new Document("_id", name),
+            new Document("$inc", new Document("value", (long) blockSize)),
+            new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        long hi = value(counter);
+        return new Block(hi - blockSize + 1, hi + 1);
+    }
+
+    private static long value(@Nullable Document counter) {
+        if (counter == null) {
+            throw new IllegalStateException("The counter could not be updated");
+        }
+        return ((Number) counter.get("value")).longValue();
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
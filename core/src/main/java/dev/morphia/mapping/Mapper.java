@@ -22,6 +22,9 @@ import dev.morphia.mapping.codec.reader.DocumentReader;
 import dev.morphia.mapping.codec.references.MorphiaProxy;
 import dev.morphia.mapping.codec.writer.DocumentWriter;
 import dev.morphia.mapping.validation.MappingValidator;
+import dev.morphia.query.ValidationException;
+import dev.morphia.query.internal.ProjectionCodec;
+import dev.morphia.query.internal.QueryCache;
 import dev.morphia.sofia.Sofia;
 import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ClassInfo;
@@ -30,12 +33,25 @@ import org.bson.Document;
 import org.bson.codecs.Codec;
 import org.bson.codecs.DecoderContext;
 import org.bson.codecs.EncoderContext;
+import org.bson.codecs.IdGenerator;
 import org.bson.codecs.configuration.CodecRegistry;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -44,7 +60,10 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static dev.morphia.sofia.Sofia.entityOrEmbedded;
 import static org.bson.codecs.configuration.CodecRegistries.fromProviders;
@@ -63,16 +82,27 @@ public class Mapper {
      */
     public static final String IGNORED_FIELDNAME = ".";
 
+    /**
+     * The location of the entity index generated by morphia-processor
+     */
+    private static final String ENTITY_INDEX = "META-INF/morphia/entities.idx";
+
     /**
      * Set of classes that registered by this mapper
      */
     private final Map<Class, EntityModel> mappedEntities = new ConcurrentHashMap<>();
+    private final Map<Class, Object> mappingLocks = new ConcurrentHashMap<>();
+    private final ThreadLocal<List<EntityModel>> unvalidated = new ThreadLocal<>();
     private final ConcurrentHashMap<String, Set<EntityModel>> mappedEntitiesByCollection = new ConcurrentHashMap<>();
+    private final Map<List<Class<?>>, ProjectionCodec<?>> projectionCodecs = new ConcurrentHashMap<>();
+    private final QueryCache queryCache;
+    private final Map<Class<?>, IdGenerator> idGenerators = new ConcurrentHashMap<>();
 
     //EntityInterceptors; these are called after EntityListeners and lifecycle methods on an Entity, for all Entities
     private final List<EntityInterceptor> interceptors = new LinkedList<>();
     private final MapperOptions options;
     private final DiscriminatorLookup discriminatorLookup;
+    private final AliasDictionary aliasDictionary;
 
 
     private final MorphiaCodecProvider morphiaCodecProvider;
@@ -91,7 +121,11 @@ public class Mapper {
         this.datastore = datastore;
         this.options = options;
         morphiaCodecProvider = new MorphiaCodecProvider(this, datastore);
-        discriminatorLookup = new DiscriminatorLookup(options.getClassLoader());
+        discriminatorLookup = new DiscriminatorLookup(options.getClassLoader(), options.isCompactDiscriminators()
+            ? () -> datastore.getDatabase().getCollection(DiscriminatorLookup.REGISTRY, Document.class)
+            : null);
+        queryCache = new QueryCache(options.getQueryCacheSize());
+        aliasDictionary = new AliasDictionary(() -> datastore.getDatabase().getCollection(AliasDictionary.COLLECTION, Document.class));
 
         this.codecRegistry = fromProviders(new MorphiaTypesCodecProvider(this),
             new PrimitiveCodecRegistry(codecRegistry),
@@ -175,6 +209,16 @@ public class Mapper {
                    .decode(reader, DecoderContext.builder().build());
     }
 
+    /**
+     * @return the dictionary of short property names
+     * @morphia.internal
+     * @see MapperOptions#isShortPropertyNames()
+     * @since 2.2
+     */
+    public AliasDictionary getAliasDictionary() {
+        return aliasDictionary;
+    }
+
     /**
      * Gets the class as defined by any discriminator field
      *
@@ -187,9 +231,9 @@ public class Mapper {
     public <T> Class<T> getClass(Document document) {
         // see if there is a className value
         Class c = null;
-        String discriminator = (String) document.get(getOptions().getDiscriminatorKey());
+        Object discriminator = document.get(getOptions().getDiscriminatorKey());
         if (discriminator != null) {
-            c = getClass(discriminator);
+            c = discriminatorLookup.lookup(discriminator);
         }
         return c;
     }
@@ -243,6 +287,22 @@ public class Mapper {
         return codecRegistry;
     }
 
+    /**
+     * Gets the codec for the values of a property.  The property codecs of an entity are only resolved when the codec for the entity
+     * itself is created so this creates that codec first if needed.
+     *
+     * @param property the property
+     * @return the codec for the property's values
+     * @morphia.internal
+     * @since 2.2
+     */
+    public Codec<? super Object> getPropertyCodec(PropertyModel property) {
+        if (property.getCachedCodec() == null) {
+            codecRegistry.get(property.getEntityModel().getType());
+        }
+        return property.getCachedCodec();
+    }
+
     /**
      * @param type the type look up
      * @param <T>  the class type
@@ -281,7 +341,7 @@ public class Mapper {
                 throw new MappingException(entityOrEmbedded(type.getName()));
             }
         }
-        return classes.stream()
+        return stream(classes)
                       .map(this::getEntityModel)
                       .filter(Objects::nonNull)
                       .collect(Collectors.toList());
@@ -301,12 +361,93 @@ public class Mapper {
             if (!isMappable(actual)) {
                 throw new NotMappableException(type);
             }
-            model = register(createEntityModel(type));
+            model = register(actual, () -> createEntityModel(type));
         }
 
         return model;
     }
 
+    /**
+     * Gets the codec loading an entity type in to a DTO.  Codecs are built once per pair of types and cached.
+     *
+     * @param entity the entity type
+     * @param dto    the DTO type
+     * @param <R>    the DTO type
+     * @return the codec
+     * @morphia.internal
+     * @since 2.2
+     */
+    @SuppressWarnings("unchecked")
+    public <R> ProjectionCodec<R> getProjectionCodec(Class<?> entity, Class<R> dto) {
+        return (ProjectionCodec<R>) projectionCodecs.computeIfAbsent(List.of(entity, dto), key -> new ProjectionCodec<>(this, entity, dto));
+    }
+
+    /**
+     * Gets the generator creating the ids of an entity type.  Generators registered for a superclass also apply to its subclasses.
+     *
+     * @param model the entity model
+     * @return the generator or null if none has been registered
+     * @see #setIdGenerator(Class, IdGenerator)
+     * @since 2.2
+     */
+    @Nullable
+    public IdGenerator getIdGenerator(EntityModel model) {
+        for (EntityModel current = model; current != null; current = current.getSuperClass()) {
+            IdGenerator generator = idGenerators.get(current.getType());
+            if (generator != null) {
+                return generator;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Registers the generator creating the ids of an entity type and its subclasses.  Ids are only generated for entities whose id is
+     * null when they are first saved.  Without a registered generator only {@code ObjectId} ids are generated.
+     *
+     * @param type      the entity type
+     * @param generator the generator to use
+     * @see HiLoIdGenerator
+     * @since 2.2
+     */
+    public void setIdGenerator(Class<?> type, IdGenerator generator) {
+        EntityModel model = getEntityModel(type);
+        if (model.getIdProperty() == null) {
+            throw new MappingException(Sofia.idRequired(type.getName()));
+        }
+        idGenerators.put(model.getType(), generator);
+    }
+
+    /**
+     * @return the cache holding the results of queries run with {@link dev.morphia.query.FindOptions#cache(long, TimeUnit)}
+     * @morphia.internal
+     * @since 2.2
+     */
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Discards the cached query results of a collection.  Must be called after every write to the collection.
+     *
+     * @param collection the collection written to
+     * @morphia.internal
+     * @since 2.2
+     */
+    public void invalidateQueryCache(MongoCollection<?> collection) {
+        queryCache.invalidate(collection.getNamespace().getCollectionName());
+    }
+
+    /**
+     * Discards all cached query results.  Must be called when a transaction commits or aborts.
+     *
+     * @morphia.internal
+     * @since 2.2
+     */
+    public void invalidateQueryCache() {
+        queryCache.invalidateAll();
+    }
+
     /**
      * Gets the ID value for an entity
      *
@@ -474,7 +615,8 @@ public class Mapper {
             if (annotation == null) {
                 annotation = (A) EmbeddedBuilder.builder();
             }
-            model = register(createEntityModel(type, annotation));
+            A external = annotation;
+            model = register(actual, () -> createEntityModel(type, external));
         }
 
 
@@ -482,14 +624,14 @@ public class Mapper {
     }
 
     /**
-     * Tries to map all classes in the package specified.
+     * Tries to map all classes in the package specified.  The types listed in the entity indexes generated by morphia-processor are
+     * loaded directly and only the classpath elements without an index that contain the package are scanned.
      *
      * @param packageName the name of the package to process
      */
     public synchronized void mapPackage(String packageName) {
         try {
-            getClasses(options.getClassLoader(), packageName, getOptions().isMapSubPackages())
-                .stream()
+            stream(getClasses(options.getClassLoader(), packageName, getOptions().isMapSubPackages()))
                 .map(type -> {
                     try {
                         return getEntityModel(type);
@@ -539,13 +681,15 @@ public class Mapper {
         Codec<T> refreshCodec = morphiaCodecProvider.getRefreshCodec(entity, getCodecRegistry());
 
         MongoCollection<?> collection = getCollection(entity.getClass());
-        PropertyModel idField = getEntityModel(entity.getClass())
-                                    .getIdProperty();
+        EntityModel model = getEntityModel(entity.getClass());
+        PropertyModel idField = model.getIdProperty();
         if (idField == null) {
             throw new MappingException(Sofia.idRequired(entity.getClass().getName()));
         }
 
-        Document id = collection.find(new Document("_id", idField.getValue(entity)), Document.class)
+        Document filter = new Document("_id", idField.getValue(entity));
+        filter.putAll(model.getShardKey(entity));
+        Document id = collection.find(filter, Document.class)
                                 .iterator()
                                 .next();
 
@@ -589,6 +733,36 @@ public class Mapper {
         return collection;
     }
 
+    /**
+     * Gets the discriminator value as stored in the database.  This is the model's discriminator unless compact discriminators are
+     * enabled in which case it is the integer assigned to that discriminator.
+     *
+     * @param model the model
+     * @return the stored discriminator value
+     * @see MapperOptions#isCompactDiscriminators()
+     * @since 2.2
+     */
+    public Object getDiscriminatorValue(EntityModel model) {
+        return options.isCompactDiscriminators()
+               ? discriminatorLookup.compact(model.getDiscriminator())
+               : model.getDiscriminator();
+    }
+
+    /**
+     * Gets the discriminator values a query should match for the model.  With compact discriminators enabled this includes the string
+     * discriminator along with the integer so documents written before compact discriminators were enabled still match.
+     *
+     * @param model the model
+     * @return the discriminator values to match
+     * @see #getDiscriminatorValue(EntityModel)
+     * @since 2.2
+     */
+    public List<Object> getDiscriminatorValues(EntityModel model) {
+        return options.isCompactDiscriminators()
+               ? List.of(discriminatorLookup.compact(model.getDiscriminator()), model.getDiscriminator())
+               : List.of(model.getDiscriminator());
+    }
+
     /**
      * Updates a query with any discriminators from subtypes if polymorphic queries are enabled
      *
@@ -601,11 +775,11 @@ public class Mapper {
             && !query.containsKey("_id")
             && !query.containsKey(model.getDiscriminatorKey())) {
             List<EntityModel> subtypes = model.getSubtypes();
-            List<String> values = new ArrayList<>();
-            values.add(model.getDiscriminator());
+            List<Object> values = new ArrayList<>();
+            values.addAll(getDiscriminatorValues(model));
             if (options.isEnablePolymorphicQueries()) {
                 for (EntityModel subtype : subtypes) {
-                    values.add(subtype.getDiscriminator());
+                    values.addAll(getDiscriminatorValues(subtype));
                 }
             }
             query.put(model.getDiscriminatorKey(),
@@ -614,6 +788,46 @@ public class Mapper {
     }
 
 
+    /**
+     * Checks that a query on an entity declaring a shard key filters on the leading shard key property so it can be routed to the
+     * shards holding the matching documents.
+     *
+     * @param model the query model
+     * @param query the query document
+     * @see MapperOptions#getShardKeyValidation()
+     * @since 2.2
+     */
+    public void validateShardKey(EntityModel model, Document query) {
+        MapperOptions.ShardKeyValidation validation = options.getShardKeyValidation();
+        List<PropertyModel> shardKey = model.getShardKeyProperties();
+        if (validation == MapperOptions.ShardKeyValidation.NONE || shardKey.isEmpty()
+            || hasPredicate(query, shardKey.get(0).getMappedName())) {
+            return;
+        }
+        List<String> names = shardKey.stream()
+                                     .map(PropertyModel::getMappedName)
+                                     .collect(Collectors.toList());
+        if (validation == MapperOptions.ShardKeyValidation.FAIL) {
+            throw new ValidationException(Sofia.missingShardKey(model.getType().getName(), names, query.toJson()));
+        }
+        Sofia.logBroadcastQuery(model.getType().getName(), names, query.toJson());
+    }
+
+    private static boolean hasPredicate(Document query, String name) {
+        if (query.containsKey(name)) {
+            return true;
+        }
+        Object and = query.get("$and");
+        if (and instanceof List) {
+            for (Object clause : (List<?>) and) {
+                if (clause instanceof Document && hasPredicate((Document) clause, name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     private String discriminatorKey(Class<?> type) {
         return mappedEntities.get(type)
                              .getDiscriminatorKey();
@@ -623,8 +837,20 @@ public class Mapper {
         throws ClassNotFoundException {
         final Set<Class> classes = new HashSet<>();
 
+        Map<Path, List<String>> indexes = getEntityIndexes(loader, packageName, mapSubPackages);
+        for (List<String> names : indexes.values()) {
+            for (String name : names) {
+                classes.add(Class.forName(name, true, loader));
+            }
+        }
+        if (!indexes.isEmpty() && indexes.keySet().containsAll(getPackageRoots(loader, packageName))) {
+            return new ArrayList<>(classes);
+        }
+
+        // the package also lives in classpath elements without an index so only those are scanned
         ClassGraph classGraph = new ClassGraph()
                                     .addClassLoader(loader)
+                                    .filterClasspathElements(element -> !indexes.containsKey(toRoot(element)))
                                     .enableAllInfo();
         if (mapSubPackages) {
             classGraph.whitelistPackages(packageName);
@@ -641,6 +867,88 @@ public class Mapper {
         return new ArrayList<>(classes);
     }
 
+    /**
+     * Reads the entity indexes generated at compile time by morphia-processor, if any, keyed by the classpath element holding them.
+     * An element with an index is considered to be fully described by it.
+     */
+    private Map<Path, List<String>> getEntityIndexes(ClassLoader loader, String packageName, boolean mapSubPackages) {
+        Map<Path, List<String>> indexes = new HashMap<>();
+        try {
+            Enumeration<URL> resources = loader.getResources(ENTITY_INDEX);
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                Path root = toRoot(url, ENTITY_INDEX);
+                if (root == null) {
+                    continue;
+                }
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                    indexes.put(root, reader.lines()
+                                            .map(String::trim)
+                                            .filter(name -> isInPackage(name, packageName, mapSubPackages))
+                                            .collect(Collectors.toList()));
+                }
+            }
+        } catch (IOException e) {
+            Sofia.logEntityIndexUnreadable(e.getMessage());
+            return Map.of();
+        }
+        return indexes;
+    }
+
+    /**
+     * Finds the classpath elements containing the package.  An element that can't be resolved to a path is returned as null so that it
+     * is never considered covered by an index.
+     */
+    private static Set<Path> getPackageRoots(ClassLoader loader, String packageName) {
+        Set<Path> roots = new HashSet<>();
+        String resource = packageName.replace('.', '/');
+        try {
+            Enumeration<URL> resources = loader.getResources(resource);
+            while (resources.hasMoreElements()) {
+                roots.add(toRoot(resources.nextElement(), resource));
+            }
+        } catch (IOException e) {
+            roots.add(null);
+        }
+        return roots;
+    }
+
+    @Nullable
+    private static Path toRoot(URL url, String resource) {
+        String location = url.toString();
+        int end = location.lastIndexOf(resource);
+        return end != -1 ? toRoot(location.substring(0, end)) : null;
+    }
+
+    /**
+     * Resolves a classpath element given either as a path or as a file or jar URL
+     */
+    @Nullable
+    private static Path toRoot(String element) {
+        String location = element;
+        if (location.startsWith("jar:")) {
+            location = location.substring("jar:".length());
+        }
+        if (location.endsWith("!/")) {
+            location = location.substring(0, location.length() - "!/".length());
+        }
+        try {
+            Path path = location.startsWith("file:") ? Paths.get(new URI(location)) : Paths.get(location);
+            return path.toAbsolutePath().normalize();
+        } catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static boolean isInPackage(String name, String packageName, boolean mapSubPackages) {
+        int lastDot = name.lastIndexOf('.');
+        if (lastDot == -1) {
+            return packageName.isEmpty();
+        }
+        String typePackage = name.substring(0, lastDot);
+        return typePackage.equals(packageName) || mapSubPackages && typePackage.startsWith(packageName + ".");
+    }
+
     private <T> boolean hasAnnotation(Class<T> clazz, List<Class<? extends Annotation>> annotations) {
         for (Class<? extends Annotation> annotation : annotations) {
             if (clazz.getAnnotation(annotation) != null) {
@@ -654,18 +962,50 @@ public class Mapper {
                         .reduce(false, (l, r) -> l || r);
     }
 
-    private EntityModel register(EntityModel entityModel) {
-        discriminatorLookup.addModel(entityModel);
-        mappedEntities.put(entityModel.getType(), entityModel);
-        if (entityModel.getCollectionName() != null) {
-            mappedEntitiesByCollection.computeIfAbsent(entityModel.getCollectionName(), s -> new CopyOnWriteArraySet<>())
-                                      .add(entityModel);
-        }
+    private <T> Stream<T> stream(List<T> classes) {
+        return options.isParallelMapping() ? classes.parallelStream() : classes.stream();
+    }
 
-        if (!entityModel.isInterface()) {
-            new MappingValidator()
-                .validate(this, entityModel);
+    /**
+     * Creates and registers the model for a type unless another thread has already done so.  Building a model maps its supertypes
+     * first so the per type locks are always acquired from subtype to supertype.  Validation can map other, unrelated types and is
+     * deferred until the outermost registration on this thread has released its locks.
+     */
+    private EntityModel register(Class type, Supplier<EntityModel> factory) {
+        List<EntityModel> pending = unvalidated.get();
+        boolean outermost = pending == null;
+        if (outermost) {
+            pending = new ArrayList<>();
+            unvalidated.set(pending);
+        }
+        EntityModel entityModel;
+        try {
+            synchronized (mappingLocks.computeIfAbsent(type, t -> new Object())) {
+                entityModel = mappedEntities.get(type);
+                if (entityModel == null) {
+                    entityModel = factory.get();
+                    discriminatorLookup.addModel(entityModel);
+                    mappedEntities.put(entityModel.getType(), entityModel);
+                    if (entityModel.getCollectionName() != null) {
+                        mappedEntitiesByCollection.computeIfAbsent(entityModel.getCollectionName(), s -> new CopyOnWriteArraySet<>())
+                                                  .add(entityModel);
+                    }
+                    pending.add(entityModel);
+                }
+            }
+        } finally {
+            if (outermost) {
+                unvalidated.remove();
+            }
+        }
 
+        if (outermost) {
+            for (EntityModel model : pending) {
+                if (!model.isInterface()) {
+                    new MappingValidator()
+                        .validate(this, model);
+                }
+            }
         }
 
         return entityModel;
@@ -1,6 +1,7 @@
 package dev.morphia.mapping;
 
 
+import com.mongodb.lang.Nullable;
 import dev.morphia.annotations.Entity;
 import dev.morphia.annotations.Property;
 import dev.morphia.mapping.conventions.ConfigureProperties;
@@ -8,9 +9,12 @@ import dev.morphia.mapping.conventions.FieldDiscovery;
 import dev.morphia.mapping.conventions.MethodDiscovery;
 import dev.morphia.mapping.conventions.MorphiaConvention;
 import dev.morphia.mapping.conventions.MorphiaDefaultsConvention;
+import dev.morphia.mapping.conventions.ShortPropertyNames;
+import dev.morphia.metrics.MorphiaMetrics;
 import dev.morphia.query.DefaultQueryFactory;
 import dev.morphia.query.LegacyQueryFactory;
 import dev.morphia.query.QueryFactory;
+import dev.morphia.query.QueryLogger;
 import dev.morphia.sofia.Sofia;
 import org.bson.UuidRepresentation;
 import org.slf4j.Logger;
@@ -37,6 +41,8 @@ public class MapperOptions {
     private final boolean storeEmpties;
     private final boolean cacheClassLookups;
     private final boolean mapSubPackages;
+    private final boolean compactDiscriminators;
+    private final boolean shortPropertyNames;
     private final DateStorage dateStorage;
     private final String discriminatorKey;
     private final DiscriminatorFunction discriminator;
@@ -47,12 +53,18 @@ public class MapperOptions {
     private final UuidRepresentation uuidRepresentation;
     private final QueryFactory queryFactory;
     private final boolean enablePolymorphicQueries;
+    private final boolean parallelMapping;
+    private final MorphiaMetrics metrics;
+    private final QueryLogger queryLogger;
+    private final int queryCacheSize;
+    private final ShardKeyValidation shardKeyValidation;
     private ClassLoader classLoader;
 
     private MapperOptions(Builder builder) {
         cacheClassLookups = builder.cacheClassLookups;
         classLoader = builder.classLoader;
         collectionNaming = builder.collectionNaming;
+        compactDiscriminators = builder.compactDiscriminators();
         conventions = builder.conventions();
         dateStorage = builder.dateStorage();
         discriminator = builder.discriminator();
@@ -62,7 +74,13 @@ public class MapperOptions {
         propertyNaming = builder.propertyNaming();
         ignoreFinals = builder.ignoreFinals();
         mapSubPackages = builder.mapSubPackages();
+        metrics = builder.metrics();
+        parallelMapping = builder.parallelMapping();
         queryFactory = builder.queryFactory();
+        queryLogger = builder.queryLogger();
+        queryCacheSize = builder.queryCacheSize();
+        shortPropertyNames = builder.shortPropertyNames();
+        shardKeyValidation = builder.shardKeyValidation();
         storeEmpties = builder.storeEmpties();
         storeNulls = builder.storeNulls();
         uuidRepresentation = builder.uuidRepresentation();
@@ -164,6 +182,33 @@ public class MapperOptions {
         return propertyNaming;
     }
 
+    /**
+     * @return the metrics receiving Morphia's instrumentation
+     * @since 2.2
+     */
+    public MorphiaMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the maximum number of result documents held in the query cache
+     * @see dev.morphia.query.FindOptions#cache(long, java.util.concurrent.TimeUnit)
+     * @since 2.2
+     */
+    public int getQueryCacheSize() {
+        return queryCacheSize;
+    }
+
+    /**
+     * @return the listener capturing the queries sent to the server or null if queries are not logged
+     * @see QueryLogger
+     * @since 2.2
+     */
+    @Nullable
+    public QueryLogger getQueryLogger() {
+        return queryLogger;
+    }
+
     /**
      * @return the query factory used by the Datastore
      * @since 2.0
@@ -172,6 +217,15 @@ public class MapperOptions {
         return queryFactory;
     }
 
+    /**
+     * @return how queries on entities declaring a shard key are checked
+     * @see dev.morphia.annotations.ShardKey
+     * @since 2.2
+     */
+    public ShardKeyValidation getShardKeyValidation() {
+        return shardKeyValidation;
+    }
+
     /**
      * @return the UUID representation to use in the driver
      */
@@ -186,6 +240,14 @@ public class MapperOptions {
         return cacheClassLookups;
     }
 
+    /**
+     * @return true if discriminators are stored as integers assigned by a registry collection
+     * @since 2.2
+     */
+    public boolean isCompactDiscriminators() {
+        return compactDiscriminators;
+    }
+
     /**
      * @return true if polymorphic queries are enabled
      */
@@ -207,6 +269,23 @@ public class MapperOptions {
         return mapSubPackages;
     }
 
+    /**
+     * @return true if Morphia should map batches of classes concurrently
+     * @since 2.2
+     */
+    public boolean isParallelMapping() {
+        return parallelMapping;
+    }
+
+    /**
+     * @return true if properties are stored under short names assigned by a dictionary collection
+     * @see dev.morphia.mapping.conventions.ShortPropertyNames
+     * @since 2.2
+     */
+    public boolean isShortPropertyNames() {
+        return shortPropertyNames;
+    }
+
     /**
      * @return true if Morphia should store empty values for lists/maps/sets/arrays
      */
@@ -226,6 +305,27 @@ public class MapperOptions {
         METHODS
     }
 
+    /**
+     * Determines what happens when a query on an entity declaring a {@link dev.morphia.annotations.ShardKey} does not filter on the
+     * leading shard key property and so must be broadcast to every shard.
+     *
+     * @since 2.2
+     */
+    public enum ShardKeyValidation {
+        /**
+         * Queries are not checked
+         */
+        NONE,
+        /**
+         * A warning is logged
+         */
+        WARN,
+        /**
+         * A {@link dev.morphia.query.ValidationException} is thrown
+         */
+        FAIL
+    }
+
     /**
      * A builder class for setting mapping options
      */
@@ -238,7 +338,10 @@ public class MapperOptions {
         private boolean storeEmpties;
         private boolean cacheClassLookups;
         private boolean mapSubPackages;
+        private boolean compactDiscriminators;
+        private boolean shortPropertyNames;
         private boolean enablePolymorphicQueries;
+        private boolean parallelMapping;
         private ClassLoader classLoader;
         private DateStorage dateStorage = DateStorage.UTC;
         private String discriminatorKey = "_t";
@@ -248,6 +351,10 @@ public class MapperOptions {
         private UuidRepresentation uuidRepresentation = STANDARD;
         private QueryFactory queryFactory = new DefaultQueryFactory();
         private PropertyDiscovery propertyDiscovery = FIELDS;
+        private MorphiaMetrics metrics = MorphiaMetrics.noop();
+        private QueryLogger queryLogger;
+        private int queryCacheSize = 1000;
+        private ShardKeyValidation shardKeyValidation = ShardKeyValidation.NONE;
         private MapperOptions options;
 
         private Builder() {
@@ -259,9 +366,12 @@ public class MapperOptions {
             dateStorage = original.getDateStorage();
             ignoreFinals = original.isIgnoreFinals();
             mapSubPackages = original.isMapSubPackages();
+            parallelMapping = original.isParallelMapping();
             storeEmpties = original.isStoreEmpties();
             storeNulls = original.isStoreNulls();
 
+            compactDiscriminators = original.compactDiscriminators;
+            shortPropertyNames = original.shortPropertyNames;
             enablePolymorphicQueries = original.enablePolymorphicQueries;
             discriminatorKey = original.discriminatorKey;
             discriminator = original.discriminator;
@@ -270,6 +380,10 @@ public class MapperOptions {
             uuidRepresentation = original.uuidRepresentation;
             queryFactory = original.queryFactory;
             propertyDiscovery = original.propertyDiscovery;
+            metrics = original.metrics;
+            queryLogger = original.queryLogger;
+            queryCacheSize = original.queryCacheSize;
+            shardKeyValidation = original.shardKeyValidation;
         }
 
         /**
@@ -328,6 +442,21 @@ public class MapperOptions {
             return this;
         }
 
+        /**
+         * Stores discriminators as small integers rather than strings.  The integer assigned to each discriminator value is kept in
+         * the {@value DiscriminatorLookup#REGISTRY} collection so every application sharing a database agrees on it.  Documents
+         * written with string discriminators can still be read but queries only match the compact values.
+         *
+         * @param compactDiscriminators if true discriminators are stored as integers
+         * @return this
+         * @since 2.2
+         */
+        public Builder compactDiscriminators(boolean compactDiscriminators) {
+            assertNotLocked();
+            this.compactDiscriminators = compactDiscriminators;
+            return this;
+        }
+
         /**
          * @param dateStorage the storage format to use for dates
          * @return this
@@ -434,6 +563,70 @@ public class MapperOptions {
             return this;
         }
 
+        /**
+         * Registers the metrics implementation to receive timings and counts for entity encoding and decoding, write operations,
+         * queries, and reference fetches.  By default nothing is recorded.
+         *
+         * @param metrics the metrics to use
+         * @return this
+         * @since 2.2
+         */
+        public Builder metrics(MorphiaMetrics metrics) {
+            assertNotLocked();
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of result documents held in the query cache across all cached queries.  Once full the results of the
+         * least recently used queries are evicted and the results of a single query larger than this are not cached at all.
+         *
+         * @param queryCacheSize the maximum number of cached result documents.  0 disables the cache.
+         * @return this
+         * @see dev.morphia.query.FindOptions#cache(long, java.util.concurrent.TimeUnit)
+         * @since 2.2
+         */
+        public Builder queryCacheSize(int queryCacheSize) {
+            assertNotLocked();
+            if (queryCacheSize < 0) {
+                throw new IllegalArgumentException(Sofia.invalidQueryCacheSize(queryCacheSize));
+            }
+            this.queryCacheSize = queryCacheSize;
+            return this;
+        }
+
+        /**
+         * Sets the listener capturing the query commands sent to the server.  It is used by
+         * {@link dev.morphia.query.FindOptions#logQuery()} instead of the database profiler once it is registered on the
+         * {@code MongoClientSettings} used to create the client with
+         * {@link QueryLogger#register(com.mongodb.MongoClientSettings.Builder)}.  Defaults to none unless the client is created by
+         * Morphia.
+         *
+         * @param queryLogger the logger to use or null to not log queries
+         * @return this
+         * @see dev.morphia.query.FindOptions#logQuery()
+         * @since 2.2
+         */
+        public Builder queryLogger(@Nullable QueryLogger queryLogger) {
+            assertNotLocked();
+            this.queryLogger = queryLogger;
+            return this;
+        }
+
+        /**
+         * Enables building the models for a batch of classes concurrently when calling {@link Mapper#map(List)} or
+         * {@link Mapper#mapPackage(String)}.  This can reduce startup times for applications with many entities.
+         *
+         * @param parallelMapping if true classes are mapped concurrently
+         * @return this
+         * @since 2.2
+         */
+        public Builder parallelMapping(boolean parallelMapping) {
+            assertNotLocked();
+            this.parallelMapping = parallelMapping;
+            return this;
+        }
+
         /**
          * Determines how properties are discovered on mapped entities
          *
@@ -471,6 +664,37 @@ public class MapperOptions {
             return this;
         }
 
+        /**
+         * Sets how queries on entities declaring a {@link dev.morphia.annotations.ShardKey} are checked for a shard key predicate.
+         * The default is {@link ShardKeyValidation#NONE}.
+         *
+         * @param validation the validation to apply
+         * @return this
+         * @since 2.2
+         */
+        public Builder shardKeyValidation(ShardKeyValidation validation) {
+            assertNotLocked();
+            this.shardKeyValidation = validation;
+            return this;
+        }
+
+        /**
+         * Stores properties under short names, e.g. {@code a}, {@code b}, ..., rather than the names given by the property naming
+         * strategy.  The names are assigned from an append-only dictionary per collection kept in the {@value AliasDictionary#COLLECTION}
+         * collection.  Queries, projections, sorts and updates still use the property names and are translated.  Properties with
+         * explicitly mapped names keep them and the long names remain readable, as if listed in {@link dev.morphia.annotations.AlsoLoad},
+         * so existing documents can be migrated gradually.
+         *
+         * @param shortPropertyNames if true properties are stored under short names
+         * @return this
+         * @since 2.2
+         */
+        public Builder shortPropertyNames(boolean shortPropertyNames) {
+            assertNotLocked();
+            this.shortPropertyNames = shortPropertyNames;
+            return this;
+        }
+
         /**
          * @param storeEmpties if true empty maps and collection types are stored in the database
          * @return this
@@ -523,12 +747,19 @@ public class MapperOptions {
             }
         }
 
+        private boolean compactDiscriminators() {
+            return compactDiscriminators;
+        }
+
         private List<MorphiaConvention> conventions() {
             if (conventions.isEmpty()) {
                 List<MorphiaConvention> list = new ArrayList<>(of(
                     new MorphiaDefaultsConvention(),
                     propertyDiscovery == FIELDS ? new FieldDiscovery() : new MethodDiscovery(),
                     new ConfigureProperties()));
+                if (shortPropertyNames) {
+                    list.add(new ShortPropertyNames());
+                }
 
                 ServiceLoader<MorphiaConvention> conventions = ServiceLoader.load(MorphiaConvention.class);
                 conventions.forEach(list::add);
@@ -562,6 +793,14 @@ public class MapperOptions {
             return mapSubPackages;
         }
 
+        private MorphiaMetrics metrics() {
+            return metrics;
+        }
+
+        private boolean parallelMapping() {
+            return parallelMapping;
+        }
+
         private PropertyDiscovery propertyDiscovery() {
             return propertyDiscovery;
         }
@@ -574,6 +813,23 @@ public class MapperOptions {
             return queryFactory;
         }
 
+        private int queryCacheSize() {
+            return queryCacheSize;
+        }
+
+        @Nullable
+        private QueryLogger queryLogger() {
+            return queryLogger;
+        }
+
+        private ShardKeyValidation shardKeyValidation() {
+            return shardKeyValidation;
+        }
+
+        private boolean shortPropertyNames() {
+            return shortPropertyNames;
+        }
+
         private boolean storeEmpties() {
             return storeEmpties;
         }
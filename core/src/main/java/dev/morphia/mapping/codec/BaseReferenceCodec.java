@@ -4,7 +4,13 @@ import dev.morphia.Datastore;
 import dev.morphia.mapping.codec.pojo.EntityModel;
 import dev.morphia.mapping.codec.pojo.PropertyModel;
 import dev.morphia.mapping.codec.pojo.TypeData;
+import dev.morphia.mapping.codec.reader.DocumentReader;
+import org.bson.Document;
 import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Defines codecs for properties
@@ -55,4 +61,27 @@ public abstract class BaseReferenceCodec<T> implements Codec<T> {
         }
         return entityModel;
     }
+
+    /**
+     * Decodes any referenced documents found in place of their ids, e.g. those joined in by a {@code $lookup}, in to entities of the
+     * property's type.
+     *
+     * @param value the id value(s) read from the database
+     * @return the value with any referenced documents decoded
+     * @since 2.2
+     */
+    protected Object decodeJoined(Object value) {
+        if (value instanceof List) {
+            List<Object> values = new ArrayList<>();
+            for (Object item : (List<?>) value) {
+                values.add(decodeJoined(item));
+            }
+            return values;
+        } else if (value instanceof Document && ((Document) value).containsKey("_id")) {
+            return datastore.getMapper().getCodecRegistry()
+                            .get(getEntityModelForField().getType())
+                            .decode(new DocumentReader((Document) value), DecoderContext.builder().build());
+        }
+        return value;
+    }
 }
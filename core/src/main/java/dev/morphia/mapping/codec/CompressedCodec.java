@@ -0,0 +1,86 @@
+package dev.morphia.mapping.codec;
+
+import dev.morphia.Datastore;
+import dev.morphia.annotations.Compressed;
+import dev.morphia.mapping.MappingException;
+import dev.morphia.mapping.codec.pojo.PropertyModel;
+import dev.morphia.sofia.Sofia;
+import org.bson.BsonBinary;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stores large {@code String} and {@code byte[]} values as compressed binary data.
+ *
+ * @morphia.internal
+ * @see Compressed
+ * @since 2.2
+ */
+public class CompressedCodec extends BaseReferenceCodec<Object> {
+    /**
+     * The binary subtype marking compressed values
+     */
+    public static final byte SUBTYPE = (byte) 0x80;
+
+    private final boolean text;
+    private final int threshold;
+    private final Compressor compressor;
+
+    /**
+     * Creates a codec
+     *
+     * @param datastore the datastore
+     * @param property  the property
+     */
+    public CompressedCodec(Datastore datastore, PropertyModel property) {
+        super(datastore, property);
+        Class<?> type = property.getType();
+        if (!type.equals(String.class) && !type.equals(byte[].class)) {
+            throw new MappingException(Sofia.compressedTypeUnsupported(property.getFullName()));
+        }
+        text = type.equals(String.class);
+        Compressed annotation = property.getAnnotation(Compressed.class);
+        threshold = annotation.threshold();
+        try {
+            compressor = annotation.compressor().getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new MappingException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object decode(BsonReader reader, DecoderContext decoderContext) {
+        if (reader.getCurrentBsonType() == BsonType.STRING) {
+            String value = reader.readString();
+            return text ? value : value.getBytes(StandardCharsets.UTF_8);
+        }
+        BsonBinary binary = reader.readBinaryData();
+        byte[] data = binary.getType() == SUBTYPE ? compressor.decompress(binary.getData()) : binary.getData();
+        return text ? new String(data, StandardCharsets.UTF_8) : data;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Object value, EncoderContext encoderContext) {
+        byte[] data = text ? ((String) value).getBytes(StandardCharsets.UTF_8) : (byte[]) value;
+        if (data.length < threshold) {
+            if (text) {
+                writer.writeString((String) value);
+            } else {
+                writer.writeBinaryData(new BsonBinary(data));
+            }
+        } else {
+            writer.writeBinaryData(new BsonBinary(SUBTYPE, compressor.compress(data)));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Class<Object> getEncoderClass() {
+        return (Class<Object>) getPropertyModel().getType();
+    }
+}
@@ -0,0 +1,20 @@
+package dev.morphia.mapping.codec;
+
+/**
+ * Compresses the values of properties annotated with {@link dev.morphia.annotations.Compressed}.  Implementations must be thread safe.
+ *
+ * @since 2.2
+ */
+public interface Compressor {
+    /**
+     * @param data the data to compress
+     * @return the compressed form
+     */
+    byte[] compress(byte[] data);
+
+    /**
+     * @param data the data to decompress
+     * @return the original data
+     */
+    byte[] decompress(byte[] data);
+}
@@ -48,6 +48,8 @@ public final class Conversions {
         register(Integer.class, Byte.class, Integer::byteValue);
 
         register(Long.class, Double.class, Long::doubleValue);
+        register(Long.class, Integer.class, Math::toIntExact);
+        register(Long.class, int.class, Math::toIntExact);
         register(Long.class, Float.class, Long::floatValue);
 
         register(Float.class, Long.class, Float::longValue, "Converting a float value to a long.  Possible loss of precision.");
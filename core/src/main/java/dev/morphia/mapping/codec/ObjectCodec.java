@@ -43,7 +43,9 @@ public class ObjectCodec implements Codec<Object> {
             while (clazz.equals(Document.class) && reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
                 if (reader.readName().equals(discriminatorField)) {
                     try {
-                        clazz = mapper.getClass(reader.readString());
+                        clazz = reader.getCurrentBsonType() == BsonType.INT32
+                                ? mapper.getDiscriminatorLookup().lookup(reader.readInt32())
+                                : mapper.getClass(reader.readString());
                     } catch (CodecConfigurationException e) {
                         throw new MappingException(e.getMessage(), e);
                     }
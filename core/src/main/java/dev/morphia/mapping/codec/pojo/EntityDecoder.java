@@ -1,8 +1,11 @@
 package dev.morphia.mapping.codec.pojo;
 
 import com.mongodb.lang.Nullable;
+import dev.morphia.internal.jfr.EntityDecodeEvent;
 import dev.morphia.mapping.DiscriminatorLookup;
 import dev.morphia.mapping.codec.MorphiaInstanceCreator;
+import dev.morphia.metrics.MorphiaMetrics;
+import org.bson.BsonBinaryReader;
 import org.bson.BsonInvalidOperationException;
 import org.bson.BsonReader;
 import org.bson.BsonReaderMark;
@@ -21,10 +24,12 @@ import static dev.morphia.mapping.codec.Conversions.convert;
 public class EntityDecoder implements org.bson.codecs.Decoder<Object> {
     private final MorphiaCodec<?> morphiaCodec;
     private final EntityModel classModel;
+    private final MorphiaMetrics metrics;
 
     protected EntityDecoder(MorphiaCodec<?> morphiaCodec) {
         this.morphiaCodec = morphiaCodec;
         classModel = morphiaCodec.getEntityModel();
+        metrics = morphiaCodec.getMapper().getOptions().getMetrics();
     }
 
     @Override
@@ -71,16 +76,34 @@ public class EntityDecoder implements org.bson.codecs.Decoder<Object> {
 
     protected void decodeProperties(BsonReader reader, DecoderContext decoderContext,
                                     MorphiaInstanceCreator instanceCreator, EntityModel classModel) {
+        EntityDecodeEvent event = new EntityDecodeEvent();
+        event.begin();
+        boolean measured = metrics.isEnabled();
+        long start = measured ? System.nanoTime() : 0;
+        long startPosition = measured || event.isEnabled() ? position(reader) : -1;
+
+        int fields = 0;
         reader.readStartDocument();
         while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
             String name = reader.readName();
             if (classModel.useDiscriminator() && classModel.getDiscriminatorKey().equals(name)) {
-                reader.readString();
+                reader.skipValue();
             } else {
                 decodeModel(reader, decoderContext, instanceCreator, classModel.getProperty(name));
             }
+            fields++;
         }
         reader.readEndDocument();
+
+        long bytes = startPosition == -1 ? -1 : position(reader) - startPosition;
+        if (measured) {
+            metrics.entityDecoded(classModel, fields, bytes, System.nanoTime() - start);
+        }
+        event.complete(classModel.getType(), fields, bytes);
+    }
+
+    private static long position(BsonReader reader) {
+        return reader instanceof BsonBinaryReader ? ((BsonBinaryReader) reader).getBsonInput().getPosition() : -1;
     }
 
     protected Codec<?> getCodecFromDocument(BsonReader reader, boolean useDiscriminator, String discriminatorKey,
@@ -93,7 +116,10 @@ public class EntityDecoder implements org.bson.codecs.Decoder<Object> {
                 reader.readStartDocument();
                 while (codec == null && reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
                     if (discriminatorKey.equals(reader.readName())) {
-                        codec = registry.get(discriminatorLookup.lookup(reader.readString()));
+                        Class<?> type = reader.getCurrentBsonType() == BsonType.INT32
+                                        ? discriminatorLookup.lookup(reader.readInt32())
+                                        : discriminatorLookup.lookup(reader.readString());
+                        codec = registry.get(type);
                     } else {
                         reader.skipValue();
                     }
@@ -1,6 +1,9 @@
 package dev.morphia.mapping.codec.pojo;
 
 import com.mongodb.lang.Nullable;
+import dev.morphia.internal.jfr.EntityEncodeEvent;
+import dev.morphia.metrics.MorphiaMetrics;
+import org.bson.BsonBinaryWriter;
 import org.bson.BsonWriter;
 import org.bson.codecs.Codec;
 import org.bson.codecs.EncoderContext;
@@ -11,7 +14,7 @@ import org.bson.types.ObjectId;
 import java.util.Collection;
 import java.util.Map;
 
-import static dev.morphia.aggregation.experimental.codecs.ExpressionHelper.document;
+import static dev.morphia.mapping.codec.Conversions.convert;
 
 /**
  * @morphia.internal
@@ -20,10 +23,12 @@ import static dev.morphia.aggregation.experimental.codecs.ExpressionHelper.docum
 class EntityEncoder implements org.bson.codecs.Encoder<Object> {
     public static final ObjectIdGenerator OBJECT_ID_GENERATOR = new ObjectIdGenerator();
     private final MorphiaCodec morphiaCodec;
+    private final MorphiaMetrics metrics;
     private IdGenerator idGenerator;
 
     protected EntityEncoder(MorphiaCodec morphiaCodec) {
         this.morphiaCodec = morphiaCodec;
+        metrics = morphiaCodec.getMapper().getOptions().getMetrics();
     }
 
     @Override
@@ -40,23 +45,44 @@ class EntityEncoder implements org.bson.codecs.Encoder<Object> {
     protected void encodeEntity(BsonWriter writer, Object value, EncoderContext encoderContext) {
         EntityModel model = morphiaCodec.getEntityModel();
         if (areEquivalentTypes(value.getClass(), model.getType())) {
-            document(writer, () -> {
-
-                PropertyModel idModel = model.getIdProperty();
-                encodeIdProperty(writer, value, encoderContext, idModel);
+            EntityEncodeEvent event = new EntityEncodeEvent();
+            event.begin();
+            boolean measured = metrics.isEnabled();
+            long start = measured ? System.nanoTime() : 0;
+            long startPosition = measured || event.isEnabled() ? position(writer) : -1;
+
+            writer.writeStartDocument();
+            int fields = 0;
+            PropertyModel idModel = model.getIdProperty();
+            if (encodeIdProperty(writer, value, encoderContext, idModel)) {
+                fields++;
+            }
 
-                if (model.useDiscriminator()) {
-                    writer.writeString(model.getDiscriminatorKey(),
-                        model.getDiscriminator());
+            if (model.useDiscriminator()) {
+                Object discriminator = morphiaCodec.getMapper().getDiscriminatorValue(model);
+                if (discriminator instanceof Integer) {
+                    writer.writeInt32(model.getDiscriminatorKey(), (Integer) discriminator);
+                } else {
+                    writer.writeString(model.getDiscriminatorKey(), (String) discriminator);
                 }
+                fields++;
+            }
 
-                for (PropertyModel propertyModel : model.getProperties()) {
-                    if (propertyModel.equals(idModel)) {
-                        continue;
-                    }
-                    encodeProperty(writer, value, encoderContext, propertyModel);
+            for (PropertyModel propertyModel : model.getProperties()) {
+                if (propertyModel.equals(idModel)) {
+                    continue;
                 }
-            });
+                if (encodeProperty(writer, value, encoderContext, propertyModel)) {
+                    fields++;
+                }
+            }
+            writer.writeEndDocument();
+
+            long bytes = startPosition == -1 ? -1 : position(writer) - startPosition;
+            if (measured) {
+                metrics.entityEncoded(model, fields, bytes, System.nanoTime() - start);
+            }
+            event.complete(model.getType(), fields, bytes);
         } else {
             morphiaCodec.getRegistry()
                         .get((Class<? super Object>) value.getClass())
@@ -74,30 +100,31 @@ class EntityEncoder implements org.bson.codecs.Encoder<Object> {
                || Map.class.isAssignableFrom(t1) && Map.class.isAssignableFrom(t2);
     }
 
-    private void encodeIdProperty(BsonWriter writer, Object instance, EncoderContext encoderContext,
-                                  PropertyModel idModel) {
+    private boolean encodeIdProperty(BsonWriter writer, Object instance, EncoderContext encoderContext,
+                                     @Nullable PropertyModel idModel) {
         if (idModel != null) {
             IdGenerator generator = getIdGenerator();
             if (generator == null) {
-                encodeProperty(writer, instance, encoderContext, idModel);
+                return encodeProperty(writer, instance, encoderContext, idModel);
             } else {
                 Object id = idModel.getAccessor().get(instance);
                 if (id == null && encoderContext.isEncodingCollectibleDocument()) {
-                    id = generator.generate();
+                    id = convert(generator.generate(), idModel.getType());
                     idModel.getAccessor().set(instance, id);
                 }
-                encodeValue(writer, encoderContext, idModel, id);
+                return encodeValue(writer, encoderContext, idModel, id);
             }
         }
+        return false;
     }
 
-    private void encodeProperty(BsonWriter writer, Object instance, EncoderContext encoderContext, PropertyModel model) {
+    private boolean encodeProperty(BsonWriter writer, Object instance, EncoderContext encoderContext, PropertyModel model) {
         Object value = model.getAccessor().get(instance);
-        encodeValue(writer, encoderContext, model, value);
+        return encodeValue(writer, encoderContext, model, value);
     }
 
-    private void encodeValue(BsonWriter writer, EncoderContext encoderContext, PropertyModel model,
-                             @Nullable Object propertyValue) {
+    private boolean encodeValue(BsonWriter writer, EncoderContext encoderContext, PropertyModel model,
+                                @Nullable Object propertyValue) {
         if (model.shouldSerialize(propertyValue)) {
             writer.writeName(model.getMappedName());
             if (propertyValue == null) {
@@ -106,11 +133,21 @@ class EntityEncoder implements org.bson.codecs.Encoder<Object> {
                 Codec<? super Object> cachedCodec = model.getCachedCodec();
                 encoderContext.encodeWithChildContext(cachedCodec, writer, propertyValue);
             }
+            return true;
         }
+        return false;
+    }
+
+    private static long position(BsonWriter writer) {
+        return writer instanceof BsonBinaryWriter ? ((BsonBinaryWriter) writer).getBsonOutput().getPosition() : -1;
     }
 
     @Nullable
     private IdGenerator getIdGenerator() {
+        IdGenerator registered = morphiaCodec.getMapper().getIdGenerator(morphiaCodec.getEntityModel());
+        if (registered != null) {
+            return registered;
+        }
         if (idGenerator == null) {
             PropertyModel idModel = morphiaCodec.getEntityModel().getIdProperty();
             if (idModel != null && idModel.getNormalizedType().isAssignableFrom(ObjectId.class)) {
@@ -10,6 +10,8 @@ import dev.morphia.annotations.PostLoad;
 import dev.morphia.annotations.PostPersist;
 import dev.morphia.annotations.PreLoad;
 import dev.morphia.annotations.PrePersist;
+import dev.morphia.annotations.ShardKey;
+import dev.morphia.internal.jfr.LifecycleEvent;
 import dev.morphia.mapping.InstanceCreatorFactory;
 import dev.morphia.mapping.InstanceCreatorFactoryImpl;
 import dev.morphia.mapping.Mapper;
@@ -27,6 +29,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -55,10 +58,11 @@ public class EntityModel {
     private final String discriminator;
     private final Class<?> type;
     private final String collectionName;
-    private final List<EntityModel> subtypes = new ArrayList<>();
+    private final List<EntityModel> subtypes = new CopyOnWriteArrayList<>();
     private final EntityModel superClass;
     private final PropertyModel idProperty;
     private final PropertyModel versionProperty;
+    private final List<PropertyModel> shardKeyProperties;
     private Map<Class<? extends Annotation>, List<ClassMethodPair>> lifecycleMethods;
 
     /**
@@ -102,6 +106,7 @@ public class EntityModel {
         }
         idProperty = getProperty(builder.idPropertyName());
         versionProperty = getProperty(builder.versionPropertyName());
+        shardKeyProperties = shardKeyProperties();
 
         builder.interfaces().forEach(i -> i.addSubtype(this));
     }
@@ -115,6 +120,8 @@ public class EntityModel {
      */
     public void callLifecycleMethods(Class<? extends Annotation> event, Object entity, Document document,
                                      Mapper mapper) {
+        LifecycleEvent lifecycleEvent = new LifecycleEvent();
+        lifecycleEvent.begin();
         final List<ClassMethodPair> methodPairs = getLifecycleMethods().get(event);
         if (methodPairs != null) {
             for (ClassMethodPair cm : methodPairs) {
@@ -123,6 +130,7 @@ public class EntityModel {
         }
 
         callGlobalInterceptors(event, entity, document, mapper);
+        lifecycleEvent.complete(getType(), event.getSimpleName());
     }
 
     /**
@@ -222,6 +230,30 @@ public class EntityModel {
         return name != null ? propertyModelsByMappedName.getOrDefault(name, propertyModelsByName.get(name)) : null;
     }
 
+    /**
+     * @return the properties named by {@link ShardKey} or an empty list if the entity does not declare a shard key
+     * @since 2.2
+     */
+    public List<PropertyModel> getShardKeyProperties() {
+        return shardKeyProperties;
+    }
+
+    /**
+     * Extracts the shard key of an entity as a filter suitable for targeting the shard holding it.  The filter only matches the stored
+     * document as long as the entity's shard key values have not changed since it was saved.
+     *
+     * @param entity the entity to use
+     * @return the mapped shard key names and their current values.  This is empty if the entity does not declare a shard key.
+     * @since 2.2
+     */
+    public Document getShardKey(Object entity) {
+        Document shardKey = new Document();
+        for (PropertyModel property : shardKeyProperties) {
+            shardKey.put(property.getMappedName(), property.getValue(entity));
+        }
+        return shardKey;
+    }
+
     /**
      * @return a new InstanceCreator instance for the ClassModel
      */
@@ -361,6 +393,22 @@ public class EntityModel {
         return discriminatorEnabled;
     }
 
+    private List<PropertyModel> shardKeyProperties() {
+        ShardKey shardKey = getAnnotation(ShardKey.class);
+        if (shardKey == null) {
+            return List.of();
+        }
+        List<PropertyModel> properties = new ArrayList<>();
+        for (String name : shardKey.value()) {
+            PropertyModel property = getProperty(name);
+            if (property == null) {
+                throw new MappingException(Sofia.shardKeyPropertyNotFound(name, type.getName()));
+            }
+            properties.add(property);
+        }
+        return List.copyOf(properties);
+    }
+
     private void addSubtype(EntityModel entityModel) {
         subtypes.add(entityModel);
         if (superClass != null) {
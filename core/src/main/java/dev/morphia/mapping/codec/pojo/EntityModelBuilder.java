@@ -346,7 +346,10 @@ public class EntityModelBuilder {
         return annotationsMap;
     }
 
-    protected String getCollectionName() {
+    /**
+     * @return the name of the collection this type is mapped to
+     */
+    public String getCollectionName() {
         Entity entityAn = getAnnotation(Entity.class);
         return entityAn != null && !entityAn.value().equals(Mapper.IGNORED_FIELDNAME)
                ? entityAn.value()
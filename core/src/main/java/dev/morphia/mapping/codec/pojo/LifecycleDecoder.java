@@ -33,7 +33,7 @@ public class LifecycleDecoder extends EntityDecoder {
         Document document = getMorphiaCodec().getRegistry().get(Document.class).decode(reader, decoderContext);
         EntityModel model = getMorphiaCodec().getEntityModel();
         if (model.useDiscriminator()) {
-            String discriminator = document.getString(model.getDiscriminatorKey());
+            Object discriminator = document.get(model.getDiscriminatorKey());
             if (discriminator != null) {
                 Class<?> discriminatorClass = getMorphiaCodec().getDiscriminatorLookup().lookup(discriminator);
                 // need to load the codec to initialize cachedCodecs in field models
@@ -13,6 +13,7 @@ import org.bson.codecs.Codec;
 import org.bson.codecs.CollectibleCodec;
 import org.bson.codecs.DecoderContext;
 import org.bson.codecs.EncoderContext;
+import org.bson.codecs.IdGenerator;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.codecs.pojo.PropertyCodecProvider;
 import org.bson.codecs.pojo.PropertyCodecRegistry;
@@ -135,7 +136,8 @@ public class MorphiaCodec<T> implements CollectibleCodec<T> {
     @Override
     public Object generateIdIfAbsentFromDocument(Object entity) {
         if (!documentHasId(entity)) {
-            idProperty.setValue(entity, convert(new ObjectId(), idProperty.getType()));
+            IdGenerator generator = mapper.getIdGenerator(entityModel);
+            idProperty.setValue(entity, convert(generator != null ? generator.generate() : new ObjectId(), idProperty.getType()));
         }
         return entity;
     }
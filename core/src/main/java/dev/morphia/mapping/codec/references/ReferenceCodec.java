@@ -203,7 +203,7 @@ public class ReferenceCodec extends BaseReferenceCodec<Object> implements Proper
                                       .get(bsonTypeClassMap.get(reader.getCurrentBsonType()))
                                       .decode(reader, decoderContext);
         decode = processId(decode, getDatastore().getMapper(), decoderContext);
-        return fetch(decode);
+        return fetch(decodeJoined(decode));
     }
 
     @Override
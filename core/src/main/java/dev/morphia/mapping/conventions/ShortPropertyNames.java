@@ -0,0 +1,74 @@
+package dev.morphia.mapping.conventions;
+
+import dev.morphia.Datastore;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Property;
+import dev.morphia.annotations.Reference;
+import dev.morphia.annotations.Version;
+import dev.morphia.mapping.AliasDictionary;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.codec.pojo.EntityModelBuilder;
+import dev.morphia.mapping.codec.pojo.PropertyModelBuilder;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stores properties under short names assigned by the {@link AliasDictionary}.  Properties with explicitly mapped names are left alone.
+ * The name given by the property naming strategy remains readable so documents written before enabling this are still loaded.
+ *
+ * @see dev.morphia.mapping.MapperOptions.Builder#shortPropertyNames(boolean)
+ * @since 2.2
+ */
+public class ShortPropertyNames implements MorphiaConvention {
+    private static boolean isExplicitlyNamed(PropertyModelBuilder property) {
+        Property annotation = property.getAnnotation(Property.class);
+        Reference reference = property.getAnnotation(Reference.class);
+        Version version = property.getAnnotation(Version.class);
+        return property.hasAnnotation(Id.class)
+               || "_id".equals(property.mappedName())
+               || annotation != null && !annotation.value().equals(Mapper.IGNORED_FIELDNAME)
+               || reference != null && !reference.value().equals(Mapper.IGNORED_FIELDNAME)
+               || version != null && !version.value().equals(Mapper.IGNORED_FIELDNAME);
+    }
+
+    @Override
+    public void apply(Datastore datastore, EntityModelBuilder modelBuilder) {
+        Map<String, PropertyModelBuilder> aliased = new LinkedHashMap<>();
+        Set<String> reserved = new HashSet<>();
+        for (PropertyModelBuilder property : modelBuilder.propertyModels()) {
+            // the long names stay readable as alternate names so no alias may reuse one
+            reserved.add(property.mappedName());
+            if (!isExplicitlyNamed(property)) {
+                aliased.put(property.mappedName(), property);
+            }
+        }
+        if (aliased.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> aliases = datastore.getMapper().getAliasDictionary()
+                                               .aliases(dictionary(modelBuilder), aliased.keySet(), reserved);
+        aliased.forEach((name, property) -> {
+            property.mappedName(aliases.get(name));
+            property.alternateName(name);
+        });
+    }
+
+    /**
+     * Entities share the dictionary of their collection.  Other types share one with the root of their class hierarchy.
+     */
+    private String dictionary(EntityModelBuilder modelBuilder) {
+        if (modelBuilder.hasAnnotation(Entity.class)) {
+            return modelBuilder.getCollectionName();
+        }
+        Class<?> root = modelBuilder.getType();
+        for (Class<?> type : modelBuilder.classHierarchy()) {
+            root = type;
+        }
+        return root.getName();
+    }
+}
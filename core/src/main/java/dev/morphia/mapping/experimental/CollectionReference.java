@@ -3,6 +3,7 @@ package dev.morphia.mapping.experimental;
 import com.mongodb.DBRef;
 import com.mongodb.client.MongoCursor;
 import dev.morphia.Datastore;
+import dev.morphia.internal.jfr.ReferenceFetchEvent;
 import dev.morphia.mapping.Mapper;
 import dev.morphia.mapping.codec.pojo.EntityModel;
 import dev.morphia.mapping.codec.references.ReferenceCodec;
@@ -154,6 +155,9 @@ public abstract class CollectionReference<C extends Collection> extends MorphiaR
     Map<Object, Object> query(String collection, List<Object> collectionIds) {
 
         final Map<Object, Object> idMap = new HashMap<>();
+        long start = startTime();
+        ReferenceFetchEvent event = new ReferenceFetchEvent();
+        event.begin();
         try (MongoCursor<?> cursor = getDatastore().find(collection)
                                                    .disableValidation()
                                                    .filter(in("_id", collectionIds)).iterator()) {
@@ -161,6 +165,7 @@ public abstract class CollectionReference<C extends Collection> extends MorphiaR
                 final Object entity = cursor.next();
                 idMap.put(getDatastore().getMapper().getId(entity), entity);
             }
+            recordFetch(entityModel.getType(), idMap.size(), start, event);
 
             if (!ignoreMissing() && idMap.size() != collectionIds.size()) {
                 throw new ReferenceException(
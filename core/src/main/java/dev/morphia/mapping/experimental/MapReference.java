@@ -3,6 +3,7 @@ package dev.morphia.mapping.experimental;
 import com.mongodb.DBRef;
 import com.mongodb.client.MongoCursor;
 import dev.morphia.Datastore;
+import dev.morphia.internal.jfr.ReferenceFetchEvent;
 import dev.morphia.mapping.Mapper;
 import dev.morphia.mapping.codec.pojo.EntityModel;
 import dev.morphia.mapping.codec.pojo.PropertyModel;
@@ -27,6 +28,7 @@ import static dev.morphia.query.experimental.filters.Filters.in;
 public class MapReference<T> extends MorphiaReference<Map<Object, T>> {
     private Map<String, Object> ids;
     private Map<Object, T> values;
+    private EntityModel entityModel;
     private final Map<String, List<Object>> collections = new HashMap<>();
 
     /**
@@ -41,6 +43,7 @@ public class MapReference<T> extends MorphiaReference<Map<Object, T>> {
             CollectionReference.collate(entityModel, collections, entry.getValue());
         }
         this.ids = ids;
+        this.entityModel = entityModel;
     }
 
     private void setValues(Map<String, Object> values) {
@@ -122,6 +125,9 @@ public class MapReference<T> extends MorphiaReference<Map<Object, T>> {
 
     @SuppressWarnings("unchecked")
     private void readFromSingleCollection(String collection, List<Object> collectionIds) {
+        long start = startTime();
+        ReferenceFetchEvent event = new ReferenceFetchEvent();
+        event.begin();
 
         try (MongoCursor<T> cursor = (MongoCursor<T>) getDatastore().find(collection)
                                                                     .filter(in("_id", collectionIds)).iterator()) {
@@ -130,6 +136,7 @@ public class MapReference<T> extends MorphiaReference<Map<Object, T>> {
                 final T entity = cursor.next();
                 idMap.put(getDatastore().getMapper().getId(entity), entity);
             }
+            recordFetch(entityModel.getType(), idMap.size(), start, event);
 
             for (Entry<String, Object> entry : ids.entrySet()) {
                 final Object id = entry.getValue();
@@ -3,8 +3,10 @@ package dev.morphia.mapping.experimental;
 import com.mongodb.lang.Nullable;
 import dev.morphia.Datastore;
 import dev.morphia.annotations.Handler;
+import dev.morphia.internal.jfr.ReferenceFetchEvent;
 import dev.morphia.mapping.Mapper;
 import dev.morphia.mapping.codec.pojo.EntityModel;
+import dev.morphia.metrics.MorphiaMetrics;
 
 import java.util.List;
 import java.util.Map;
@@ -51,6 +53,29 @@ public abstract class MorphiaReference<T> {
         }
     }
 
+    /**
+     * @return the time a fetch starts as given by {@link System#nanoTime()} or 0 if no metrics are collected
+     */
+    long startTime() {
+        return datastore.getMapper().getOptions().getMetrics().isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Reports a fetch of referenced entities to the configured metrics
+     *
+     * @param type  the referenced type
+     * @param count the number of entities fetched
+     * @param start the time the fetch started as given by {@link #startTime()}
+     * @param event the flight recorder event begun with the fetch
+     */
+    void recordFetch(Class<?> type, int count, long start, ReferenceFetchEvent event) {
+        MorphiaMetrics metrics = datastore.getMapper().getOptions().getMetrics();
+        if (metrics.isEnabled()) {
+            metrics.referencesFetched(type, count, System.nanoTime() - start);
+        }
+        event.complete(type, count);
+    }
+
     /**
      * @return returns the referenced entity if it exists.  May return null.
      */
@@ -52,7 +52,7 @@ public class MorphiaReferenceCodec extends BaseReferenceCodec<MorphiaReference>
         Object value = mapper.getCodecRegistry()
                              .get(bsonTypeClassMap.get(reader.getCurrentBsonType()))
                              .decode(reader, decoderContext);
-        value = processId(value, mapper, decoderContext);
+        value = decodeJoined(processId(value, mapper, decoderContext));
         TypeData typeData = getTypeData().getTypeParameters().get(0);
         EntityModel fieldEntityModel = getEntityModelForField();
         if (Set.class.isAssignableFrom(typeData.getType())) {
@@ -3,6 +3,7 @@ package dev.morphia.mapping.experimental;
 import com.mongodb.DBRef;
 import com.mongodb.lang.Nullable;
 import dev.morphia.Datastore;
+import dev.morphia.internal.jfr.ReferenceFetchEvent;
 import dev.morphia.mapping.Mapper;
 import dev.morphia.mapping.MappingException;
 import dev.morphia.mapping.codec.pojo.EntityModel;
@@ -75,7 +76,11 @@ public class SingleReference<T> extends MorphiaReference<T> {
     @Override
     public T get() {
         if (!isResolved() && value == null && id != null) {
+            long start = startTime();
+            ReferenceFetchEvent event = new ReferenceFetchEvent();
+            event.begin();
             value = (T) buildQuery().iterator().tryNext();
+            recordFetch(entityModel.getType(), value != null ? 1 : 0, start, event);
             if (value == null && !ignoreMissing()) {
                 throw new ReferenceException(
                     Sofia.missingReferencedEntity(entityModel.getType().getSimpleName()));
@@ -0,0 +1,109 @@
+package dev.morphia.metrics;
+
+import dev.morphia.mapping.MapperOptions;
+import dev.morphia.mapping.codec.pojo.EntityModel;
+
+/**
+ * Receives timings and counts from Morphia as entities are encoded and decoded and as operations are executed.  Implementations are
+ * called on the application's threads in the middle of those operations and so must be thread safe and should avoid locking.
+ * {@link StripedMetrics} is a lock free implementation which aggregates the values in memory.
+ * <p>
+ * All durations are in nanoseconds.  Encoding and decoding timings include the time spent on any embedded entities which are also reported
+ * individually under their own models.
+ *
+ * @see MapperOptions.Builder#metrics(MorphiaMetrics)
+ * @since 2.2
+ */
+public interface MorphiaMetrics {
+    /**
+     * @return the metrics implementation which discards everything
+     */
+    static MorphiaMetrics noop() {
+        return NoOpMetrics.INSTANCE;
+    }
+
+    /**
+     * Morphia skips gathering measurements entirely if this returns false.
+     *
+     * @return true if this implementation records anything
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Records the encoding of an entity
+     *
+     * @param model  the model of the entity
+     * @param fields the number of fields written
+     * @param bytes  the number of bytes written or -1 if the writer does not track its size
+     * @param nanos  the time taken
+     */
+    default void entityEncoded(EntityModel model, int fields, long bytes, long nanos) {
+    }
+
+    /**
+     * Records the decoding of an entity
+     *
+     * @param model  the model of the entity
+     * @param fields the number of fields read
+     * @param bytes  the number of bytes read or -1 if the reader does not track its position
+     * @param nanos  the time taken
+     */
+    default void entityDecoded(EntityModel model, int fields, long bytes, long nanos) {
+    }
+
+    /**
+     * Records a write operation performed through the Datastore
+     *
+     * @param operation the operation
+     * @param type      the entity type
+     * @param count     the number of entities written
+     * @param nanos     the time taken
+     */
+    default void operation(Operation operation, Class<?> type, int count, long nanos) {
+    }
+
+    /**
+     * Records the execution of a query.  The shape is the query document with all the values replaced by placeholders so that
+     * executions of the same query with different parameters are reported together.
+     *
+     * @param type  the entity type
+     * @param shape the query shape
+     * @param nanos the time taken to execute the query and fetch the first batch
+     */
+    default void queryExecuted(Class<?> type, String shape, long nanos) {
+    }
+
+    /**
+     * Records the fetch of referenced entities
+     *
+     * @param type  the referenced type
+     * @param count the number of entities fetched
+     * @param nanos the time taken
+     */
+    default void referencesFetched(Class<?> type, int count, long nanos) {
+    }
+
+    /**
+     * Records the delivery of an entity read from a tailed collection
+     *
+     * @param type     the entity type
+     * @param buffered the number of entities still waiting to be delivered
+     * @param lagNanos the time the entity spent between being read from the server and being delivered
+     * @see dev.morphia.query.Query#tail(java.util.function.Consumer)
+     */
+    default void tailDelivered(Class<?> type, int buffered, long lagNanos) {
+    }
+
+    /**
+     * The write operations reported by {@link #operation(Operation, Class, int, long)}
+     */
+    enum Operation {
+        DELETE,
+        INSERT,
+        MERGE,
+        SAVE,
+        UPSERT
+    }
+}
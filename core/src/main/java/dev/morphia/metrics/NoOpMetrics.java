@@ -0,0 +1,18 @@
+package dev.morphia.metrics;
+
+/**
+ * The default metrics which ignores everything.
+ *
+ * @morphia.internal
+ */
+final class NoOpMetrics implements MorphiaMetrics {
+    static final NoOpMetrics INSTANCE = new NoOpMetrics();
+
+    private NoOpMetrics() {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
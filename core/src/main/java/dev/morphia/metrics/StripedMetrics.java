@@ -0,0 +1,77 @@
+package dev.morphia.metrics;
+
+import com.mongodb.lang.Nullable;
+import dev.morphia.mapping.codec.pojo.EntityModel;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A lock free {@link MorphiaMetrics} which aggregates everything in memory.  Each kind of event is tracked by a {@link Timer} named
+ * after the event and the type involved:
+ * <ul>
+ *     <li>{@code encode:<type>} and {@code decode:<type>} counting fields and bytes</li>
+ *     <li>{@code save:<type>}, {@code insert:<type>}, {@code merge:<type>}, {@code upsert:<type>} and {@code delete:<type>} counting
+ *     entities</li>
+ *     <li>{@code query:<type>:<shape>}</li>
+ *     <li>{@code reference:<type>} counting entities</li>
+ *     <li>{@code tail:<type>} timing the lag of each tailed entity</li>
+ * </ul>
+ *
+ * @since 2.2
+ */
+public class StripedMetrics implements MorphiaMetrics {
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Override
+    public void entityEncoded(EntityModel model, int fields, long bytes, long nanos) {
+        timer("encode:" + model.getType().getName()).record(fields, bytes, nanos);
+    }
+
+    @Override
+    public void entityDecoded(EntityModel model, int fields, long bytes, long nanos) {
+        timer("decode:" + model.getType().getName()).record(fields, bytes, nanos);
+    }
+
+    @Override
+    public void operation(Operation operation, Class<?> type, int count, long nanos) {
+        timer(operation.name().toLowerCase() + ":" + type.getName()).record(count, -1, nanos);
+    }
+
+    @Override
+    public void queryExecuted(Class<?> type, String shape, long nanos) {
+        timer("query:" + type.getName() + ":" + shape).record(1, -1, nanos);
+    }
+
+    @Override
+    public void referencesFetched(Class<?> type, int count, long nanos) {
+        timer("reference:" + type.getName()).record(count, -1, nanos);
+    }
+
+    @Override
+    public void tailDelivered(Class<?> type, int buffered, long lagNanos) {
+        timer("tail:" + type.getName()).record(1, -1, lagNanos);
+    }
+
+    /**
+     * @param name the name of the timer
+     * @return the timer or null if no such events have been recorded
+     */
+    @Nullable
+    public Timer getTimer(String name) {
+        return timers.get(name);
+    }
+
+    /**
+     * @return a live view of all the timers by name
+     */
+    public Map<String, Timer> getTimers() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    private Timer timer(String name) {
+        Timer timer = timers.get(name);
+        return timer != null ? timer : timers.computeIfAbsent(name, n -> new Timer());
+    }
+}
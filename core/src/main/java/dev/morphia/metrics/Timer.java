@@ -0,0 +1,56 @@
+package dev.morphia.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the measurements of a single kind of event: the durations in a {@link Histogram} along with the total number of items
+ * (fields or entities) and bytes involved.
+ *
+ * @since 2.2
+ */
+public class Timer {
+    private final Histogram nanos = new Histogram();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    void record(long items, long bytes, long nanos) {
+        this.nanos.record(nanos);
+        this.items.add(items);
+        if (bytes > 0) {
+            this.bytes.add(bytes);
+        }
+    }
+
+    /**
+     * @return the number of events recorded
+     */
+    public long getCount() {
+        return nanos.getCount();
+    }
+
+    /**
+     * @return the total number of bytes reported by the events
+     */
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * @return the total number of fields or entities reported by the events
+     */
+    public long getItems() {
+        return items.sum();
+    }
+
+    /**
+     * @return the durations of the events in nanoseconds
+     */
+    public Histogram getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Timer{count=%d, items=%d, bytes=%d, nanos=%s}", getCount(), getItems(), getBytes(), nanos);
+    }
+}
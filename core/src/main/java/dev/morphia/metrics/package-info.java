@@ -0,0 +1,9 @@
+/**
+ * Instrumentation hooks for measuring the time Morphia spends mapping entities and executing operations.
+ *
+ * @since 2.2
+ */
+@NonNullApi
+package dev.morphia.metrics;
+
+import com.mongodb.lang.NonNullApi;
@@ -0,0 +1,43 @@
+package dev.morphia.query;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * A page of results along with the total number of entities matching the query.
+ *
+ * @param <T> the entity type
+ * @see Query#pageWithTotal(FindOptions)
+ * @since 2.2
+ */
+public class CountedPage<T> {
+    private final List<T> results;
+    private final long total;
+
+    CountedPage(List<T> results, long total) {
+        this.results = results;
+        this.total = total;
+    }
+
+    /**
+     * @return the entities on this page
+     */
+    public List<T> getResults() {
+        return results;
+    }
+
+    /**
+     * @return the number of entities matching the query regardless of any skip or limit
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", CountedPage.class.getSimpleName() + "[", "]")
+                   .add("results=" + results.size())
+                   .add("total=" + total)
+                   .toString();
+    }
+}
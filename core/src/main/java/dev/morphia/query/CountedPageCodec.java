@@ -0,0 +1,71 @@
+package dev.morphia.query;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the output of the {@code $facet} stage used by {@link Query#pageWithTotal(FindOptions)}.  The page's documents are decoded
+ * directly in to entities as they are read.
+ *
+ * @param <T> the entity type
+ */
+@SuppressWarnings("rawtypes")
+class CountedPageCodec<T> implements Codec<CountedPage> {
+    static final String RESULTS = "results";
+    static final String TOTAL = "total";
+
+    private final Codec<T> codec;
+
+    CountedPageCodec(Codec<T> codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public CountedPage<T> decode(BsonReader reader, DecoderContext decoderContext) {
+        List<T> results = new ArrayList<>();
+        long total = 0;
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            if (RESULTS.equals(name)) {
+                reader.readStartArray();
+                while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                    results.add(decoderContext.decodeWithChildContext(codec, reader));
+                }
+                reader.readEndArray();
+            } else if (TOTAL.equals(name)) {
+                reader.readStartArray();
+                while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                    reader.readStartDocument();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                        reader.readName();
+                        total = reader.getCurrentBsonType() == BsonType.INT64 ? reader.readInt64() : reader.readInt32();
+                    }
+                    reader.readEndDocument();
+                }
+                reader.readEndArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return new CountedPage<>(results, total);
+    }
+
+    @Override
+    public void encode(BsonWriter writer, CountedPage value, EncoderContext encoderContext) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Class<CountedPage> getEncoderClass() {
+        return CountedPage.class;
+    }
+}
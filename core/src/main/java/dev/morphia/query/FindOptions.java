@@ -34,6 +34,7 @@ import dev.morphia.sofia.Sofia;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.StringJoiner;
@@ -72,8 +73,11 @@ public final class FindOptions implements SessionConfigurable<FindOptions>, Read
     private ReadConcern readConcern;
     private ReadPreference readPreference;
     private Projection projection;
+    private int prefetch;
     private String queryLogId;
     private ClientSession clientSession;
+    private List<String> fetchReferences = List.of();
+    private long cacheTtlMS;
 
     /**
      * Creates an instance with default values
@@ -130,14 +134,7 @@ public final class FindOptions implements SessionConfigurable<FindOptions>, Read
         iterable.showRecordId(showRecordId);
         iterable.skip(skip);
         if (sort != null) {
-            Document mapped = new Document();
-            EntityModel model = mapper.getEntityModel(type);
-            for (Entry<String, Object> entry : sort.entrySet()) {
-                Object value = entry.getValue();
-                boolean metaScore = value instanceof Document && ((Document) value).get("$meta") != null;
-                mapped.put(new PathTarget(mapper, model, entry.getKey(), !metaScore).translatedPath(), value);
-            }
-            iterable.sort(mapped);
+            iterable.sort(getSort(mapper, type));
         }
         return iterable;
     }
@@ -153,6 +150,24 @@ public final class FindOptions implements SessionConfigurable<FindOptions>, Read
         return this;
     }
 
+    /**
+     * Caches the results of the query for the given time.  Results are cached per collection, filter, sort, projection, skip, limit
+     * and collation in a cache bounded by {@link dev.morphia.mapping.MapperOptions#getQueryCacheSize()}.  Any write to the collection
+     * through the datastore invalidates its cached results.  The documents are cached in their encoded form and decoded anew on each
+     * hit so cached entities are never shared.  Queries run in a session are not cached.
+     *
+     * @param ttl      the time to cache the results for.  0 disables caching.
+     * @param timeUnit the unit
+     * @return this
+     * @since 2.2
+     */
+    public FindOptions cache(long ttl, TimeUnit timeUnit) {
+        Assertions.notNull("timeUnit", timeUnit);
+        Assertions.isTrueArgument("ttl > = 0", ttl >= 0L);
+        this.cacheTtlMS = TimeUnit.MILLISECONDS.convert(ttl, timeUnit);
+        return this;
+    }
+
     /**
      * Set the client session to use for the insert.
      *
@@ -234,8 +249,11 @@ public final class FindOptions implements SessionConfigurable<FindOptions>, Read
         this.readConcern = original.readConcern;
         this.readPreference = original.readPreference;
         this.projection = original.projection;
+        this.prefetch = original.prefetch;
         this.queryLogId = original.queryLogId;
         this.clientSession = original.clientSession;
+        this.fetchReferences = original.fetchReferences;
+        this.cacheTtlMS = original.cacheTtlMS;
 
         return this;
     }
@@ -265,6 +283,16 @@ public final class FindOptions implements SessionConfigurable<FindOptions>, Read
         return this.batchSize;
     }
 
+    /**
+     * @param timeUnit the time unit to return the value in.
+     * @return the time to cache the results for
+     * @since 2.2
+     */
+    public long getCacheTtl(TimeUnit timeUnit) {
+        Assertions.notNull("timeUnit", timeUnit);
+        return timeUnit.convert(cacheTtlMS, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * @return the collation
      */
@@ -346,6 +374,22 @@ public final class FindOptions implements SessionConfigurable<FindOptions>, Read
         return this.projection;
     }
 
+    /**
+     * @return the reference paths to fetch with a {@code $lookup}
+     * @since 2.2
+     */
+    public List<String> getFetchReferences() {
+        return fetchReferences;
+    }
+
+    /**
+     * @return the number of batches to prefetch.  0 means prefetching is disabled.
+     * @since 2.2
+     */
+    public int getPrefetch() {
+        return prefetch;
+    }
+
     /**
      * @return the query log id used for retrieving the logged query
      * @morphia.internal
@@ -391,11 +435,32 @@ public final class FindOptions implements SessionConfigurable<FindOptions>, Read
         return this.sort;
     }
 
+    /**
+     * @param mapper the mapper to use
+     * @param type   the entity type
+     * @return the sort criteria with the property names mapped to their document field names
+     * @morphia.internal
+     */
+    @Nullable
+    public Document getSort(Mapper mapper, Class<?> type) {
+        if (sort == null) {
+            return null;
+        }
+        Document mapped = new Document();
+        EntityModel model = mapper.getEntityModel(type);
+        for (Entry<String, Object> entry : sort.entrySet()) {
+            Object value = entry.getValue();
+            boolean metaScore = value instanceof Document && ((Document) value).get("$meta") != null;
+            mapped.put(new PathTarget(mapper, model, entry.getKey(), !metaScore).translatedPath(), value);
+        }
+        return mapped;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(allowDiskUse, batchSize, limit, maxTimeMS, maxAwaitTimeMS, skip, sort, cursorType, noCursorTimeout, oplogReplay,
             partial, collation, comment, hint, hintString, max, min, returnKey, showRecordId, readConcern, readPreference, projection,
-            queryLogId, clientSession);
+            prefetch, queryLogId, clientSession, fetchReferences, cacheTtlMS);
     }
 
     @Override
@@ -409,12 +474,13 @@ public final class FindOptions implements SessionConfigurable<FindOptions>, Read
         FindOptions that = (FindOptions) o;
         return batchSize == that.batchSize && limit == that.limit && maxTimeMS == that.maxTimeMS && maxAwaitTimeMS == that.maxAwaitTimeMS
                && skip == that.skip && noCursorTimeout == that.noCursorTimeout && oplogReplay == that.oplogReplay && partial == that.partial
-               && returnKey == that.returnKey && showRecordId == that.showRecordId && Objects.equals(allowDiskUse, that.allowDiskUse)
+               && prefetch == that.prefetch && returnKey == that.returnKey && showRecordId == that.showRecordId && Objects.equals(allowDiskUse, that.allowDiskUse)
                && Objects.equals(sort, that.sort) && cursorType == that.cursorType && Objects.equals(collation, that.collation)
                && Objects.equals(comment, that.comment) && Objects.equals(hint, that.hint) && Objects.equals(hintString, that.hintString)
                && Objects.equals(max, that.max) && Objects.equals(min, that.min) && Objects.equals(readConcern, that.readConcern)
                && Objects.equals(readPreference, that.readPreference) && Objects.equals(projection, that.projection)
-               && Objects.equals(queryLogId, that.queryLogId) && Objects.equals(clientSession, that.clientSession);
+               && Objects.equals(queryLogId, that.queryLogId) && Objects.equals(clientSession, that.clientSession)
+               && Objects.equals(fetchReferences, that.fetchReferences) && cacheTtlMS == that.cacheTtlMS;
     }
 
     @Override
@@ -440,10 +506,29 @@ public final class FindOptions implements SessionConfigurable<FindOptions>, Read
                    .add("showRecordId=" + showRecordId)
                    .add("readPreference=" + readPreference)
                    .add("projection=" + projection)
+                   .add("prefetch=" + prefetch)
                    .add("queryLogId='" + queryLogId + "'")
+                   .add("fetchReferences=" + fetchReferences)
+                   .add("cacheTtlMS=" + cacheTtlMS)
                    .toString();
     }
 
+    /**
+     * Resolves the given reference properties on the server instead of issuing a query per reference.  The find is run as an
+     * aggregation which joins the referenced documents in with a {@code $lookup} for each path so the results, along with the
+     * entities they reference, are loaded in a single round trip.  Only {@code @Reference} and {@code MorphiaReference} properties
+     * holding a single entity or a collection of entities are supported.  References which can not be joined, e.g. those stored in
+     * a different collection than that of the property type, are fetched as usual.  Tailable cursor settings are ignored.
+     *
+     * @param paths the reference property paths to fetch
+     * @return this
+     * @since 2.2
+     */
+    public FindOptions fetchReferences(String... paths) {
+        this.fetchReferences = List.of(paths);
+        return this;
+    }
+
     /**
      * Sets the index hint
      *
@@ -661,6 +746,21 @@ public final class FindOptions implements SessionConfigurable<FindOptions>, Read
         return this;
     }
 
+    /**
+     * Enables prefetching of results.  When enabled, the next batch of results is fetched from the server and decoded on a background
+     * thread while the current batch is being consumed.  No more than {@code batches} batches of {@link #batchSize(int) batchSize}
+     * entities (100 if no batch size is set) are held in memory ahead of the consumer.  Prefetching is ignored for tailable cursors.
+     *
+     * @param batches the number of batches to read ahead.  0 disables prefetching.
+     * @return this
+     * @since 2.2
+     */
+    public FindOptions prefetch(int batches) {
+        Assertions.isTrueArgument("batches >= 0", batches >= 0);
+        this.prefetch = batches;
+        return this;
+    }
+
     /**
      * @return the projection
      */
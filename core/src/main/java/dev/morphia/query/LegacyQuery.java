@@ -139,22 +139,28 @@ public class LegacyQuery<T> implements CriteriaContainer, Query<T> {
     @Override
     public long count(CountOptions options) {
         ClientSession session = datastore.findSession(options);
-        return session == null ? getCollection().countDocuments(getQueryDocument(), options)
-                               : getCollection().countDocuments(session, getQueryDocument(), options);
+        Document query = validatedQuery();
+        return session == null ? getCollection().countDocuments(query, options)
+                               : getCollection().countDocuments(session, query, options);
     }
 
     @Override
     public DeleteResult delete(DeleteOptions options) {
         MongoCollection<T> collection = options.prepare(getCollection());
         ClientSession session = datastore.findSession(options);
-        if (options.isMulti()) {
-            return session == null
-                   ? collection.deleteMany(getQueryDocument(), options)
-                   : collection.deleteMany(session, getQueryDocument(), options);
-        } else {
-            return session == null
-                   ? collection.deleteOne(getQueryDocument(), options)
-                   : collection.deleteOne(session, getQueryDocument(), options);
+        Document query = validatedQuery();
+        try {
+            if (options.isMulti()) {
+                return session == null
+                       ? collection.deleteMany(query, options)
+                       : collection.deleteMany(session, query, options);
+            } else {
+                return session == null
+                       ? collection.deleteOne(query, options)
+                       : collection.deleteOne(session, query, options);
+            }
+        } finally {
+            mapper.invalidateQueryCache(collection);
         }
     }
 
@@ -176,9 +182,14 @@ public class LegacyQuery<T> implements CriteriaContainer, Query<T> {
     public T findAndDelete(FindAndDeleteOptions options) {
         MongoCollection<T> mongoCollection = options.prepare(getCollection());
         ClientSession session = datastore.findSession(options);
-        return session == null
-               ? mongoCollection.findOneAndDelete(getQueryDocument(), options)
-               : mongoCollection.findOneAndDelete(session, getQueryDocument(), options);
+        Document query = validatedQuery();
+        try {
+            return session == null
+                   ? mongoCollection.findOneAndDelete(query, options)
+                   : mongoCollection.findOneAndDelete(session, query, options);
+        } finally {
+            mapper.invalidateQueryCache(mongoCollection);
+        }
     }
 
     /**
@@ -355,10 +366,10 @@ public class LegacyQuery<T> implements CriteriaContainer, Query<T> {
             && !query.containsKey(model.getDiscriminatorKey())) {
 
             List<EntityModel> subtypes = mapper.getEntityModel(getEntityClass()).getSubtypes();
-            List<String> values = new ArrayList<>();
-            values.add(model.getDiscriminator());
+            List<Object> values = new ArrayList<>();
+            values.addAll(mapper.getDiscriminatorValues(model));
             for (EntityModel subtype : subtypes) {
-                values.add(subtype.getDiscriminator());
+                values.addAll(mapper.getDiscriminatorValues(subtype));
             }
             query.put(model.getDiscriminatorKey(),
                 new Document("$in", values));
@@ -431,9 +442,15 @@ public class LegacyQuery<T> implements CriteriaContainer, Query<T> {
         return obj;
     }
 
+    private Document validatedQuery() {
+        Document query = toDocument();
+        mapper.validateShardKey(mapper.getEntityModel(getEntityClass()), query);
+        return query;
+    }
+
     @NotNull
     private <E> FindIterable<E> iterable(FindOptions options, MongoCollection<E> collection) {
-        final Document query = this.toDocument();
+        final Document query = validatedQuery();
 
         if (LOG.isTraceEnabled()) {
             LOG.trace(format("Running query(%s) : %s, options: %s,", getCollectionName(), query, options));
@@ -453,22 +470,8 @@ public class LegacyQuery<T> implements CriteriaContainer, Query<T> {
     }
 
     private <E> MongoCursor<E> prepareCursor(FindOptions options, MongoCollection<E> collection) {
-        Document oldProfile = null;
-        if (options.isLogQuery()) {
-            oldProfile = datastore.getDatabase().runCommand(new Document("profile", 2).append("slowms", 0));
-        }
-        try {
-            return options
-                       .apply(iterable(options, collection), mapper, clazz)
-                       .iterator();
-        } finally {
-            if (options.isLogQuery()) {
-                datastore.getDatabase().runCommand(new Document("profile", oldProfile.get("was"))
-                                                       .append("slowms", oldProfile.get("slowms"))
-                                                       .append("sampleRate", oldProfile.get("sampleRate")));
-            }
-
-        }
+        return QueryLogger.run(mapper.getOptions().getQueryLogger(), datastore.getDatabase(), options,
+            () -> options.apply(iterable(options, collection), mapper, clazz).iterator());
     }
 
     /**
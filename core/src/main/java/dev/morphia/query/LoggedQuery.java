@@ -0,0 +1,80 @@
+package dev.morphia.query;
+
+import com.mongodb.lang.Nullable;
+import org.bson.BsonDocument;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A query command captured by a {@link QueryLogger}
+ *
+ * @since 2.2
+ */
+public final class LoggedQuery {
+    private final String commandName;
+    private final String database;
+    private final BsonDocument command;
+    private final long durationNanos;
+    private final boolean succeeded;
+
+    LoggedQuery(String commandName, String database, BsonDocument command, long durationNanos, boolean succeeded) {
+        this.commandName = commandName;
+        this.database = database;
+        this.command = command;
+        this.durationNanos = durationNanos;
+        this.succeeded = succeeded;
+    }
+
+    /**
+     * @return the command name, e.g. {@code find} or {@code aggregate}
+     */
+    public String getCommandName() {
+        return commandName;
+    }
+
+    /**
+     * @return the database the command was sent to
+     */
+    public String getDatabase() {
+        return database;
+    }
+
+    /**
+     * @return the full command as sent to the server
+     */
+    public BsonDocument getCommand() {
+        return command;
+    }
+
+    /**
+     * @return the query filter of the command if it has one
+     */
+    @Nullable
+    public BsonDocument getFilter() {
+        if (command.isDocument("filter")) {
+            return command.getDocument("filter");
+        }
+        return command.isDocument("query") ? command.getDocument("query") : null;
+    }
+
+    /**
+     * @param unit the unit to return
+     * @return the round trip time of the command
+     */
+    public long getDuration(TimeUnit unit) {
+        return unit.convert(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return true if the server reported success
+     */
+    public boolean isSucceeded() {
+        return succeeded;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s on %s took %dms%s: %s", commandName, database, getDuration(TimeUnit.MILLISECONDS),
+            succeeded ? "" : " and failed", command.toJson());
+    }
+}
@@ -1,42 +1,76 @@
 package dev.morphia.query;
 
+import com.mongodb.CursorType;
 import com.mongodb.ExplainVerbosity;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.ClientSession;
+import com.mongodb.client.DistinctIterable;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Collation;
 import com.mongodb.client.model.geojson.Point;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.lang.Nullable;
 import dev.morphia.Datastore;
 import dev.morphia.DeleteOptions;
+import dev.morphia.aggregation.experimental.stages.Count;
+import dev.morphia.aggregation.experimental.stages.Facet;
+import dev.morphia.aggregation.experimental.stages.Limit;
+import dev.morphia.aggregation.experimental.stages.Skip;
+import dev.morphia.aggregation.experimental.stages.Stage;
 import dev.morphia.internal.MorphiaInternals.DriverVersion;
+import dev.morphia.internal.PathTarget;
+import dev.morphia.internal.jfr.QueryEvent;
+import dev.morphia.internal.jfr.QueryEventCursor;
 import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.codec.pojo.PropertyModel;
 import dev.morphia.mapping.codec.writer.DocumentWriter;
+import dev.morphia.metrics.MorphiaMetrics;
 import dev.morphia.query.experimental.filters.Filter;
 import dev.morphia.query.experimental.filters.Filters;
 import dev.morphia.query.experimental.filters.NearFilter;
 import dev.morphia.query.experimental.updates.UpdateOperator;
+import dev.morphia.query.internal.CachedCursor;
 import dev.morphia.query.internal.MorphiaCursor;
 import dev.morphia.query.internal.MorphiaKeyCursor;
+import dev.morphia.query.internal.PrefetchingCursor;
+import dev.morphia.query.internal.ProjectionCodec;
+import dev.morphia.query.internal.QueryCache;
+import dev.morphia.query.internal.ReferenceLookup;
+import dev.morphia.query.internal.Tailer;
 import dev.morphia.sofia.Sofia;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonValue;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
 import org.bson.codecs.EncoderContext;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodType;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static com.mongodb.CursorType.NonTailable;
 import static dev.morphia.aggregation.experimental.codecs.ExpressionHelper.document;
 import static dev.morphia.internal.MorphiaInternals.tryInvoke;
 import static dev.morphia.query.experimental.filters.Filters.text;
+import static org.bson.codecs.configuration.CodecRegistries.fromCodecs;
+import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
 import static java.lang.String.format;
 
 /**
@@ -45,6 +79,7 @@ import static java.lang.String.format;
  */
 public class MorphiaQuery<T> implements Query<T> {
     private static final Logger LOG = LoggerFactory.getLogger(MorphiaQuery.class);
+    private static final int DEFAULT_PREFETCH_SIZE = 100;
     private final Datastore datastore;
     private final Class<T> type;
     private final Mapper mapper;
@@ -92,23 +127,38 @@ public class MorphiaQuery<T> implements Query<T> {
     @Override
     public long count(CountOptions options) {
         ClientSession session = datastore.findSession(options);
-        Document query = getQueryDocument();
-        return session == null ? getCollection().countDocuments(query, options)
-                               : getCollection().countDocuments(session, query, options);
+        Document query = validatedQuery();
+        long start = startTime();
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        long count = session == null ? getCollection().countDocuments(query, options)
+                                     : getCollection().countDocuments(session, query, options);
+        record(query, start);
+        if (event.isEnabled()) {
+            event.describe("count", getCollectionName(), type, shapeOf(query).hashCode())
+                 .iterated(count, 0);
+            event.complete();
+        }
+        return count;
     }
 
     @Override
     public DeleteResult delete(DeleteOptions options) {
         MongoCollection<T> collection = options.prepare(getCollection());
         ClientSession session = datastore.findSession(options);
-        if (options.isMulti()) {
-            return session == null
-                   ? collection.deleteMany(getQueryDocument(), options)
-                   : collection.deleteMany(session, getQueryDocument(), options);
-        } else {
-            return session == null
-                   ? collection.deleteOne(getQueryDocument(), options)
-                   : collection.deleteOne(session, getQueryDocument(), options);
+        Document query = validatedQuery();
+        try {
+            if (options.isMulti()) {
+                return session == null
+                       ? collection.deleteMany(query, options)
+                       : collection.deleteMany(session, query, options);
+            } else {
+                return session == null
+                       ? collection.deleteOne(query, options)
+                       : collection.deleteOne(session, query, options);
+            }
+        } finally {
+            mapper.invalidateQueryCache(collection);
         }
     }
 
@@ -118,6 +168,35 @@ public class MorphiaQuery<T> implements Query<T> {
         return this;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> MorphiaCursor<V> distinct(String field, Class<V> valueType, FindOptions options) {
+        Class<V> boxed = (Class<V>) MethodType.methodType(valueType).wrap().returnType();
+        PathTarget target = new PathTarget(mapper, mapper.getEntityModel(type), field, validate);
+        PropertyModel property = target.getTarget();
+        Codec<? super Object> codec = property != null && property.isScalarValue() ? mapper.getPropertyCodec(property) : null;
+
+        Document query = validatedQuery();
+        ClientSession clientSession = datastore.findSession(options);
+        MongoCollection<T> collection = options.prepare(getCollection());
+        if (codec == null) {
+            DistinctIterable<V> iterable = clientSession != null
+                                           ? collection.distinct(clientSession, target.translatedPath(), query, boxed)
+                                           : collection.distinct(target.translatedPath(), query, boxed);
+            return new MorphiaCursor<>(iterable.collation(options.getCollation())
+                                               .maxTime(options.getMaxTime(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS)
+                                               .iterator());
+        }
+        // the values are decoded here rather than by registering the property codec on the collection which would also encode the query
+        DistinctIterable<BsonValue> iterable = clientSession != null
+                                               ? collection.distinct(clientSession, target.translatedPath(), query, BsonValue.class)
+                                               : collection.distinct(target.translatedPath(), query, BsonValue.class);
+        return new MorphiaCursor<>(iterable.collation(options.getCollation())
+                                           .maxTime(options.getMaxTime(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS)
+                                           .map(value -> boxed.cast(decode(codec, value)))
+                                           .iterator());
+    }
+
     @Override
     public Query<T> enableValidation() {
         validate = true;
@@ -173,9 +252,14 @@ public class MorphiaQuery<T> implements Query<T> {
     public T findAndDelete(FindAndDeleteOptions options) {
         MongoCollection<T> mongoCollection = options.prepare(getCollection());
         ClientSession session = datastore.findSession(options);
-        return session == null
-               ? mongoCollection.findOneAndDelete(getQueryDocument(), options)
-               : mongoCollection.findOneAndDelete(session, getQueryDocument(), options);
+        Document query = validatedQuery();
+        try {
+            return session == null
+                   ? mongoCollection.findOneAndDelete(query, options)
+                   : mongoCollection.findOneAndDelete(session, query, options);
+        } finally {
+            mapper.invalidateQueryCache(mongoCollection);
+        }
     }
 
     @Override
@@ -197,7 +281,20 @@ public class MorphiaQuery<T> implements Query<T> {
 
     @Override
     public MorphiaCursor<T> iterator(FindOptions options) {
-        return new MorphiaCursor<>(prepareCursor(options, getCollection()));
+        CursorType cursorType = options.getCursorType();
+        boolean tailable = cursorType != null && cursorType != NonTailable;
+        if (options.getCacheTtl(TimeUnit.NANOSECONDS) > 0 && mapper.getQueryCache().isEnabled() && !tailable
+            && datastore.findSession(options) == null) {
+            return new MorphiaCursor<>(cachedCursor(options));
+        }
+        MongoCursor<T> cursor = options.getFetchReferences().isEmpty()
+                                ? prepareCursor(options, getCollection())
+                                : lookupCursor(options, getCollection());
+        if (options.getPrefetch() > 0 && !tailable) {
+            int batchSize = Math.abs(options.getBatchSize());
+            cursor = new PrefetchingCursor<>(cursor, options.getPrefetch(), batchSize != 0 ? batchSize : DEFAULT_PREFETCH_SIZE);
+        }
+        return new MorphiaCursor<>(cursor);
     }
 
     @Override
@@ -221,6 +318,77 @@ public class MorphiaQuery<T> implements Query<T> {
         return new Modify<>(datastore, mapper, getCollection(), this, getEntityClass(), first, updates);
     }
 
+    @Override
+    public Page<T> nextPage(String token) {
+        return fetchPage(PageToken.decode(mapper, token));
+    }
+
+    @Override
+    public Page<T> page(int pageSize, Sort... sorts) {
+        return fetchPage(PageToken.first(mapper, mapper.getEntityModel(type), pageSize, sorts));
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public CountedPage<T> pageWithTotal(FindOptions options) {
+        if (options.getLimit() == 0) {
+            throw new IllegalArgumentException(Sofia.pageLimitRequired());
+        }
+        long start = startTime();
+        Document query = validatedQuery();
+        List<Stage> page = new ArrayList<>();
+        page.add(Skip.of(options.getSkip()));
+        if (options.getLimit() != 0) {
+            page.add(Limit.of(Math.abs(options.getLimit())));
+        }
+        DocumentWriter writer = new DocumentWriter();
+        Facet facet = Facet.of()
+                           .field(CountedPageCodec.RESULTS, page.toArray(new Stage[0]))
+                           .field(CountedPageCodec.TOTAL, new Count("count"));
+        ((Codec) mapper.getCodecRegistry().get(Facet.class)).encode(writer, facet, EncoderContext.builder().build());
+        Document encoded = writer.getDocument();
+
+        List<Document> results = encoded.get("$facet", Document.class).getList(CountedPageCodec.RESULTS, Document.class);
+        Document projection = options.getProjection() != null ? options.getProjection().map(mapper, type) : null;
+        if (projection != null && !projection.isEmpty()) {
+            results.add(new Document("$project", projection));
+        }
+        if (!options.getFetchReferences().isEmpty()) {
+            results.addAll(new ReferenceLookup(mapper, type, options.getFetchReferences()).stages());
+        }
+
+        MongoCollection<CountedPage> pages = getCollection()
+                                                 .withDocumentClass(CountedPage.class)
+                                                 .withCodecRegistry(fromRegistries(
+                                                     fromCodecs(new CountedPageCodec<>(mapper.getCodecRegistry().get(type))),
+                                                     mapper.getCodecRegistry()));
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", query));
+        Document sort = options.getSort(mapper, type);
+        if (sort != null) {
+            // sorting ahead of the $facet lets the server use an index for it
+            pipeline.add(new Document("$sort", sort));
+        }
+        pipeline.add(encoded);
+        CountedPage<T> counted = aggregate(options, pages, pipeline).first();
+        record(query, start);
+        return counted != null ? counted : new CountedPage<>(List.of(), 0);
+    }
+
+    @Override
+    public <R> MorphiaCursor<R> project(Class<R> dto, FindOptions options) {
+        ProjectionCodec<R> codec = mapper.getProjectionCodec(type, dto);
+        Document query = validatedQuery();
+        MongoCollection<R> projected = getCollection().withDocumentClass(dto)
+                                                      .withCodecRegistry(fromRegistries(fromCodecs(codec), mapper.getCodecRegistry()));
+        long start = startTime();
+        MongoCursor<R> cursor = options.apply(iterable(options, projected, query), mapper, type)
+                                       .projection(codec.getProjection())
+                                       .iterator();
+        record(query, start);
+        return new MorphiaCursor<>(cursor);
+    }
+
     @Override
     public Query<T> search(String searchText) {
         return filter(text(searchText));
@@ -231,6 +399,16 @@ public class MorphiaQuery<T> implements Query<T> {
         return filter(text(searchText).language(language));
     }
 
+    @Override
+    public Tail tail(TailOptions options, Consumer<? super T> consumer) {
+        return tailer(options, Tailer.subscriber(consumer));
+    }
+
+    @Override
+    public Flow.Publisher<T> tail(TailOptions options) {
+        return subscriber -> tailer(options, subscriber);
+    }
+
     /**
      * Converts the query to a Document and updates for any discriminator values as my be necessary
      *
@@ -286,9 +464,28 @@ public class MorphiaQuery<T> implements Query<T> {
         return collectionName;
     }
 
+    private Page<T> fetchPage(PageToken token) {
+        Filter range = token.filter();
+        Document query = range != null
+                         ? validateShardKey(getQueryDocument(range.entityType(getEntityClass()).isValidating(validate)))
+                         : validatedQuery();
+        List<T> results = new MorphiaCursor<>(prepareCursor(token.options(), getCollection(), query)).toList();
+        String next = null;
+        if (results.size() > token.getPageSize()) {
+            results = new ArrayList<>(results.subList(0, token.getPageSize()));
+            next = token.next(mapper.toDocument(results.get(results.size() - 1)))
+                        .encode(mapper);
+        }
+        return new Page<>(results, next);
+    }
+
     @NotNull
     private <E> FindIterable<E> iterable(FindOptions findOptions, MongoCollection<E> collection) {
-        final Document query = toDocument();
+        return iterable(findOptions, collection, validatedQuery());
+    }
+
+    @NotNull
+    private <E> FindIterable<E> iterable(FindOptions findOptions, MongoCollection<E> collection, Document query) {
 
         if (LOG.isTraceEnabled()) {
             LOG.trace(format("Running query(%s) : %s, options: %s,", getCollectionName(), query, findOptions));
@@ -309,33 +506,151 @@ public class MorphiaQuery<T> implements Query<T> {
         return iterable;
     }
 
-    @SuppressWarnings("ConstantConditions")
-    private <E> MongoCursor<E> prepareCursor(FindOptions findOptions, MongoCollection<E> collection) {
-        Document oldProfile = null;
-        if (findOptions.isLogQuery()) {
-            oldProfile = datastore.getDatabase().runCommand(new Document("profile", 2).append("slowms", 0));
+    private <E> AggregateIterable<E> aggregate(FindOptions options, MongoCollection<E> collection, List<Document> pipeline) {
+        if (LOG.isTraceEnabled()) {
+            LOG.trace(format("Running query(%s) as an aggregation: %s, options: %s,", getCollectionName(), pipeline, options));
         }
-        try {
-            return findOptions
-                       .apply(iterable(findOptions, collection), mapper, type)
-                       .iterator();
-        } finally {
-            if (findOptions.isLogQuery()) {
-                datastore.getDatabase().runCommand(new Document("profile", oldProfile.get("was"))
-                                                       .append("slowms", oldProfile.get("slowms"))
-                                                       .append("sampleRate", oldProfile.get("sampleRate")));
+
+        ClientSession clientSession = datastore.findSession(options);
+        MongoCollection<E> updated = options.prepare(collection);
+        AggregateIterable<E> iterable = clientSession != null
+                                        ? updated.aggregate(clientSession, pipeline)
+                                        : updated.aggregate(pipeline);
+        return iterable.allowDiskUse(options.getAllowDiskUse())
+                       .batchSize(options.getBatchSize())
+                       .collation(options.getCollation())
+                       .comment(options.getComment())
+                       .hint(options.getHint())
+                       .maxTime(options.getMaxTime(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+    }
+
+    private MongoCursor<T> cachedCursor(FindOptions options) {
+        QueryCache cache = mapper.getQueryCache();
+        Document query = validatedQuery();
+        Projection projection = options.getProjection();
+        Collation collation = options.getCollation();
+        Document key = new Document("collection", getCollectionName())
+                           .append("filter", query)
+                           .append("sort", options.getSort(mapper, type))
+                           .append("projection", projection != null ? projection.map(mapper, type) : null)
+                           .append("skip", options.getSkip())
+                           .append("limit", options.getLimit())
+                           .append("collation", collation != null ? collation.asDocument() : null)
+                           .append("fetchReferences", options.getFetchReferences());
+        Codec<T> codec = getCollection().getCodecRegistry().get(type);
+
+        QueryCache.Entry entry = cache.get(key);
+        if (entry == null) {
+            long generation = cache.generation(getCollectionName());
+            MongoCollection<RawBsonDocument> raw = getCollection().withDocumentClass(RawBsonDocument.class);
+            List<RawBsonDocument> results = new ArrayList<>();
+            ServerAddress address;
+            try (MongoCursor<RawBsonDocument> cursor = options.getFetchReferences().isEmpty()
+                                                       ? prepareCursor(options, raw, query)
+                                                       : lookupCursor(options, raw)) {
+                address = cursor.getServerAddress();
+                cursor.forEachRemaining(results::add);
             }
+            cache.put(key, getCollectionName(), generation, results, address, options.getCacheTtl(TimeUnit.NANOSECONDS));
+            return new CachedCursor<>(results, codec, address);
+        }
+        return new CachedCursor<>(entry.getResults(), codec, entry.getAddress());
+    }
+
+    private <E> MongoCursor<E> lookupCursor(FindOptions options, MongoCollection<E> collection) {
+        long start = startTime();
+        Document query = validatedQuery();
+        List<Document> pipeline = new ReferenceLookup(mapper, type, options.getFetchReferences()).pipeline(query, options);
+        MongoCursor<E> cursor = aggregate(options, collection, pipeline).iterator();
+        record(query, start);
+        return cursor;
+    }
+
+    private <E> MongoCursor<E> prepareCursor(FindOptions findOptions, MongoCollection<E> collection) {
+        return prepareCursor(findOptions, collection, validatedQuery());
+    }
+
+    private <E> MongoCursor<E> prepareCursor(FindOptions findOptions, MongoCollection<E> collection, Document query) {
+        long start = startTime();
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        MongoCursor<E> cursor = QueryLogger.run(mapper.getOptions().getQueryLogger(), datastore.getDatabase(), findOptions,
+            () -> findOptions.apply(iterable(findOptions, collection, query), mapper, type).iterator());
+        record(query, start);
+        if (event.isEnabled()) {
+            event.describe("find", collection.getNamespace().getCollectionName(), type, shapeOf(query).hashCode());
+            cursor = new QueryEventCursor<>(cursor, event);
+        }
+        return cursor;
+    }
+
+    private Tailer<T> tailer(TailOptions options, Flow.Subscriber<? super T> subscriber) {
+        FindOptions findOptions = options.getFindOptions().copy()
+                                         .cursorType(CursorType.TailableAwait)
+                                         .maxAwaitTime(options.getMaxAwaitTime(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        MongoCollection<RawBsonDocument> raw = getCollection().withDocumentClass(RawBsonDocument.class);
+        Document query = validatedQuery();
+        return new Tailer<>(type, getCollection().getCodecRegistry().get(type), lastId -> {
+            Document resumed = lastId == null
+                               ? query
+                               : new Document("$and", List.of(query, new Document("_id", new Document("$gt", lastId))));
+            return prepareCursor(findOptions, raw, resumed);
+        }, options, mapper.getOptions().getMetrics(), subscriber).start();
+    }
 
+    private Document validatedQuery() {
+        return validateShardKey(getQueryDocument());
+    }
+
+    private Document validateShardKey(Document query) {
+        if (mapper.isMappable(getEntityClass())) {
+            mapper.validateShardKey(mapper.getEntityModel(getEntityClass()), query);
         }
+        return query;
+    }
+
+    private long startTime() {
+        return mapper.getOptions().getMetrics().isEnabled() ? System.nanoTime() : 0;
+    }
+
+    private void record(Document query, long start) {
+        MorphiaMetrics metrics = mapper.getOptions().getMetrics();
+        if (metrics.isEnabled()) {
+            metrics.queryExecuted(type, shapeOf(query), System.nanoTime() - start);
+        }
+    }
+
+    private static String shapeOf(Document query) {
+        return ((Document) shape(query)).toJson();
     }
 
-    Document getQueryDocument() {
+    /**
+     * Replaces the values in a query with placeholders leaving only the fields and operators used.
+     */
+    private static Object shape(Object value) {
+        if (value instanceof Document) {
+            Document shape = new Document();
+            ((Document) value).forEach((key, nested) -> shape.put(key, shape(nested)));
+            return shape;
+        } else if (value instanceof List && !((List<?>) value).isEmpty()
+                   && ((List<?>) value).stream().allMatch(element -> element instanceof Document)) {
+            return ((List<?>) value).stream()
+                                    .map(MorphiaQuery::shape)
+                                    .collect(Collectors.toList());
+        }
+        return "?";
+    }
+
+    Document getQueryDocument(Filter... additional) {
         DocumentWriter writer = new DocumentWriter(seedQuery);
         document(writer, () -> {
             EncoderContext context = EncoderContext.builder().build();
             for (Filter filter : filters) {
                 filter.encode(mapper, writer, context);
             }
+            for (Filter filter : additional) {
+                filter.encode(mapper, writer, context);
+            }
         });
 
         Document query = writer.getDocument();
@@ -346,6 +661,17 @@ public class MorphiaQuery<T> implements Query<T> {
         return query;
     }
 
+    @Nullable
+    private static Object decode(Codec<? super Object> codec, BsonValue value) {
+        if (value.isNull()) {
+            return null;
+        }
+        BsonDocumentReader reader = new BsonDocumentReader(new BsonDocument("value", value));
+        reader.readStartDocument();
+        reader.readName();
+        return codec.decode(reader, DecoderContext.builder().build());
+    }
+
     @SuppressWarnings({"rawtypes", "unchecked"})
     @Deprecated(since = "2.0", forRemoval = true)
     private class MorphiaQueryFieldEnd extends FieldEndImpl {
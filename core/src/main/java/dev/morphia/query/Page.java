@@ -0,0 +1,56 @@
+package dev.morphia.query;
+
+import com.mongodb.lang.Nullable;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * A single page of results fetched using keyset pagination.
+ *
+ * @param <T> the entity type
+ * @see Query#page(int, Sort...)
+ * @see Query#nextPage(String)
+ * @since 2.2
+ */
+public class Page<T> {
+    private final List<T> results;
+    private final String nextPageToken;
+
+    Page(List<T> results, @Nullable String nextPageToken) {
+        this.results = results;
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * @return the entities on this page
+     */
+    public List<T> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns the opaque token to pass to {@link Query#nextPage(String)} to fetch the page following this one.
+     *
+     * @return the token or null if this is the last page
+     */
+    @Nullable
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    /**
+     * @return true if there is at least one more page of results
+     */
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", Page.class.getSimpleName() + "[", "]")
+                   .add("results=" + results.size())
+                   .add("nextPageToken='" + nextPageToken + "'")
+                   .toString();
+    }
+}
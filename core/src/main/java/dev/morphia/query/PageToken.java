@@ -0,0 +1,158 @@
+package dev.morphia.query;
+
+import com.mongodb.lang.Nullable;
+import dev.morphia.internal.PathTarget;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.codec.pojo.EntityModel;
+import dev.morphia.query.experimental.filters.Filter;
+import dev.morphia.sofia.Sofia;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map.Entry;
+
+import static dev.morphia.query.experimental.filters.Filters.and;
+import static dev.morphia.query.experimental.filters.Filters.eq;
+import static dev.morphia.query.experimental.filters.Filters.gt;
+import static dev.morphia.query.experimental.filters.Filters.lt;
+import static dev.morphia.query.experimental.filters.Filters.or;
+
+/**
+ * Tracks the state of keyset pagination between pages.  The sort keys are stored by their mapped names and always end with {@code _id}
+ * so that the ordering is total.  The serialized form is an opaque, url safe string.
+ *
+ * @morphia.internal
+ * @since 2.2
+ */
+class PageToken {
+    private static final String SORT = "sort";
+    private static final String SIZE = "size";
+    private static final String LAST = "last";
+
+    private final Document sort;
+    private final int pageSize;
+    private final List<Object> last;
+
+    private PageToken(Document sort, int pageSize, @Nullable List<Object> last) {
+        this.sort = sort;
+        this.pageSize = pageSize;
+        this.last = last;
+    }
+
+    static PageToken first(Mapper mapper, EntityModel model, int pageSize, Sort... sorts) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException(Sofia.invalidPageSize(pageSize));
+        }
+        Document sort = new Document();
+        for (Sort value : sorts) {
+            sort.put(new PathTarget(mapper, model, value.getField()).translatedPath(), value.getOrder());
+        }
+        sort.putIfAbsent("_id", 1);
+        return new PageToken(sort, pageSize, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    static PageToken decode(Mapper mapper, String token) {
+        Document sort;
+        List<Object> last;
+        Integer size;
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            Document document = mapper.getCodecRegistry().get(Document.class)
+                                      .decode(new BsonBinaryReader(ByteBuffer.wrap(bytes)), DecoderContext.builder().build());
+            sort = document.get(SORT, Document.class);
+            last = document.get(LAST, List.class);
+            size = document.getInteger(SIZE);
+        } catch (RuntimeException e) {
+            throw new QueryException(Sofia.invalidPageToken(token), e);
+        }
+        if (sort == null || last == null || size == null || size < 1 || last.size() != sort.size()) {
+            throw new QueryException(Sofia.invalidPageToken(token));
+        }
+        return new PageToken(sort, size, last);
+    }
+
+    String encode(Mapper mapper) {
+        Document document = new Document(SORT, sort)
+                                .append(SIZE, pageSize)
+                                .append(LAST, last);
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        Codec<Document> codec = mapper.getCodecRegistry().get(Document.class);
+        codec.encode(new BsonBinaryWriter(buffer), document, EncoderContext.builder().build());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.toByteArray());
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @return the options to fetch this page with.  One extra result is requested to detect whether another page follows.
+     */
+    FindOptions options() {
+        return new FindOptions()
+                   .sort(sort)
+                   .limit(pageSize + 1);
+    }
+
+    /**
+     * Builds the range filter selecting everything after the last entity of the previous page.  For sort keys k1..kn this is
+     * {@code k1 > v1 OR (k1 == v1 AND k2 > v2) OR ...} with the comparisons flipped for descending keys.
+     *
+     * @return the filter or null on the first page
+     */
+    @Nullable
+    Filter filter() {
+        if (last == null) {
+            return null;
+        }
+        List<Entry<String, Object>> keys = new ArrayList<>(sort.entrySet());
+        Filter[] branches = new Filter[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            Filter[] terms = new Filter[i + 1];
+            for (int j = 0; j < i; j++) {
+                terms[j] = eq(keys.get(j).getKey(), last.get(j));
+            }
+            String key = keys.get(i).getKey();
+            terms[i] = ((Number) keys.get(i).getValue()).intValue() < 0
+                       ? lt(key, last.get(i))
+                       : gt(key, last.get(i));
+            branches[i] = terms.length == 1 ? terms[0] : and(terms);
+        }
+        // a bare top level _id filter would suppress the discriminator clause so always wrap the range
+        return branches.length == 1 ? and(branches[0]) : or(branches);
+    }
+
+    /**
+     * @param lastEntity the encoded form of the last entity on the current page
+     * @return the token for the following page
+     */
+    PageToken next(Document lastEntity) {
+        List<Object> values = new ArrayList<>();
+        for (String path : sort.keySet()) {
+            values.add(extract(lastEntity, path));
+        }
+        return new PageToken(sort, pageSize, values);
+    }
+
+    @Nullable
+    private static Object extract(Document document, String path) {
+        Object value = document;
+        for (String segment : path.split("\\.")) {
+            if (!(value instanceof Document)) {
+                return null;
+            }
+            value = ((Document) value).get(segment);
+        }
+        return value;
+    }
+}
@@ -15,6 +15,8 @@ import org.bson.Document;
 import java.util.Map;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -101,6 +103,37 @@ public interface Query<T> extends CriteriaContainer, Iterable<T> {
      */
     Query<T> disableValidation();
 
+    /**
+     * Finds the distinct values of a property across the documents matching this query.  The property path is translated to its
+     * mapped name and each value is decoded with the codec of the property, or for multivalued properties, with the codec of the given
+     * element type.
+     *
+     * @param field the property path
+     * @param type  the type of the values
+     * @param <V>   the type of the values
+     * @return a cursor over the distinct values
+     * @since 2.2
+     */
+    default <V> MorphiaCursor<V> distinct(String field, Class<V> type) {
+        return distinct(field, type, new FindOptions());
+    }
+
+    /**
+     * Finds the distinct values of a property across the documents matching this query.  Only the collation, max time, read preference,
+     * read concern, and session of the options are applied.
+     *
+     * @param field   the property path
+     * @param type    the type of the values
+     * @param options the options to apply
+     * @param <V>     the type of the values
+     * @return a cursor over the distinct values
+     * @see #distinct(String, Class)
+     * @since 2.2
+     */
+    default <V> MorphiaCursor<V> distinct(String field, Class<V> type, FindOptions options) {
+        throw new UnsupportedOperationException(Sofia.notAvailableInLegacy());
+    }
+
     /**
      * Turns on validation (for all calls made after); by default validation is on
      *
@@ -332,6 +365,18 @@ public interface Query<T> extends CriteriaContainer, Iterable<T> {
     @Deprecated(since = "2.0", forRemoval = true)
     MorphiaKeyCursor<T> keys(FindOptions options);
 
+    /**
+     * Fetches the page following the one which produced the given token.  The token must have come from a page produced by a query with
+     * the same filters as this one.
+     *
+     * @param token the token from {@link Page#getNextPageToken()}
+     * @return the next page of results
+     * @since 2.2
+     */
+    default Page<T> nextPage(String token) {
+        throw new UnsupportedOperationException(Sofia.notAvailableInLegacy());
+    }
+
     /**
      * Creates a container to hold 'or' clauses
      *
@@ -368,6 +413,80 @@ public interface Query<T> extends CriteriaContainer, Iterable<T> {
         return legacyOperation();
     }
 
+    /**
+     * Fetches the first page of results using keyset (or "seek") pagination.  Rather than skipping over the results of earlier pages,
+     * each subsequent page is fetched with a range filter on the sort keys of the last entity of the previous page so the cost of
+     * fetching a page does not grow with its depth.  {@code _id} is used as the final sort key to break ties.  The sort keys should be
+     * backed by an index and should not contain nulls.
+     *
+     * @param pageSize the maximum number of entities per page
+     * @param sorts    the sort keys
+     * @return the first page of results
+     * @see #nextPage(String)
+     * @since 2.2
+     */
+    default Page<T> page(int pageSize, Sort... sorts) {
+        throw new UnsupportedOperationException(Sofia.notAvailableInLegacy());
+    }
+
+    /**
+     * Fetches the first page of results using keyset pagination.
+     *
+     * @param sort     the sort key
+     * @param pageSize the maximum number of entities per page
+     * @return the first page of results
+     * @see #page(int, Sort...)
+     * @since 2.2
+     */
+    default Page<T> page(Sort sort, int pageSize) {
+        return page(pageSize, sort);
+    }
+
+    /**
+     * Fetches a page of results along with the total number of entities matching this query in a single round trip.  Rather than
+     * running a separate count, the query is run as an aggregation whose {@code $facet} stage produces both the page, as defined by the
+     * sort, skip, limit and projection of the options, and the count of all the matching entities.
+     * <p>
+     * The stage returns the whole page in a single document, which like any document can not exceed 16MB.  The options must therefore
+     * set a limit and the limit should be small enough for a page of entities to stay well within that size.
+     *
+     * @param options the options defining the page.  These must set a limit.
+     * @return the page and the total
+     * @throws IllegalArgumentException if the options do not set a limit
+     * @since 2.2
+     */
+    default CountedPage<T> pageWithTotal(FindOptions options) {
+        throw new UnsupportedOperationException(Sofia.notAvailableInLegacy());
+    }
+
+    /**
+     * Loads the matching entities directly in to a DTO.  The components of a record, or the fields of any other class, name the entity
+     * properties to load.  Only those properties are fetched and each is decoded straight in to the DTO without creating an entity.
+     *
+     * @param dto the DTO type
+     * @param <R> the DTO type
+     * @return a cursor over the DTOs
+     * @see #project(Class, FindOptions)
+     * @since 2.2
+     */
+    default <R> MorphiaCursor<R> project(Class<R> dto) {
+        return project(dto, new FindOptions());
+    }
+
+    /**
+     * Loads the matching entities directly in to a DTO.  Any projection set on the options is replaced by the one derived from the DTO.
+     *
+     * @param dto     the DTO type
+     * @param options the options to apply
+     * @param <R>     the DTO type
+     * @return a cursor over the DTOs
+     * @see #project(Class)
+     * @since 2.2
+     */
+    default <R> MorphiaCursor<R> project(Class<R> dto, FindOptions options) {
+        throw new UnsupportedOperationException(Sofia.notAvailableInLegacy());
+    }
+
     /**
      * Perform a text search on the content of the fields indexed with a text index..
      *
@@ -413,6 +532,59 @@ public interface Query<T> extends CriteriaContainer, Iterable<T> {
         return StreamSupport.stream(spliterator, false);
     }
 
+    /**
+     * Tails a capped collection passing each matching entity to the consumer as it is written.  The entities are read and decoded on a
+     * background thread and handed to the consumer on another.  If the cursor is closed by the server or fails with a network error, a
+     * new one is opened which resumes after the {@code _id} of the last document read.  Resuming relies on the ids increasing in
+     * insertion order, as generated {@code ObjectId}s do.
+     *
+     * @param consumer the consumer of the entities
+     * @return the running tail
+     * @see #tail(TailOptions, Consumer)
+     * @since 2.2
+     */
+    default Tail tail(Consumer<? super T> consumer) {
+        return tail(new TailOptions(), consumer);
+    }
+
+    /**
+     * Tails a capped collection passing each matching entity to the consumer as it is written.  If the consumer throws, the tail stops
+     * and the exception is reported by {@link Tail#getFailure()}.
+     *
+     * @param options  the options to apply
+     * @param consumer the consumer of the entities
+     * @return the running tail
+     * @see #tail(Consumer)
+     * @since 2.2
+     */
+    default Tail tail(TailOptions options, Consumer<? super T> consumer) {
+        throw new UnsupportedOperationException(Sofia.notAvailableInLegacy());
+    }
+
+    /**
+     * Creates a publisher which tails a capped collection.  Each subscriber tails the collection independently and is sent only as many
+     * entities as it requests.  The subscriptions also implement {@link Tail}.
+     *
+     * @return the publisher
+     * @see #tail(Consumer)
+     * @since 2.2
+     */
+    default Flow.Publisher<T> tail() {
+        return tail(new TailOptions());
+    }
+
+    /**
+     * Creates a publisher which tails a capped collection.
+     *
+     * @param options the options to apply
+     * @return the publisher
+     * @see #tail()
+     * @since 2.2
+     */
+    default Flow.Publisher<T> tail(TailOptions options) {
+        throw new UnsupportedOperationException(Sofia.notAvailableInLegacy());
+    }
+
     /**
      * @return the document form of this query
      * @morphia.internal
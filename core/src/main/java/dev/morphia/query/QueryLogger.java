@@ -0,0 +1,189 @@
+package dev.morphia.query;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.lang.Nullable;
+import dev.morphia.sofia.Sofia;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Captures the query commands sent to the server.  Queries run with {@link FindOptions#logQuery()} are kept so the exact command can
+ * be retrieved afterwards.  A fraction of all other queries can be sampled and logged along with their round trip times.
+ * <p>
+ * Set a logger with {@link dev.morphia.mapping.MapperOptions.Builder#queryLogger(QueryLogger)} and
+ * {@link #register(MongoClientSettings.Builder) register} it on the settings used to create the client.  A logger only sees the
+ * commands of the clients it is registered with so use a separate logger for each client.
+ * {@link dev.morphia.Morphia#createDatastore(String, dev.morphia.mapping.MapperOptions)} creates and registers a logger for the
+ * client it creates when none is set.  Until a logger has seen a command from its client, queries run with
+ * {@link FindOptions#logQuery()} switch on the database profiler instead and are read back from {@code system.profile}.
+ *
+ * @since 2.2
+ */
+public class QueryLogger implements CommandListener {
+    private static final Logger LOG = LoggerFactory.getLogger(QueryLogger.class);
+    private static final Set<String> QUERY_COMMANDS = Set.of("aggregate", "count", "distinct", "find", "findAndModify");
+    private static final String PREFIX = Sofia.loggedQuery("");
+
+    private final double sampleRate;
+    private final Map<String, LoggedQuery> logged;
+    private final Map<Integer, Pending> pending;
+    private volatile boolean registered;
+
+    /**
+     * Creates a logger which only captures the queries explicitly requested via {@link FindOptions#logQuery()}.
+     */
+    public QueryLogger() {
+        this(0, 1000);
+    }
+
+    /**
+     * Creates a logger
+     *
+     * @param sampleRate the fraction, between 0 and 1, of all queries to log at INFO level
+     * @param capacity   the number of requested queries to retain.  At most this many queries are also tracked while they run.
+     */
+    public QueryLogger(double sampleRate, int capacity) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+        logged = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Entry<String, LoggedQuery> eldest) {
+                return size() > capacity;
+            }
+        });
+        // commands whose completion is never reported must not accumulate
+        pending = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Entry<Integer, Pending> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        registered = true;
+        if (!QUERY_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        String logId = logId(event.getCommand());
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (logId != null || sampled) {
+            // the command is only valid for the duration of the callback
+            pending.put(event.getRequestId(), new Pending(logId, sampled, event.getDatabaseName(), event.getCommand().clone()));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        complete(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), true);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        complete(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), false);
+    }
+
+    /**
+     * @param queryLogId the ID assigned by {@link FindOptions#logQuery()}
+     * @return the captured query or null if it has not been seen or has been evicted
+     */
+    @Nullable
+    public LoggedQuery getLoggedQuery(String queryLogId) {
+        return logged.get(queryLogId);
+    }
+
+    /**
+     * @return true once this logger has seen a command sent by a client it is {@link #register(MongoClientSettings.Builder) registered}
+     * with
+     */
+    public boolean isRegistered() {
+        return registered;
+    }
+
+    /**
+     * Adds this logger as a {@code CommandListener} to the settings of a client
+     *
+     * @param settings the settings the client will be created with
+     * @return the settings
+     */
+    public MongoClientSettings.Builder register(MongoClientSettings.Builder settings) {
+        return settings.addCommandListener(this);
+    }
+
+    /**
+     * Runs a query which should be logged.  Unless the logger is seeing the commands of the client, the database profiler is switched
+     * on for the duration of the query so it can be read back from {@code system.profile}.
+     */
+    static <R> R run(@Nullable QueryLogger logger, MongoDatabase database, FindOptions options, Supplier<R> query) {
+        if (!options.isLogQuery() || logger != null && logger.isRegistered()) {
+            return query.get();
+        }
+        Document oldProfile = database.runCommand(new Document("profile", 2).append("slowms", 0));
+        try {
+            return query.get();
+        } finally {
+            database.runCommand(new Document("profile", oldProfile.get("was"))
+                                    .append("slowms", oldProfile.get("slowms"))
+                                    .append("sampleRate", oldProfile.get("sampleRate")));
+        }
+    }
+
+    private void complete(int requestId, String commandName, long nanos, boolean succeeded) {
+        Pending started = pending.remove(requestId);
+        if (started != null) {
+            LoggedQuery query = new LoggedQuery(commandName, started.database, started.command, nanos, succeeded);
+            if (started.logId != null) {
+                logged.put(started.logId, query);
+            }
+            if (started.sampled) {
+                LOG.info(query.toString());
+            }
+        }
+    }
+
+    @Nullable
+    private static String logId(BsonDocument command) {
+        BsonValue comment = command.get("comment");
+        if (comment != null && comment.isString()) {
+            String value = comment.asString().getValue();
+            if (value.startsWith(PREFIX)) {
+                return value.substring(PREFIX.length());
+            }
+        }
+        return null;
+    }
+
+    private static final class Pending {
+        private final String logId;
+        private final boolean sampled;
+        private final String database;
+        private final BsonDocument command;
+
+        private Pending(@Nullable String logId, boolean sampled, String database, BsonDocument command) {
+            this.logId = logId;
+            this.sampled = sampled;
+            this.database = database;
+            this.command = command;
+        }
+    }
+}
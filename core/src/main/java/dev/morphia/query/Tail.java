@@ -0,0 +1,63 @@
+package dev.morphia.query;
+
+import com.mongodb.lang.Nullable;
+import org.bson.BsonValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A running tail of a capped collection.  The subscriptions handed to the subscribers of {@link Query#tail(TailOptions)} also implement
+ * this interface.
+ *
+ * @see Query#tail(java.util.function.Consumer)
+ * @since 2.2
+ */
+public interface Tail extends AutoCloseable {
+    /**
+     * Stops tailing.  Entities already buffered are discarded.
+     */
+    @Override
+    void close();
+
+    /**
+     * @return the number of entities read from the server but not yet delivered
+     */
+    int getBuffered();
+
+    /**
+     * @return the number of entities delivered
+     */
+    long getDelivered();
+
+    /**
+     * @return the error which stopped the tail or null if it has not failed
+     */
+    @Nullable
+    Throwable getFailure();
+
+    /**
+     * Gets the time the most recently delivered entity spent between being read from the server and being delivered.  This grows when
+     * the consumer falls behind the writes to the collection.
+     *
+     * @param timeUnit the unit to return the value in
+     * @return the lag
+     */
+    long getLag(TimeUnit timeUnit);
+
+    /**
+     * @return the id of the last document read from the server or null if none has been read yet.  The tail resumes after this id
+     * whenever its cursor has to be reopened.
+     */
+    @Nullable
+    BsonValue getLastId();
+
+    /**
+     * @return the number of times the cursor has been reopened
+     */
+    long getResumes();
+
+    /**
+     * @return true until the tail is closed or fails
+     */
+    boolean isRunning();
+}
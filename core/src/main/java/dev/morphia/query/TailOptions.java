@@ -0,0 +1,112 @@
+package dev.morphia.query;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The options to apply when tailing a capped collection
+ *
+ * @see Query#tail(TailOptions, java.util.function.Consumer)
+ * @see Query#tail(TailOptions)
+ * @since 2.2
+ */
+public final class TailOptions {
+    private FindOptions findOptions = new FindOptions();
+    private int bufferSize = 1000;
+    private long maxAwaitTimeMS = 1000;
+    private long resumeDelayMS = 1000;
+
+    /**
+     * Creates a new options instance
+     */
+    public TailOptions() {
+    }
+
+    /**
+     * Sets the maximum number of decoded entities held ahead of the consumer.  Once the buffer is full no more results are requested
+     * from the server until the consumer catches up.  Defaults to 1000.
+     *
+     * @param bufferSize the number of entities to buffer
+     * @return this
+     */
+    public TailOptions bufferSize(int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be at least 1");
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * @return the number of entities to buffer
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Sets the options used to run the query.  The cursor type and maximum await time are replaced by those needed to tail the
+     * collection.  Sorts and reference lookups can not be used when tailing.
+     *
+     * @param findOptions the find options
+     * @return this
+     */
+    public TailOptions findOptions(FindOptions findOptions) {
+        this.findOptions = findOptions;
+        return this;
+    }
+
+    /**
+     * @return the find options
+     */
+    public FindOptions getFindOptions() {
+        return findOptions;
+    }
+
+    /**
+     * Sets how long the server waits for new documents before answering each request for more results.  This also bounds how long it
+     * takes for a closed tail to stop.  Defaults to 1 second.
+     *
+     * @param maxAwaitTime the time to wait
+     * @param timeUnit     the unit
+     * @return this
+     */
+    public TailOptions maxAwaitTime(long maxAwaitTime, TimeUnit timeUnit) {
+        if (maxAwaitTime < 1) {
+            throw new IllegalArgumentException("maxAwaitTime must be positive");
+        }
+        this.maxAwaitTimeMS = timeUnit.toMillis(maxAwaitTime);
+        return this;
+    }
+
+    /**
+     * @param timeUnit the unit to return the value in
+     * @return the time the server waits for new documents
+     */
+    public long getMaxAwaitTime(TimeUnit timeUnit) {
+        return timeUnit.convert(maxAwaitTimeMS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sets how long to wait before reopening a cursor which the server has closed or which failed with a network error.  Defaults to
+     * 1 second.
+     *
+     * @param resumeDelay the time to wait
+     * @param timeUnit    the unit
+     * @return this
+     */
+    public TailOptions resumeDelay(long resumeDelay, TimeUnit timeUnit) {
+        if (resumeDelay < 0) {
+            throw new IllegalArgumentException("resumeDelay can not be negative");
+        }
+        this.resumeDelayMS = timeUnit.toMillis(resumeDelay);
+        return this;
+    }
+
+    /**
+     * @param timeUnit the unit to return the value in
+     * @return the time to wait before reopening a cursor
+     */
+    public long getResumeDelay(TimeUnit timeUnit) {
+        return timeUnit.convert(resumeDelayMS, TimeUnit.MILLISECONDS);
+    }
+}
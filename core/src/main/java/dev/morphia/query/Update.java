@@ -43,17 +43,21 @@ public class Update<T> extends UpdateBase<T> {
      */
     public UpdateResult execute(UpdateOptions options) {
         Document updateOperations = toDocument();
-        final Document queryObject = getQuery().toDocument();
+        final Document queryObject = getQueryDocument();
 
         ClientSession session = getDatastore().findSession(options);
         MongoCollection<T> mongoCollection = options.prepare(getCollection());
-        if (options.isMulti()) {
-            return session == null ? mongoCollection.updateMany(queryObject, updateOperations, options)
-                                   : mongoCollection.updateMany(session, queryObject, updateOperations, options);
+        try {
+            if (options.isMulti()) {
+                return session == null ? mongoCollection.updateMany(queryObject, updateOperations, options)
+                                       : mongoCollection.updateMany(session, queryObject, updateOperations, options);
 
-        } else {
-            return session == null ? mongoCollection.updateOne(queryObject, updateOperations, options)
-                                   : mongoCollection.updateOne(session, queryObject, updateOperations, options);
+            } else {
+                return session == null ? mongoCollection.updateOne(queryObject, updateOperations, options)
+                                       : mongoCollection.updateOne(session, queryObject, updateOperations, options);
+            }
+        } finally {
+            getMapper().invalidateQueryCache(mongoCollection);
         }
     }
 }
@@ -94,10 +94,24 @@ public abstract class UpdateBase<T> {
         return datastore;
     }
 
+    protected Mapper getMapper() {
+        return mapper;
+    }
+
     protected Query<T> getQuery() {
         return query;
     }
 
+    /**
+     * @return the query document checked against any shard key
+     * @morphia.internal
+     */
+    protected Document getQueryDocument() {
+        Document document = query.toDocument();
+        mapper.validateShardKey(mapper.getEntityModel(type), document);
+        return document;
+    }
+
     /**
      * @return the updates
      * @morphia.internal
@@ -0,0 +1,499 @@
+package dev.morphia.query.experimental.filters;
+
+import com.mongodb.lang.Nullable;
+import dev.morphia.internal.PathTarget;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.codec.pojo.EntityModel;
+import dev.morphia.mapping.codec.pojo.PropertyModel;
+import dev.morphia.sofia.Sofia;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.lang.reflect.Array;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Evaluates {@link Filter}s in memory against entities or documents without a round trip to the server.  A filter is compiled once:
+ * its paths are translated to the mapped field names and its operands normalized up front, and the properties read from entities
+ * are resolved once per type rather than on every evaluation.
+ * <p>
+ * The supported filters are {@code $eq}, {@code $ne}, {@code $gt}, {@code $gte}, {@code $lt}, {@code $lte}, {@code $in},
+ * {@code $nin}, {@code $all}, {@code $exists}, {@code $size}, {@code $regex}, {@code $elemMatch}, {@code $and}, {@code $or} and
+ * {@code $nor} along with {@link Filter#not()}.  As with the server, a filter on an array field matches if any of the array's elements
+ * matches.
+ *
+ * <pre>
+ * CompiledFilter&lt;User&gt; adults = CompiledFilter.compile(datastore.getMapper(), User.class, gte("age", 18));
+ * List&lt;User&gt; matched = users.stream().filter(adults).collect(toList());
+ * </pre>
+ *
+ * @param <T> the entity type
+ * @since 2.2
+ */
+public final class CompiledFilter<T> implements Predicate<T> {
+    private static final Object MISSING = new Object();
+
+    private final Matcher matcher;
+
+    private CompiledFilter(Matcher matcher) {
+        this.matcher = matcher;
+    }
+
+    /**
+     * Compiles the filters into a reusable predicate.  All the filters must match for the predicate to match.
+     *
+     * @param mapper  the mapper
+     * @param type    the entity type the filters apply to
+     * @param filters the filters
+     * @param <T>     the entity type
+     * @return the compiled filter
+     * @throws UnsupportedOperationException if one of the filters can not be evaluated in memory
+     */
+    public static <T> CompiledFilter<T> compile(Mapper mapper, Class<T> type, Filter... filters) {
+        EntityModel model = mapper.isMappable(type) ? mapper.getEntityModel(type) : null;
+        return new CompiledFilter<>(new Compiler(mapper, model).and(asList(filters), ""));
+    }
+
+    /**
+     * Evaluates the filter against a document in its mapped form, e.g. one read from the database or a change stream event.
+     *
+     * @param document the document
+     * @return true if the document matches
+     */
+    public boolean matches(Document document) {
+        return matcher.matches(document);
+    }
+
+    @Override
+    public boolean test(T entity) {
+        return matcher.matches(entity);
+    }
+
+    @Nullable
+    private static Object normalize(@Nullable Object value) {
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        } else if (value instanceof Date) {
+            return ((Date) value).toInstant();
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toInstant(ZoneOffset.UTC);
+        } else if (value instanceof Character) {
+            return value.toString();
+        } else if (value != null && value.getClass().isArray() && !(value instanceof byte[])) {
+            List<Object> list = new ArrayList<>();
+            for (int i = 0; i < Array.getLength(value); i++) {
+                list.add(normalize(Array.get(value, i)));
+            }
+            return list;
+        } else if (value instanceof Iterable && !(value instanceof Collection)) {
+            List<Object> list = new ArrayList<>();
+            ((Iterable<?>) value).forEach(list::add);
+            return list;
+        }
+        return value;
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+    }
+
+    /**
+     * @return the comparison of the two values or null if they are of different types and can not be compared
+     */
+    @Nullable
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Integer compare(@Nullable Object left, @Nullable Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            Number l = (Number) left;
+            Number r = (Number) right;
+            return isIntegral(l) && isIntegral(r)
+                   ? Long.compare(l.longValue(), r.longValue())
+                   : Double.compare(l.doubleValue(), r.doubleValue());
+        }
+        if (left instanceof String && right instanceof String
+            || left instanceof Instant && right instanceof Instant
+            || left instanceof ObjectId && right instanceof ObjectId
+            || left instanceof Boolean && right instanceof Boolean
+            || left instanceof Comparable && left.getClass().equals(right != null ? right.getClass() : null)) {
+            return ((Comparable) left).compareTo(right);
+        }
+        return null;
+    }
+
+    private static boolean isEqual(@Nullable Object left, @Nullable Object right) {
+        if (left == null || right == null || left == MISSING || right == MISSING) {
+            return (left == null || left == MISSING) && (right == null || right == MISSING);
+        }
+        if (left instanceof Number && right instanceof Number) {
+            Integer compared = compare(left, right);
+            return compared != null && compared == 0;
+        }
+        if (left instanceof List && right instanceof List) {
+            List<?> l = (List<?>) left;
+            List<?> r = (List<?>) right;
+            if (l.size() != r.size()) {
+                return false;
+            }
+            for (int i = 0; i < l.size(); i++) {
+                if (!isEqual(normalize(l.get(i)), normalize(r.get(i)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (left instanceof Map && right instanceof Map) {
+            Map<?, ?> l = (Map<?, ?>) left;
+            Map<?, ?> r = (Map<?, ?>) right;
+            if (l.size() != r.size()) {
+                return false;
+            }
+            for (Map.Entry<?, ?> entry : l.entrySet()) {
+                if (!r.containsKey(entry.getKey()) || !isEqual(normalize(entry.getValue()), normalize(r.get(entry.getKey())))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return left.equals(right);
+    }
+
+    @Nullable
+    private static Iterable<?> elements(@Nullable Object value) {
+        if (value instanceof Collection) {
+            return (Collection<?>) value;
+        }
+        if (value != null && value.getClass().isArray() && !(value instanceof byte[])) {
+            return (List<?>) normalize(value);
+        }
+        return null;
+    }
+
+    private interface Matcher {
+        boolean matches(@Nullable Object root);
+    }
+
+    private interface ValueTest {
+        boolean test(@Nullable Object value);
+    }
+
+    private static final class Compiler {
+        private final Mapper mapper;
+        private final EntityModel model;
+
+        private Compiler(Mapper mapper, @Nullable EntityModel model) {
+            this.mapper = mapper;
+            this.model = model;
+        }
+
+        private Matcher and(List<Filter> filters, String prefix) {
+            List<Matcher> matchers = compile(filters, prefix);
+            return matchers.size() == 1
+                   ? matchers.get(0)
+                   : root -> {
+                       for (Matcher matcher : matchers) {
+                           if (!matcher.matches(root)) {
+                               return false;
+                           }
+                       }
+                       return true;
+                   };
+        }
+
+        private List<Matcher> compile(List<Filter> filters, String prefix) {
+            List<Matcher> matchers = new ArrayList<>();
+            for (Filter filter : filters) {
+                matchers.add(compile(filter, prefix));
+            }
+            return matchers;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Matcher compile(Filter filter, String prefix) {
+            String name = String.valueOf(filter.getName());
+            if (filter instanceof LogicalFilter) {
+                List<Matcher> matchers = compile(((LogicalFilter) filter).getFilters(), prefix);
+                switch (name) {
+                    case "$and":
+                        return root -> matchers.stream().allMatch(m -> m.matches(root));
+                    case "$or":
+                        return root -> matchers.stream().anyMatch(m -> m.matches(root));
+                    default:
+                        return root -> matchers.stream().noneMatch(m -> m.matches(root));
+                }
+            }
+
+            Path path = path(prefix, filter.getField());
+            Object operand = normalize(filter.getValue());
+            Matcher matcher;
+            switch (name) {
+                case "$eq":
+                    matcher = root -> path.anyElement(root, equalTo(operand));
+                    break;
+                case "$ne":
+                    matcher = root -> !path.anyElement(root, equalTo(operand));
+                    break;
+                case "$gt":
+                    matcher = root -> path.anyElement(root, compared(operand, c -> c > 0));
+                    break;
+                case "$gte":
+                    matcher = root -> path.anyElement(root, compared(operand, c -> c >= 0));
+                    break;
+                case "$lt":
+                    matcher = root -> path.anyElement(root, compared(operand, c -> c < 0));
+                    break;
+                case "$lte":
+                    matcher = root -> path.anyElement(root, compared(operand, c -> c <= 0));
+                    break;
+                case "$in":
+                    matcher = root -> path.anyElement(root, in(operand));
+                    break;
+                case "$nin":
+                    matcher = root -> !path.anyElement(root, in(operand));
+                    break;
+                case "$all":
+                    matcher = root -> path.anyValue(root, all(operand));
+                    break;
+                case "$exists":
+                    matcher = root -> path.anyValue(root, value -> value != MISSING);
+                    break;
+                case "$size":
+                    matcher = root -> path.anyValue(root, value -> {
+                        Iterable<?> elements = elements(value);
+                        return elements instanceof Collection && ((Collection<?>) elements).size() == ((Number) operand).intValue();
+                    });
+                    break;
+                case "$regex":
+                    RegexFilter regex = (RegexFilter) filter;
+                    ValueTest pattern = regex(toPattern(regex.getPattern(), regex.getOptions()));
+                    matcher = root -> path.anyElement(root, pattern);
+                    break;
+                case "$elemMatch":
+                    String elementPrefix = prefix.isEmpty() ? filter.getField() : prefix + "." + filter.getField();
+                    Matcher element = and((List<Filter>) filter.getValue(), elementPrefix);
+                    matcher = root -> path.anyValue(root, value -> {
+                        Iterable<?> elements = elements(value);
+                        if (elements != null) {
+                            for (Object item : elements) {
+                                if (element.matches(item)) {
+                                    return true;
+                                }
+                            }
+                        }
+                        return false;
+                    });
+                    break;
+                default:
+                    throw new UnsupportedOperationException(Sofia.unsupportedInMemoryFilter(name));
+            }
+            return filter.isNot() ? root -> !matcher.matches(root) : matcher;
+        }
+
+        private ValueTest equalTo(@Nullable Object operand) {
+            if (operand instanceof Pattern) {
+                return regex((Pattern) operand);
+            }
+            if (operand != null && !(operand instanceof Map) && mapper.isMappable(operand.getClass())) {
+                // embedded entities are stored as documents so compare against the mapped form when evaluating documents
+                Document document = mapper.toDocument(operand);
+                return value -> value instanceof Map ? isEqual(value, document) : isEqual(normalize(value), operand);
+            }
+            return value -> isEqual(normalize(value), operand);
+        }
+
+        private ValueTest compared(@Nullable Object operand, IntPredicate test) {
+            return value -> {
+                Integer compared = compare(normalize(value), operand);
+                return compared != null && test.test(compared);
+            };
+        }
+
+        private ValueTest in(@Nullable Object operand) {
+            List<ValueTest> tests = new ArrayList<>();
+            for (Object candidate : (Collection<?>) Objects.requireNonNull(operand)) {
+                tests.add(equalTo(normalize(candidate)));
+            }
+            return value -> {
+                for (ValueTest test : tests) {
+                    if (test.test(value)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+
+        private ValueTest all(@Nullable Object operand) {
+            List<ValueTest> tests = new ArrayList<>();
+            for (Object candidate : (Collection<?>) Objects.requireNonNull(operand)) {
+                tests.add(equalTo(normalize(candidate)));
+            }
+            return value -> {
+                Iterable<?> elements = elements(value);
+                if (elements == null) {
+                    return tests.size() == 1 && tests.get(0).test(value);
+                }
+                for (ValueTest test : tests) {
+                    boolean found = false;
+                    for (Iterator<?> iterator = elements.iterator(); !found && iterator.hasNext(); ) {
+                        found = test.test(iterator.next());
+                    }
+                    if (!found) {
+                        return false;
+                    }
+                }
+                return !tests.isEmpty();
+            };
+        }
+
+        private ValueTest regex(Pattern pattern) {
+            return value -> value instanceof String && pattern.matcher((String) value).find();
+        }
+
+        private Pattern toPattern(String regex, @Nullable String options) {
+            int flags = 0;
+            if (options != null) {
+                flags |= options.contains("i") ? Pattern.CASE_INSENSITIVE : 0;
+                flags |= options.contains("m") ? Pattern.MULTILINE : 0;
+                flags |= options.contains("s") ? Pattern.DOTALL : 0;
+                flags |= options.contains("x") ? Pattern.COMMENTS : 0;
+            }
+            return Pattern.compile(regex, flags);
+        }
+
+        private Path path(String prefix, @Nullable String field) {
+            if (field == null || field.isEmpty()) {
+                return new Path(mapper, new String[0]);
+            }
+            String[] segments = translate(prefix.isEmpty() ? field : prefix + "." + field);
+            int skip = prefix.isEmpty() ? 0 : translate(prefix).length;
+            String[] relative = new String[segments.length - skip];
+            System.arraycopy(segments, skip, relative, 0, relative.length);
+            return new Path(mapper, relative);
+        }
+
+        private String[] translate(String path) {
+            return new PathTarget(mapper, model, path, false).translatedPath().split("\\.");
+        }
+    }
+
+    /**
+     * Walks a path through documents, entities and arrays.  The property found for each segment is cached against the type it was
+     * found on so entities are only introspected the first time a type is seen.
+     */
+    private static final class Path {
+        private final Mapper mapper;
+        private final String[] segments;
+        private final Segment[] cache;
+
+        private Path(Mapper mapper, String[] segments) {
+            this.mapper = mapper;
+            this.segments = segments;
+            cache = new Segment[segments.length];
+        }
+
+        /**
+         * Tests each value found at the path, and for arrays each of their elements, until one passes.
+         */
+        private boolean anyElement(@Nullable Object root, ValueTest test) {
+            return anyValue(root, value -> {
+                if (test.test(value)) {
+                    return true;
+                }
+                Iterable<?> elements = elements(value);
+                if (elements != null) {
+                    for (Object element : elements) {
+                        if (test.test(element)) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            });
+        }
+
+        private boolean anyValue(@Nullable Object root, ValueTest test) {
+            List<Object> values = new ArrayList<>(1);
+            collect(root, 0, values);
+            for (Object value : values) {
+                if (test.test(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void collect(@Nullable Object current, int index, List<Object> out) {
+            if (index == segments.length) {
+                out.add(current);
+                return;
+            }
+            String segment = segments[index];
+            if (current instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) current;
+                collect(map.containsKey(segment) ? map.get(segment) : MISSING, index + 1, out);
+            } else if (elements(current) != null) {
+                Iterable<?> elements = elements(current);
+                if (segment.matches("[0-9]+") && elements instanceof List) {
+                    List<?> list = (List<?>) elements;
+                    int position = Integer.parseInt(segment);
+                    collect(position < list.size() ? list.get(position) : MISSING, index + 1, out);
+                } else {
+                    int found = out.size();
+                    for (Object element : elements) {
+                        if (element instanceof Map || element != null && property(element.getClass(), index) != null) {
+                            collect(element, index, out);
+                        }
+                    }
+                    if (out.size() == found) {
+                        out.add(MISSING);
+                    }
+                }
+            } else if (current != null && current != MISSING) {
+                PropertyModel property = property(current.getClass(), index);
+                Object value = property != null ? property.getValue(current) : null;
+                // null properties are not stored unless configured to be so treat them as missing like the server would
+                collect(value != null || property != null && mapper.getOptions().isStoreNulls() ? value : MISSING, index + 1, out);
+            } else {
+                out.add(MISSING);
+            }
+        }
+
+        @Nullable
+        private PropertyModel property(Class<?> type, int index) {
+            Segment segment = cache[index];
+            if (segment == null || segment.type != type) {
+                PropertyModel property = null;
+                if (mapper.isMappable(type)) {
+                    property = mapper.getEntityModel(type).getProperty(segments[index]);
+                }
+                segment = new Segment(type, property);
+                cache[index] = segment;
+            }
+            return segment.property;
+        }
+    }
+
+    private static final class Segment {
+        private final Class<?> type;
+        private final PropertyModel property;
+
+        private Segment(Class<?> type, @Nullable PropertyModel property) {
+            this.type = type;
+            this.property = property;
+        }
+    }
+}
@@ -45,6 +45,10 @@ class LogicalFilter extends Filter {
         return this;
     }
 
+    List<Filter> getFilters() {
+        return filters;
+    }
+
     @Override
     public String toString() {
         return format("%s: %s", getName(), filters);
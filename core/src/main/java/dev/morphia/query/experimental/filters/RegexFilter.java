@@ -1,5 +1,6 @@
 package dev.morphia.query.experimental.filters;
 
+import com.mongodb.lang.Nullable;
 import dev.morphia.aggregation.experimental.codecs.ExpressionHelper;
 import dev.morphia.mapping.Mapper;
 import org.bson.BsonRegularExpression;
@@ -114,6 +115,15 @@ public class RegexFilter extends Filter {
         return this;
     }
 
+    @Nullable
+    String getOptions() {
+        return options;
+    }
+
+    String getPattern() {
+        return regex;
+    }
+
     private void add(String option) {
         if (options == null) {
             options = "";
@@ -0,0 +1,72 @@
+package dev.morphia.query.internal;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.lang.Nullable;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Decoder;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over cached query results decoding each document as it is returned.
+ *
+ * @param <T> the type of the results
+ * @morphia.internal
+ * @since 2.2
+ */
+public class CachedCursor<T> implements MongoCursor<T> {
+    private final Iterator<RawBsonDocument> results;
+    private final Decoder<T> decoder;
+    private final ServerAddress address;
+
+    /**
+     * Creates a cursor
+     *
+     * @param results the encoded results
+     * @param decoder the decoder to use
+     * @param address the address of the server which returned the results
+     */
+    public CachedCursor(List<RawBsonDocument> results, Decoder<T> decoder, ServerAddress address) {
+        this.results = results.iterator();
+        this.decoder = decoder;
+        this.address = address;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean hasNext() {
+        return results.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return results.next().decode(decoder);
+    }
+
+    @Override
+    @Nullable
+    public T tryNext() {
+        return hasNext() ? next() : null;
+    }
+
+    @Override
+    @Nullable
+    public ServerCursor getServerCursor() {
+        return null;
+    }
+
+    @Override
+    public ServerAddress getServerAddress() {
+        return address;
+    }
+}
@@ -0,0 +1,65 @@
+package dev.morphia.query.internal;
+
+import com.mongodb.client.MongoCursor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The batch and stream views shared by {@link MorphiaCursor} and {@link MorphiaKeyCursor}.
+ *
+ * @morphia.internal
+ * @since 2.2
+ */
+final class CursorViews {
+    private CursorViews() {
+    }
+
+    static <T> void forEachBatch(MongoCursor<T> cursor, int size, Consumer<List<T>> consumer) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The batch size must be greater than 0");
+        }
+        final List<T> batch = new ArrayList<>(size);
+        try {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == size) {
+                    consumer.accept(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+                batch.clear();
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    static <T> Stream<T> stream(MongoCursor<T> cursor) {
+        Iterator<T> iterator = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                boolean hasNext = cursor.hasNext();
+                if (!hasNext) {
+                    cursor.close();
+                }
+                return hasNext;
+            }
+
+            @Override
+            public T next() {
+                return cursor.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                            .onClose(cursor::close);
+    }
+}
@@ -8,6 +8,8 @@ import com.mongodb.lang.NonNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 /**
@@ -28,6 +30,31 @@ public class MorphiaCursor<T> implements MongoCursor<T> {
         }
     }
 
+    /**
+     * Consumes this cursor in batches of at most {@code size} elements.  A single buffer is reused for every batch so memory use is
+     * bounded by the batch size regardless of the number of results.  The list passed to the consumer is only valid for the duration
+     * of the call and must be copied if it needs to be retained.  The cursor is closed once all the results have been consumed or the
+     * consumer throws an exception.
+     *
+     * @param size     the maximum number of elements per batch
+     * @param consumer the batch consumer
+     * @since 2.2
+     */
+    public void forEachBatch(int size, Consumer<List<T>> consumer) {
+        CursorViews.forEachBatch(this, size, consumer);
+    }
+
+    /**
+     * Provides a {@link Stream} view of this cursor.  The cursor is closed when the stream is closed or once all the results have been
+     * consumed.
+     *
+     * @return the stream
+     * @since 2.2
+     */
+    public Stream<T> stream() {
+        return CursorViews.stream(this);
+    }
+
     /**
      * Converts this cursor to a List.  Care should be taken on large datasets as OutOfMemoryErrors are a risk.
      *
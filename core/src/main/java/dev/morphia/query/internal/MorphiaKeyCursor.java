@@ -11,6 +11,8 @@ import org.bson.Document;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Defines an Iterator across the Key values for a given type.
@@ -97,6 +99,31 @@ public class MorphiaKeyCursor<T> implements MongoCursor<Key<T>> {
         return new Key<>(clazz, collection, id);
     }
 
+    /**
+     * Consumes this cursor in batches of at most {@code size} keys.
+     *
+     * @param size     the maximum number of keys per batch
+     * @param consumer the batch consumer
+     * @see MorphiaCursor#forEachBatch(int, Consumer)
+     * @since 2.2
+     */
+    @SuppressWarnings("removal")
+    public void forEachBatch(int size, Consumer<List<Key<T>>> consumer) {
+        CursorViews.forEachBatch(this, size, consumer);
+    }
+
+    /**
+     * Provides a {@link Stream} view of this cursor.
+     *
+     * @return the stream
+     * @see MorphiaCursor#stream()
+     * @since 2.2
+     */
+    @SuppressWarnings("removal")
+    public Stream<Key<T>> stream() {
+        return CursorViews.stream(this);
+    }
+
     /**
      * Converts this cursor to a List.  Care should be taken on large datasets as OutOfMemoryErrors are a risk.
      *
@@ -0,0 +1,213 @@
+package dev.morphia.query.internal;
+
+import com.mongodb.MongoInterruptedException;
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.lang.NonNull;
+import com.mongodb.lang.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A cursor which drains the wrapped cursor on a background thread.  Results are read and decoded in chunks and handed off to the
+ * consuming thread through a bounded queue so that the next round trip to the server overlaps with the processing of the current chunk.
+ * At most {@code chunks} chunks of {@code chunkSize} entities are queued ahead of the consumer with one more being filled by the
+ * background thread.  Closing the cursor closes the wrapped cursor and a cursor that is dropped without being closed stops prefetching
+ * once it has been garbage collected.
+ *
+ * @param <T> the type of the results
+ * @morphia.internal
+ * @since 2.2
+ */
+public class PrefetchingCursor<T> implements MongoCursor<T> {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "morphia-prefetch-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Producer<T> producer;
+    private Iterator<T> current = List.<T>of().iterator();
+    private boolean exhausted;
+
+    /**
+     * Creates the cursor and starts prefetching immediately.
+     *
+     * @param cursor    the cursor to drain
+     * @param chunks    the maximum number of chunks to buffer ahead of the consumer
+     * @param chunkSize the number of entities in each chunk
+     */
+    public PrefetchingCursor(MongoCursor<T> cursor, int chunks, int chunkSize) {
+        if (cursor == null) {
+            throw new IllegalArgumentException("The wrapped cursor can not be null");
+        }
+        if (chunks < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk count and size must both be positive");
+        }
+        producer = new Producer<>(this, cursor, chunkSize, new ArrayBlockingQueue<>(chunks));
+        EXECUTOR.execute(producer);
+    }
+
+    @Override
+    public void close() {
+        producer.close();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!producer.closed) {
+            if (current.hasNext()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            try {
+                accept(producer.queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MongoInterruptedException("Interrupted while waiting for the next batch of results", e);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @NonNull
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    @Override
+    @Nullable
+    public T tryNext() {
+        if (producer.closed) {
+            return null;
+        }
+        if (!current.hasNext() && !exhausted) {
+            Chunk<T> chunk = producer.queue.poll();
+            if (chunk != null) {
+                accept(chunk);
+            }
+        }
+        return current.hasNext() ? current.next() : null;
+    }
+
+    @Override
+    @Nullable
+    public ServerCursor getServerCursor() {
+        return producer.wrapped.getServerCursor();
+    }
+
+    @Override
+    @NonNull
+    public ServerAddress getServerAddress() {
+        return producer.wrapped.getServerAddress();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    private void accept(Chunk<T> chunk) {
+        if (chunk.error != null) {
+            exhausted = true;
+            if (chunk.error instanceof Error) {
+                throw (Error) chunk.error;
+            }
+            throw (RuntimeException) chunk.error;
+        }
+        if (chunk.last) {
+            exhausted = true;
+        }
+        current = chunk.results.iterator();
+    }
+
+    /**
+     * Drains the wrapped cursor on the background thread.  It only holds a weak reference to the cursor so a cursor dropped without
+     * being closed can still be collected, at which point the producer stops and closes the wrapped cursor.
+     */
+    private static final class Producer<T> implements Runnable {
+        private final WeakReference<PrefetchingCursor<T>> owner;
+        private final MongoCursor<T> wrapped;
+        private final int chunkSize;
+        private final BlockingQueue<Chunk<T>> queue;
+        private volatile boolean closed;
+
+        private Producer(PrefetchingCursor<T> owner, MongoCursor<T> wrapped, int chunkSize, BlockingQueue<Chunk<T>> queue) {
+            this.owner = new WeakReference<>(owner);
+            this.wrapped = wrapped;
+            this.chunkSize = chunkSize;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            try {
+                boolean more = true;
+                while (more && !closed) {
+                    List<T> results = new ArrayList<>(chunkSize);
+                    while (results.size() < chunkSize && (more = wrapped.hasNext())) {
+                        results.add(wrapped.next());
+                    }
+                    publish(new Chunk<>(results, !more, null));
+                }
+            } catch (RuntimeException | Error e) {
+                if (!closed) {
+                    publish(new Chunk<>(List.of(), true, e));
+                }
+            } finally {
+                wrapped.close();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            queue.clear();
+            // wakes a consumer blocked in hasNext().  If the producer refilled the queue first the consumer is not blocked.
+            queue.offer(new Chunk<>(List.of(), true, null));
+            wrapped.close();
+        }
+
+        private void publish(Chunk<T> chunk) {
+            try {
+                while (!closed && !queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                    if (owner.get() == null) {
+                        closed = true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                closed = true;
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class Chunk<T> {
+        private final List<T> results;
+        private final boolean last;
+        private final Throwable error;
+
+        private Chunk(List<T> results, boolean last, @Nullable Throwable error) {
+            this.results = results;
+            this.last = last;
+            this.error = error;
+        }
+    }
+}
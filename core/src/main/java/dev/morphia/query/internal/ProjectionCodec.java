@@ -0,0 +1,237 @@
+package dev.morphia.query.internal;
+
+import com.mongodb.lang.Nullable;
+import dev.morphia.internal.PathTarget;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.MappingException;
+import dev.morphia.mapping.codec.pojo.EntityModel;
+import dev.morphia.mapping.codec.pojo.PropertyModel;
+import dev.morphia.sofia.Sofia;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decodes the projected fields of an entity directly in to a DTO.  The components of a record, or the fields of any other class, name
+ * the entity properties to load.  Each value is decoded with the codec of the property it names so no entity instance is ever created.
+ * Records are created with their canonical constructor while other classes need a no argument constructor and have their fields set.
+ *
+ * @param <R> the DTO type
+ * @morphia.internal
+ * @since 2.2
+ */
+public class ProjectionCodec<R> implements Codec<R> {
+    private static final MethodType SPREAD = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<R> type;
+    private final EntityModel model;
+    private final Map<PropertyModel, Component> components = new IdentityHashMap<>();
+    private final Object[] defaults;
+    private final Document projection = new Document();
+    private final MethodHandle constructor;
+    private final boolean record;
+
+    /**
+     * Creates the codec
+     *
+     * @param mapper the mapper to use
+     * @param entity the entity type being queried
+     * @param type   the DTO type
+     */
+    public ProjectionCodec(Mapper mapper, Class<?> entity, Class<R> type) {
+        this.type = type;
+        model = mapper.getEntityModel(entity);
+        record = isRecord(type);
+
+        List<Slot> slots = record ? recordComponents(type) : fields(type);
+        defaults = new Object[slots.size()];
+        boolean includesId = false;
+        for (int i = 0; i < slots.size(); i++) {
+            Slot slot = slots.get(i);
+            PathTarget target = new PathTarget(mapper, model, slot.name);
+            PropertyModel property = target.getTarget();
+            projection.put(target.translatedPath(), 1);
+            includesId |= property.equals(model.getIdProperty());
+            if (components.containsKey(property)) {
+                throw new MappingException(Sofia.duplicateProjectionProperty(type.getName(), slot.name, property.getName()));
+            }
+            components.put(property, new Component(i, slot.setter, codec(mapper, property, slot.type)));
+            defaults[i] = record && slot.type.isPrimitive() ? Array.get(Array.newInstance(slot.type, 1), 0) : null;
+        }
+        if (!includesId) {
+            projection.put("_id", 0);
+        }
+        constructor = constructor(type, record ? slots : List.of());
+    }
+
+    /**
+     * @return the projection document selecting the fields of the DTO
+     */
+    public Document getProjection() {
+        return new Document(projection);
+    }
+
+    @Override
+    public R decode(BsonReader reader, DecoderContext decoderContext) {
+        Object[] values = defaults.clone();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            PropertyModel property = model.getProperty(reader.readName());
+            Component component = property != null ? components.get(property) : null;
+            if (component == null) {
+                reader.skipValue();
+            } else if (reader.getCurrentBsonType() == BsonType.NULL) {
+                reader.readNull();
+            } else {
+                values[component.index] = decoderContext.decodeWithChildContext(component.codec, reader);
+            }
+        }
+        reader.readEndDocument();
+        return create(values);
+    }
+
+    @Override
+    public void encode(BsonWriter writer, R value, EncoderContext encoderContext) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Class<R> getEncoderClass() {
+        return type;
+    }
+
+    private R create(Object[] values) {
+        try {
+            Object instance = (Object) constructor.invokeExact(values);
+            if (!record) {
+                for (Component component : components.values()) {
+                    if (values[component.index] != null) {
+                        component.setter.invokeExact(instance, values[component.index]);
+                    }
+                }
+            }
+            return type.cast(instance);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new MappingException(Sofia.cannotInstantiate(type.getName(), e.getMessage()), e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Codec codec(Mapper mapper, PropertyModel property, Class<?> type) {
+        Codec<? super Object> cached = mapper.getPropertyCodec(property);
+        if (cached != null && wrap(type).isAssignableFrom(wrap(property.getType()))) {
+            return cached;
+        }
+        return mapper.getCodecRegistry().get(type);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    private static boolean isRecord(Class<?> type) {
+        try {
+            return (Boolean) Class.class.getMethod("isRecord").invoke(type);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    private static List<Slot> recordComponents(Class<?> type) {
+        List<Slot> slots = new ArrayList<>();
+        try {
+            for (Object component : (Object[]) Class.class.getMethod("getRecordComponents").invoke(type)) {
+                Method name = component.getClass().getMethod("getName");
+                Method componentType = component.getClass().getMethod("getType");
+                slots.add(new Slot((String) name.invoke(component), (Class<?>) componentType.invoke(component), null));
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new MappingException(Sofia.cannotInstantiate(type.getName(), e.getMessage()), e);
+        }
+        return slots;
+    }
+
+    private static List<Slot> fields(Class<?> type) {
+        List<Slot> slots = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    try {
+                        field.setAccessible(true);
+                        MethodHandle setter = MethodHandles.lookup().unreflectSetter(field).asType(SETTER);
+                        slots.add(new Slot(field.getName(), field.getType(), setter));
+                    } catch (ReflectiveOperationException | RuntimeException e) {
+                        throw new MappingException(Sofia.cannotInstantiate(type.getName(), e.getMessage()), e);
+                    }
+                }
+            }
+        }
+        return slots;
+    }
+
+    private static MethodHandle constructor(Class<?> type, List<Slot> parameterSlots) {
+        Class<?>[] parameters = parameterSlots.stream().map(slot -> slot.type).toArray(Class<?>[]::new);
+        Constructor<?> constructor;
+        try {
+            constructor = type.getDeclaredConstructor(parameters);
+        } catch (NoSuchMethodException e) {
+            throw new MappingException(Sofia.noargConstructorNotFound(type.getName()));
+        }
+        try {
+            constructor.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor);
+            return parameters.length != 0
+                   ? handle.asSpreader(Object[].class, parameters.length).asType(SPREAD)
+                   : MethodHandles.dropArguments(handle, 0, Object[].class).asType(SPREAD);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new MappingException(Sofia.cannotInstantiate(type.getName(), e.getMessage()), e);
+        }
+    }
+
+    private static class Slot {
+        private final String name;
+        private final Class<?> type;
+        @Nullable
+        private final MethodHandle setter;
+
+        Slot(String name, Class<?> type, @Nullable MethodHandle setter) {
+            this.name = name;
+            this.type = type;
+            this.setter = setter;
+        }
+    }
+
+    private static class Component {
+        private final int index;
+        @Nullable
+        private final MethodHandle setter;
+        private final Codec<?> codec;
+
+        Component(int index, @Nullable MethodHandle setter, Codec<?> codec) {
+            this.index = index;
+            this.setter = setter;
+            this.codec = codec;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package dev.morphia.query.internal;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.lang.Nullable;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the encoded results of queries for a limited time.  Entries are keyed by a document describing the query and are evicted in
+ * least recently used order once the total number of cached documents exceeds the limit.  Each collection carries a generation which is
+ * advanced by every write to it so that results read concurrently with a write are never cached.
+ *
+ * @morphia.internal
+ * @since 2.2
+ */
+public class QueryCache {
+    private final int maxResults;
+    private final Map<String, Long> generations = new HashMap<>();
+    private final LinkedHashMap<Document, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long epoch;
+    private int size;
+
+    /**
+     * Creates a cache
+     *
+     * @param maxResults the maximum number of result documents to hold across all queries.  0 disables the cache.
+     */
+    public QueryCache(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * @return true if results can be cached
+     */
+    public boolean isEnabled() {
+        return maxResults > 0;
+    }
+
+    /**
+     * Gets the current generation of a collection.  It must be read before running the query whose results are to be cached.
+     *
+     * @param collection the collection name
+     * @return the generation
+     */
+    public synchronized long generation(String collection) {
+        return epoch + generations.getOrDefault(collection, 0L);
+    }
+
+    /**
+     * Gets the cached results for a query
+     *
+     * @param key the query key
+     * @return the results or null if there are none or they have expired
+     */
+    @Nullable
+    public synchronized Entry get(Document key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+            remove(key);
+            entry = null;
+        }
+        return entry;
+    }
+
+    /**
+     * Caches the results of a query unless the collection has been written to since the given generation or the results alone exceed
+     * the size of the cache
+     *
+     * @param key        the query key
+     * @param collection the collection name
+     * @param generation the generation of the collection when the query was started
+     * @param results    the encoded results
+     * @param address    the address of the server which returned the results
+     * @param ttlNanos   the time to hold the results for
+     */
+    public synchronized void put(Document key, String collection, long generation, List<RawBsonDocument> results,
+                                 ServerAddress address, long ttlNanos) {
+        if (isEnabled() && generation(collection) == generation && results.size() <= maxResults) {
+            remove(key);
+            entries.put(key, new Entry(collection, List.copyOf(results), address, System.nanoTime() + ttlNanos));
+            size += results.size();
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (size > maxResults) {
+                size -= eldest.next().results.size();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Discards the cached results of a collection
+     *
+     * @param collection the collection name
+     */
+    public synchronized void invalidate(String collection) {
+        generations.merge(collection, 1L, Long::sum);
+        entries.values().removeIf(entry -> {
+            boolean matches = entry.collection.equals(collection);
+            if (matches) {
+                size -= entry.results.size();
+            }
+            return matches;
+        });
+    }
+
+    /**
+     * Discards all cached results.  Writes made in a transaction only become visible to other readers once it commits so results read
+     * while it was open may be stale.
+     */
+    public synchronized void invalidateAll() {
+        epoch++;
+        entries.clear();
+        size = 0;
+    }
+
+    private void remove(Document key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            size -= removed.results.size();
+        }
+    }
+
+    /**
+     * The cached results of a query
+     */
+    public static final class Entry {
+        private final String collection;
+        private final List<RawBsonDocument> results;
+        private final ServerAddress address;
+        private final long expiresAt;
+
+        private Entry(String collection, List<RawBsonDocument> results, ServerAddress address, long expiresAt) {
+            this.collection = collection;
+            this.results = results;
+            this.address = address;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * @return the address of the server which returned the results
+         */
+        public ServerAddress getAddress() {
+            return address;
+        }
+
+        /**
+         * @return the encoded results
+         */
+        public List<RawBsonDocument> getResults() {
+            return results;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package dev.morphia.query.internal;
+
+import com.mongodb.lang.Nullable;
+import dev.morphia.aggregation.experimental.expressions.impls.Expression;
+import dev.morphia.aggregation.experimental.stages.AddFields;
+import dev.morphia.aggregation.experimental.stages.Lookup;
+import dev.morphia.aggregation.experimental.stages.Stage;
+import dev.morphia.aggregation.experimental.stages.Unset;
+import dev.morphia.annotations.Reference;
+import dev.morphia.internal.PathTarget;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.codec.pojo.EntityModel;
+import dev.morphia.mapping.codec.pojo.PropertyModel;
+import dev.morphia.mapping.codec.writer.DocumentWriter;
+import dev.morphia.mapping.experimental.MorphiaReference;
+import dev.morphia.query.FindOptions;
+import dev.morphia.query.ValidationException;
+import dev.morphia.sofia.Sofia;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static dev.morphia.aggregation.experimental.expressions.ArrayExpressions.elementAt;
+import static dev.morphia.aggregation.experimental.expressions.ArrayExpressions.filter;
+import static dev.morphia.aggregation.experimental.expressions.ArrayExpressions.in;
+import static dev.morphia.aggregation.experimental.expressions.ArrayExpressions.isArray;
+import static dev.morphia.aggregation.experimental.expressions.ArrayExpressions.map;
+import static dev.morphia.aggregation.experimental.expressions.ArrayExpressions.objectToArray;
+import static dev.morphia.aggregation.experimental.expressions.ArrayExpressions.size;
+import static dev.morphia.aggregation.experimental.expressions.BooleanExpressions.and;
+import static dev.morphia.aggregation.experimental.expressions.ComparisonExpressions.eq;
+import static dev.morphia.aggregation.experimental.expressions.ComparisonExpressions.gt;
+import static dev.morphia.aggregation.experimental.expressions.ConditionalExpressions.condition;
+import static dev.morphia.aggregation.experimental.expressions.ConditionalExpressions.ifNull;
+import static dev.morphia.aggregation.experimental.expressions.Expressions.field;
+import static dev.morphia.aggregation.experimental.expressions.Expressions.literal;
+import static dev.morphia.aggregation.experimental.expressions.Expressions.value;
+import static dev.morphia.aggregation.experimental.expressions.TypeExpressions.type;
+import static dev.morphia.aggregation.experimental.expressions.VariableExpressions.let;
+
+/**
+ * Rewrites a find in to an aggregation pipeline which joins in the documents of the requested references with a {@code $lookup}.  Each
+ * reference is replaced in place by the document(s) it points to so that the reference codecs can decode them directly rather than
+ * fetching them with another query.  If any of the ids of a reference can not be joined, e.g. because the referenced document lives in
+ * another collection, the stored ids are left untouched and the reference is fetched as usual.
+ *
+ * @morphia.internal
+ * @since 2.2
+ */
+public class ReferenceLookup {
+    private static final String PREFIX = "_morphia_lookup_";
+
+    private final Mapper mapper;
+    private final Class<?> type;
+    private final List<Stage> stages = new ArrayList<>();
+
+    /**
+     * Creates the lookup stages for the given paths
+     *
+     * @param mapper the mapper to use
+     * @param type   the type being queried
+     * @param paths  the reference property paths to fetch
+     */
+    public ReferenceLookup(Mapper mapper, Class<?> type, List<String> paths) {
+        this.mapper = mapper;
+        this.type = type;
+        EntityModel model = mapper.getEntityModel(type);
+        for (int i = 0; i < paths.size(); i++) {
+            PathTarget target = new PathTarget(mapper, model, paths.get(i));
+            PropertyModel property = target.getTarget();
+            join(target.translatedPath(), property, isMultiple(paths.get(i), property), PREFIX + i);
+        }
+    }
+
+    /**
+     * Creates the full pipeline for a find
+     *
+     * @param query   the query document
+     * @param options the find options
+     * @return the pipeline
+     */
+    public List<Document> pipeline(Document query, FindOptions options) {
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", query));
+        Document sort = options.getSort(mapper, type);
+        if (sort != null) {
+            pipeline.add(new Document("$sort", sort));
+        }
+        if (options.getSkip() > 0) {
+            pipeline.add(new Document("$skip", options.getSkip()));
+        }
+        if (options.getLimit() != 0) {
+            pipeline.add(new Document("$limit", Math.abs(options.getLimit())));
+        }
+        if (options.getProjection() != null) {
+            Document projection = options.getProjection().map(mapper, type);
+            if (projection != null && !projection.isEmpty()) {
+                pipeline.add(new Document("$project", projection));
+            }
+        }
+        pipeline.addAll(stages());
+        return pipeline;
+    }
+
+    /**
+     * @return the stages joining in the referenced documents
+     */
+    public List<Document> stages() {
+        List<Document> encoded = new ArrayList<>();
+        for (Stage stage : stages) {
+            encoded.add(encode(stage));
+        }
+        return encoded;
+    }
+
+    private boolean isMultiple(String path, @Nullable PropertyModel property) {
+        if (property != null) {
+            Class<?> container = property.getType();
+            if (MorphiaReference.class.isAssignableFrom(container) && !property.getTypeData().getTypeParameters().isEmpty()) {
+                container = property.getTypeData().getTypeParameters().get(0).getType();
+            } else if (!property.hasAnnotation(Reference.class)) {
+                container = null;
+            }
+            if (container != null && !Map.class.isAssignableFrom(container)) {
+                return Collection.class.isAssignableFrom(container) || container.isArray();
+            }
+        }
+        throw new ValidationException(Sofia.fetchReferencesUnsupported(path, type.getName()));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Document encode(Stage stage) {
+        Codec codec = mapper.getCodecRegistry().get(stage.getClass());
+        DocumentWriter writer = new DocumentWriter();
+        codec.encode(writer, stage, EncoderContext.builder().build());
+        return writer.getDocument();
+    }
+
+    private Expression idOf(Expression reference) {
+        Expression entries = condition(eq(type(reference), value("object")), objectToArray(reference), value(List.of()));
+        return let(condition(eq(elementAt(field("$$entries.k"), value(0)), literal("$ref")),
+            elementAt(field("$$entries.v"), value(1)),
+            reference))
+                   .variable("entries", entries);
+    }
+
+    private void join(String path, PropertyModel property, boolean multiple, String prefix) {
+        String ids = prefix + "ids";
+        String joined = prefix + "joined";
+        Class<?> referenced = mapper.getEntityModel(property.getNormalizedType()).getType();
+
+        Expression replacement;
+        if (multiple) {
+            stages.add(AddFields.of().field(ids, map(field(path), idOf(field("$$ref"))).as("ref")));
+            Expression found = map(field(ids), elementAt(filter(field(joined), eq(field("$$doc._id"), field("$$id"))).as("doc"), value(0)))
+                                   .as("id");
+            Expression idList = ifNull().target(field(ids)).replacement(value(List.of()));
+            Expression allFound = eq(size(filter(idList, in(field("$$id"), field(joined + "._id"))).as("id")), size(idList));
+            replacement = condition(and(isArray(field(path)), allFound), found, field(path));
+        } else {
+            stages.add(AddFields.of().field(ids, let(idOf(field("$$ref"))).variable("ref", field(path))));
+            replacement = condition(gt(size(field(joined)), value(0)), elementAt(field(joined), value(0)), field(path));
+        }
+        stages.add(Lookup.from(referenced)
+                         .localField(ids)
+                         .foreignField("_id")
+                         .as(joined));
+        stages.add(AddFields.of().field(path, replacement));
+        stages.add(Unset.fields(ids, joined));
+    }
+}
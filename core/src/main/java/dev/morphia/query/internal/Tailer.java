@@ -0,0 +1,309 @@
+package dev.morphia.query.internal;
+
+import com.mongodb.MongoCursorNotFoundException;
+import com.mongodb.MongoException;
+import com.mongodb.MongoNodeIsRecoveringException;
+import com.mongodb.MongoNotPrimaryException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.lang.Nullable;
+import dev.morphia.metrics.MorphiaMetrics;
+import dev.morphia.query.Tail;
+import dev.morphia.query.TailOptions;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Decoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Tails a capped collection.  One background thread reads and decodes the documents as they arrive and queues them in a bounded buffer
+ * which stops further reads while it is full.  A second thread hands the entities to the subscriber as it requests them.  When the
+ * server closes the cursor, or it fails with a network error or because its position was overwritten, a new cursor is opened which
+ * resumes after the last {@code _id} read.
+ *
+ * @param <T> the type of the entities
+ * @morphia.internal
+ * @since 2.2
+ */
+public class Tailer<T> implements Tail, Flow.Subscription {
+    private static final Logger LOG = LoggerFactory.getLogger(Tailer.class);
+    private static final int CAPPED_POSITION_LOST = 136;
+    private static final long POLL_MS = 100;
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "morphia-tail-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Class<T> type;
+    private final Decoder<T> decoder;
+    private final Function<BsonValue, MongoCursor<RawBsonDocument>> opener;
+    private final TailOptions options;
+    private final MorphiaMetrics metrics;
+    private final Flow.Subscriber<? super T> subscriber;
+    private final BlockingQueue<Item<T>> queue;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final Object signal = new Object();
+    private volatile boolean closed;
+    private volatile Throwable failure;
+    private volatile BsonValue lastId;
+    private volatile long resumes;
+    private volatile long lagNanos;
+
+    /**
+     * Creates a tail.  Nothing is read until it is started.
+     *
+     * @param type       the entity type
+     * @param decoder    the decoder for the entities
+     * @param opener     opens a tailable cursor over the documents after the given id, or over all the documents if it is null
+     * @param options    the options to apply
+     * @param metrics    the metrics to report the lag to
+     * @param subscriber the subscriber to deliver the entities to
+     */
+    public Tailer(Class<T> type, Decoder<T> decoder, Function<BsonValue, MongoCursor<RawBsonDocument>> opener, TailOptions options,
+                  MorphiaMetrics metrics, Flow.Subscriber<? super T> subscriber) {
+        this.type = type;
+        this.decoder = decoder;
+        this.opener = opener;
+        this.options = options;
+        this.metrics = metrics;
+        this.subscriber = subscriber;
+        queue = new ArrayBlockingQueue<>(options.getBufferSize());
+    }
+
+    /**
+     * Creates a subscriber which requests every entity and passes it to a consumer
+     *
+     * @param consumer the consumer
+     * @param <T>      the type of the entities
+     * @return the subscriber
+     */
+    public static <T> Flow.Subscriber<T> subscriber(Consumer<? super T> consumer) {
+        return new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(T item) {
+                consumer.accept(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                LOG.error("Tailing stopped after an error", throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        };
+    }
+
+    /**
+     * Subscribes the subscriber and starts reading
+     *
+     * @return this
+     */
+    public Tailer<T> start() {
+        subscriber.onSubscribe(this);
+        if (!closed) {
+            EXECUTOR.execute(this::read);
+            EXECUTOR.execute(this::deliver);
+        }
+        return this;
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            fail(new IllegalArgumentException("The number of entities requested must be positive but was " + n));
+            return;
+        }
+        demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        close();
+    }
+
+    @Override
+    public void close() {
+        synchronized (signal) {
+            closed = true;
+            queue.clear();
+            signal.notifyAll();
+        }
+    }
+
+    @Override
+    public int getBuffered() {
+        return queue.size();
+    }
+
+    @Override
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    @Override
+    @Nullable
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    @Override
+    public long getLag(TimeUnit timeUnit) {
+        return timeUnit.convert(lagNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    @Nullable
+    public BsonValue getLastId() {
+        return lastId;
+    }
+
+    @Override
+    public long getResumes() {
+        return resumes;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return !closed;
+    }
+
+    private void fail(Throwable error) {
+        synchronized (signal) {
+            if (!closed) {
+                failure = error;
+                close();
+            }
+        }
+    }
+
+    private void read() {
+        try {
+            while (!closed) {
+                try (MongoCursor<RawBsonDocument> cursor = opener.apply(lastId)) {
+                    while (!closed) {
+                        RawBsonDocument document = cursor.tryNext();
+                        if (document == null) {
+                            if (cursor.getServerCursor() == null) {
+                                break;
+                            }
+                            continue;
+                        }
+                        Item<T> item = new Item<>(document.decode(decoder), System.nanoTime());
+                        // set before the entity can be delivered so the subscriber never sees an older id
+                        BsonValue id = document.get("_id");
+                        if (id != null) {
+                            lastId = id;
+                        }
+                        while (!closed && !queue.offer(item, POLL_MS, TimeUnit.MILLISECONDS)) {
+                            // the buffer is full so wait for the subscriber to catch up
+                        }
+                    }
+                } catch (MongoException e) {
+                    if (closed) {
+                        return;
+                    }
+                    if (!isResumable(e)) {
+                        throw e;
+                    }
+                    LOG.warn("Resuming the tail of {} after an error", type.getName(), e);
+                }
+                if (!closed) {
+                    resumes++;
+                    Thread.sleep(options.getResumeDelay(TimeUnit.MILLISECONDS));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+        } catch (RuntimeException | Error e) {
+            fail(e);
+        }
+    }
+
+    private void deliver() {
+        try {
+            while (!closed) {
+                if (demand.get() == 0) {
+                    synchronized (signal) {
+                        if (demand.get() == 0 && !closed) {
+                            signal.wait(POLL_MS);
+                        }
+                    }
+                    continue;
+                }
+                Item<T> item = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (item == null || closed) {
+                    continue;
+                }
+                long lag = System.nanoTime() - item.readAt;
+                lagNanos = lag;
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+                try {
+                    subscriber.onNext(item.entity);
+                } catch (RuntimeException | Error e) {
+                    LOG.error("Tailing stopped after the subscriber failed", e);
+                    fail(e);
+                    return;
+                }
+                delivered.incrementAndGet();
+                if (metrics.isEnabled()) {
+                    metrics.tailDelivered(type, queue.size(), lag);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+        }
+        Throwable error = failure;
+        if (error != null) {
+            subscriber.onError(error);
+        }
+    }
+
+    private static boolean isResumable(MongoException e) {
+        return e instanceof MongoSocketException
+               || e instanceof MongoTimeoutException
+               || e instanceof MongoCursorNotFoundException
+               || e instanceof MongoNotPrimaryException
+               || e instanceof MongoNodeIsRecoveringException
+               || e.getCode() == CAPPED_POSITION_LOST;
+    }
+
+    private static final class Item<T> {
+        private final T entity;
+        private final long readAt;
+
+        private Item(T entity, long readAt) {
+            this.entity = entity;
+            this.readAt = readAt;
+        }
+    }
+}
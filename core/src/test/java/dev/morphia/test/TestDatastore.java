@@ -5,8 +5,11 @@ import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import dev.morphia.Datastore;
 import dev.morphia.DeleteOptions;
+import dev.morphia.LoadOptions;
 import dev.morphia.ModifyOptions;
 import dev.morphia.UpdateOptions;
+import dev.morphia.UpsertOptions;
+import dev.morphia.UpsertResult;
 import dev.morphia.annotations.Entity;
 import dev.morphia.annotations.EntityListeners;
 import dev.morphia.annotations.Id;
@@ -15,12 +18,14 @@ import dev.morphia.annotations.PostPersist;
 import dev.morphia.annotations.PreLoad;
 import dev.morphia.annotations.PrePersist;
 import dev.morphia.annotations.Transient;
+import dev.morphia.mapping.HiLoIdGenerator;
 import dev.morphia.mapping.MappingException;
 import dev.morphia.query.FindAndDeleteOptions;
 import dev.morphia.query.FindOptions;
 import dev.morphia.query.Modify;
 import dev.morphia.query.Query;
 import dev.morphia.query.Update;
+import dev.morphia.query.ValidationException;
 import dev.morphia.test.models.City;
 import dev.morphia.test.models.CurrentStatus;
 import dev.morphia.test.models.FacebookUser;
@@ -29,12 +34,20 @@ import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static com.mongodb.client.model.CollationStrength.SECONDARY;
 import static com.mongodb.client.model.ReturnDocument.AFTER;
 import static com.mongodb.client.model.ReturnDocument.BEFORE;
 import static dev.morphia.query.experimental.filters.Filters.eq;
+import static dev.morphia.query.experimental.filters.Filters.gte;
+import static dev.morphia.query.experimental.filters.Filters.lt;
 import static dev.morphia.query.experimental.updates.UpdateOperators.inc;
 import static dev.morphia.query.experimental.updates.UpdateOperators.set;
 import static java.util.Arrays.asList;
@@ -113,6 +126,35 @@ public class TestDatastore extends TestBase {
         assertTrue(delete.getDeletedCount() > 1, "Should the rest");
     }
 
+    @Test
+    public void testExportAndLoad() throws IOException {
+        List<FacebookUser> users = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            users.add(new FacebookUser(i, "user" + i));
+        }
+        getDs().insert(users);
+
+        Path path = Files.createTempFile("users", ".bson");
+        try {
+            assertEquals(getDs().export(getDs().find(FacebookUser.class).filter(gte("_id", 500)), path), 500);
+            getDs().find(FacebookUser.class).delete(new DeleteOptions().multi(true));
+
+            assertEquals(getDs().load(FacebookUser.class, path, new LoadOptions().batchSize(1024).parallelism(4)), 500);
+            assertEquals(getDs().find(FacebookUser.class).count(), 500);
+            assertEquals(getDs().find(FacebookUser.class).filter(eq("_id", 750L)).first().username, "user750");
+
+            getDs().find(FacebookUser.class).delete(new DeleteOptions().multi(true));
+            assertEquals(getDs().load(FacebookUser.class, path, new LoadOptions().memoryMapped(true)), 500);
+            assertEquals(getDs().find(FacebookUser.class).filter(lt("_id", 500)).count(), 0);
+
+            byte[] contents = Files.readAllBytes(path);
+            Files.write(path, Arrays.copyOf(contents, contents.length - 1));
+            assertThrows(IOException.class, () -> getDs().load(FacebookUser.class, path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
     @Test
     public void testFindAndDeleteWithCollation() {
         getDs().save(asList(new FacebookUser(1, "John Doe"),
@@ -351,6 +393,95 @@ public class TestDatastore extends TestBase {
                          .loginCount, 2);
     }
 
+    @Test
+    public void testUpsert() {
+        Product existing = new Product("A-1", "anvil", 3);
+        getDs().save(existing);
+
+        List<Product> products = List.of(new Product("A-1", "heavy anvil", 5), new Product("B-2", "bucket", 7));
+        UpsertResult result = getDs().upsert(products, "sku");
+        assertEquals(result.getInsertedCount(), 1);
+        assertEquals(result.getMatchedCount(), 1);
+        assertEquals(result.getModifiedCount(), 1);
+        assertNull(products.get(0).id);
+        assertNotNull(products.get(1).id);
+        assertEquals(result.getInsertedIds(), Map.of(1, products.get(1).id));
+
+        Product updated = getDs().find(Product.class).filter(eq("sku", "A-1")).first();
+        assertEquals(updated.id, existing.id);
+        assertEquals(updated.name, "heavy anvil");
+        assertEquals(updated.stock, 5);
+        assertEquals(getDs().find(Product.class).count(), 2);
+
+        products = List.of(new Product("A-1", "anvil", 1), new Product("C-3", "crate", 2));
+        products.get(1).id = new ObjectId();
+        result = getDs().upsert(products, new UpsertOptions().returnIds(true), "sku");
+        assertEquals(result.getInsertedCount(), 1);
+        assertEquals(products.get(0).id, existing.id);
+        assertEquals(getDs().find(Product.class).filter(eq("sku", "C-3")).first().id, products.get(1).id);
+
+        assertThrows(IllegalArgumentException.class, () -> getDs().upsert(List.of(new Product("D-4", "drum", 1))));
+        assertThrows(ValidationException.class, () -> getDs().upsert(List.of(new Product(null, "drum", 1)), "sku"));
+        assertThrows(ValidationException.class, () -> getDs().upsert(List.of(new Product("D-4", "drum", 1)), "code"));
+    }
+
+    @Test
+    public void testUpsertGeneratedIds() {
+        getMapper().setIdGenerator(Part.class, new HiLoIdGenerator(getDatabase().getCollection(HiLoIdGenerator.COLLECTION), "parts", 10));
+
+        List<Part> parts = List.of(new Part("P-1"), new Part("P-2"));
+        UpsertResult result = getDs().upsert(parts, "sku");
+        assertEquals(result.getInsertedCount(), 2);
+        assertEquals(result.getInsertedIds(), Map.of(0, 1L, 1, 2L));
+        assertEquals(getDs().find(Part.class).filter(eq("sku", "P-2")).first().id, Long.valueOf(2));
+
+        parts = List.of(new Part("P-1"), new Part("P-3"));
+        result = getDs().upsert(parts, "sku");
+        assertEquals(result.getInsertedCount(), 1);
+        assertEquals(result.getMatchedCount(), 1);
+        assertNull(parts.get(0).id);
+        assertEquals(getDs().find(Part.class).filter(eq("sku", "P-1")).first().id, Long.valueOf(1));
+        assertEquals(getDs().find(Part.class).filter(eq("sku", "P-3")).first().id, parts.get(1).id);
+        assertEquals(getDs().find(Part.class).count(), 3);
+
+        List<Part> duplicates = List.of(new Part("P-4"), new Part("P-4"));
+        assertThrows(ValidationException.class, () -> getDs().upsert(duplicates, "sku"));
+        assertNull(duplicates.get(0).id);
+        assertEquals(getDs().find(Part.class).count(), 3);
+    }
+
+    @Entity("parts")
+    private static class Part {
+        @Id
+        private Long id;
+        private String sku;
+
+        Part() {
+        }
+
+        Part(String sku) {
+            this.sku = sku;
+        }
+    }
+
+    @Entity("products")
+    private static class Product {
+        @Id
+        private ObjectId id;
+        private String sku;
+        private String name;
+        private int stock;
+
+        Product() {
+        }
+
+        Product(String sku, String name, int stock) {
+            this.sku = sku;
+            this.name = name;
+            this.stock = stock;
+        }
+    }
+
     private static class LifecycleListener {
         private static boolean prePersist;
         private static boolean prePersistWithEntity;
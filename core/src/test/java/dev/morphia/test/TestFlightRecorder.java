@@ -0,0 +1,102 @@
+package dev.morphia.test;
+
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.PrePersist;
+import dev.morphia.test.models.Rectangle;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.bson.types.ObjectId;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static dev.morphia.query.experimental.filters.Filters.gte;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestFlightRecorder extends TestBase {
+    @Test
+    public void testDisabledByDefault() throws IOException {
+        getMapper().map(Audited.class);
+        List<RecordedEvent> events = record(List.of(), () -> getMapper().toDocument(new Audited()));
+
+        assertTrue(events.stream().noneMatch(e -> e.getEventType().getName().startsWith("dev.morphia.")));
+    }
+
+    @Test
+    public void testEncodingAndLifecycleEvents() throws IOException {
+        getMapper().map(Audited.class);
+        List<RecordedEvent> events = record(List.of("dev.morphia.EntityEncode", "dev.morphia.Lifecycle"),
+            () -> getMapper().toDocument(new Audited()));
+
+        List<RecordedEvent> encodes = named(events, "dev.morphia.EntityEncode");
+        assertEquals(encodes.size(), 1);
+        assertEquals(encodes.get(0).getClass("entityType").getName(), Audited.class.getName());
+        assertEquals(encodes.get(0).getInt("fields"), 3);
+
+        List<String> callbacks = named(events, "dev.morphia.Lifecycle").stream()
+                                                                       .map(e -> e.getString("callback"))
+                                                                       .collect(Collectors.toList());
+        assertTrue(callbacks.contains(PrePersist.class.getSimpleName()), callbacks.toString());
+    }
+
+    @Test
+    public void testQueryEvents() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            getDs().save(new Rectangle(i, i));
+        }
+        List<RecordedEvent> events = record(List.of("dev.morphia.Query"), () -> {
+            getDs().find(Rectangle.class).filter(gte("height", 2)).iterator().toList();
+            getDs().find(Rectangle.class).filter(gte("height", 3)).count();
+        });
+
+        List<RecordedEvent> queries = named(events, "dev.morphia.Query");
+        assertEquals(queries.size(), 2);
+        RecordedEvent find = queries.stream().filter(e -> e.getString("operation").equals("find")).findFirst().orElseThrow();
+        RecordedEvent count = queries.stream().filter(e -> e.getString("operation").equals("count")).findFirst().orElseThrow();
+        assertEquals(find.getLong("documents"), 3);
+        assertEquals(count.getLong("documents"), 2);
+        assertEquals(find.getInt("shapeHash"), count.getInt("shapeHash"));
+        assertEquals(find.getString("collection"), getMapper().getEntityModel(Rectangle.class).getCollectionName());
+    }
+
+    private List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        Predicate<RecordedEvent> filter = e -> e.getEventType().getName().equals(name);
+        return events.stream().filter(filter).collect(Collectors.toList());
+    }
+
+    private List<RecordedEvent> record(List<String> enabled, Runnable body) throws IOException {
+        Path file = Files.createTempFile("morphia", ".jfr");
+        try (Recording recording = new Recording()) {
+            enabled.forEach(recording::enable);
+            recording.start();
+            body.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        try {
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Entity
+    private static class Audited {
+        @Id
+        private ObjectId id = new ObjectId();
+        private long audited;
+
+        @PrePersist
+        void audit() {
+            audited = System.currentTimeMillis();
+        }
+    }
+}
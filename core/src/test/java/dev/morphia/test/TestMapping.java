@@ -35,12 +35,20 @@ import dev.morphia.test.models.errors.OuterClass.NonStaticInnerClass;
 import dev.morphia.test.models.external.HoldsUnannotated;
 import dev.morphia.test.models.external.UnannotatedEmbedded;
 import dev.morphia.test.models.methods.MethodMappedUser;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.modifier.Visibility;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.testng.annotations.Ignore;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -311,6 +319,32 @@ public class TestMapping extends TestBase {
         assertEquals(first, holdsUnannotated);
     }
 
+    @Test
+    public void testEntityIndex() throws IOException, ReflectiveOperationException {
+        String packageName = "dev.morphia.test.indexed";
+        Path indexed = Files.createTempDirectory("morphia-index");
+        Path scanned = Files.createTempDirectory("morphia-scan");
+        generateEntity(packageName + ".Listed", indexed);
+        generateEntity(packageName + ".Unlisted", indexed);
+        generateEntity(packageName + ".sub.Nested", indexed);
+        generateEntity(packageName + ".Scanned", scanned);
+        Path index = indexed.resolve("META-INF/morphia/entities.idx");
+        Files.createDirectories(index.getParent());
+        Files.write(index, List.of(packageName + ".Listed", packageName + ".sub.Nested"));
+
+        ClassLoader loader = new URLClassLoader(new URL[]{indexed.toUri().toURL()}, getClass().getClassLoader());
+        Mapper mapper = mapPackage(loader, packageName);
+        assertTrue(mapper.isMapped(loader.loadClass(packageName + ".Listed")));
+        assertFalse(mapper.isMapped(loader.loadClass(packageName + ".Unlisted")), "Only the indexed types should be mapped");
+        assertFalse(mapper.isMapped(loader.loadClass(packageName + ".sub.Nested")), "Subpackages should not be mapped");
+
+        loader = new URLClassLoader(new URL[]{indexed.toUri().toURL(), scanned.toUri().toURL()}, getClass().getClassLoader());
+        mapper = mapPackage(loader, packageName);
+        assertTrue(mapper.isMapped(loader.loadClass(packageName + ".Listed")));
+        assertTrue(mapper.isMapped(loader.loadClass(packageName + ".Scanned")), "Elements without an index should be scanned");
+        assertFalse(mapper.isMapped(loader.loadClass(packageName + ".Unlisted")), "Indexed elements should not be scanned");
+    }
+
     @Test(dataProvider = "queryFactories")
     public void testFieldAsDiscriminator(QueryFactory queryFactory) {
         Datastore datastore = createDatastore(getMongoClient(), getDatabase().getName(),
@@ -691,6 +725,26 @@ public class TestMapping extends TestBase {
         assertEquals(query.first(), expected, query.toString());
     }
 
+    private void generateEntity(String name, Path root) throws IOException {
+        new ByteBuddy()
+            .subclass(Object.class)
+            .name(name)
+            .annotateType(AnnotationDescription.Builder.ofType(Entity.class).build())
+            .defineField("id", ObjectId.class, Visibility.PRIVATE)
+            .annotateField(AnnotationDescription.Builder.ofType(Id.class).build())
+            .make()
+            .saveIn(root.toFile());
+    }
+
+    private Mapper mapPackage(ClassLoader loader, String packageName) {
+        Datastore datastore = createDatastore(getMongoClient(), getDatabase().getName(),
+            MapperOptions.builder()
+                         .classLoader(loader)
+                         .build());
+        datastore.getMapper().mapPackage(packageName);
+        return datastore.getMapper();
+    }
+
     private void validateField(List<PropertyModel> fields, String mapped, String java) {
         assertNotNull(fields.stream().filter(f -> f.getMappedName().equals(mapped)
                                                   && f.getName().equals(java)),
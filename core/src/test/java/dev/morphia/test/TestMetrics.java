@@ -0,0 +1,78 @@
+package dev.morphia.test;
+
+import dev.morphia.Datastore;
+import dev.morphia.mapping.MapperOptions;
+import dev.morphia.metrics.Histogram;
+import dev.morphia.metrics.StripedMetrics;
+import dev.morphia.metrics.Timer;
+import dev.morphia.test.models.Rectangle;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static dev.morphia.Morphia.createDatastore;
+import static dev.morphia.query.experimental.filters.Filters.gte;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestMetrics extends TestBase {
+    @Test
+    public void testHistogram() {
+        Histogram histogram = new Histogram();
+        IntStream.rangeClosed(1, 10_000).forEach(histogram::record);
+
+        assertEquals(histogram.getCount(), 10_000);
+        assertEquals(histogram.getMax(), 10_000);
+        assertEquals(histogram.getMean(), 5000.5, 0.001);
+        assertWithin(histogram.getValueAtPercentile(50), 5000);
+        assertWithin(histogram.getValueAtPercentile(99), 9900);
+        assertEquals(histogram.getValueAtPercentile(100), 10_000);
+        assertEquals(new Histogram().getValueAtPercentile(50), 0);
+    }
+
+    @Test
+    public void testMetrics() {
+        StripedMetrics metrics = new StripedMetrics();
+        Datastore datastore = createDatastore(getMongoClient(), getDatabase().getName(),
+            MapperOptions.builder()
+                         .metrics(metrics)
+                         .build());
+
+        List<Rectangle> rectangles = List.of(new Rectangle(1, 2), new Rectangle(3, 4), new Rectangle(5, 6));
+        datastore.insert(rectangles);
+        datastore.save(new Rectangle(7, 8));
+        assertEquals(datastore.find(Rectangle.class).filter(gte("height", 3)).iterator().toList().size(), 3);
+        assertEquals(datastore.find(Rectangle.class).filter(gte("height", 5)).count(), 2);
+        datastore.delete(rectangles.get(0));
+
+        String name = Rectangle.class.getName();
+        assertEquals(timer(metrics, "insert:" + name).getItems(), 3);
+        assertEquals(timer(metrics, "save:" + name).getCount(), 1);
+        assertEquals(timer(metrics, "delete:" + name).getCount(), 1);
+        assertTrue(timer(metrics, "encode:" + name).getCount() >= 4);
+
+        Timer decode = timer(metrics, "decode:" + name);
+        assertEquals(decode.getCount(), 3);
+        assertTrue(decode.getBytes() > 0);
+        assertTrue(decode.getItems() >= 9);
+
+        String shape = metrics.getTimers().keySet().stream()
+                              .filter(key -> key.startsWith("query:" + name))
+                              .findFirst()
+                              .orElseThrow();
+        assertTrue(shape.contains("\"$gte\": \"?\""), shape);
+        assertEquals(timer(metrics, shape).getCount(), 2);
+    }
+
+    private void assertWithin(long actual, long expected) {
+        assertTrue(Math.abs(actual - expected) <= expected / 16, actual + " should be within 1/16th of " + expected);
+    }
+
+    private Timer timer(StripedMetrics metrics, String name) {
+        Timer timer = metrics.getTimer(name);
+        assertNotNull(timer, name + " not found in " + metrics.getTimers().keySet());
+        return timer;
+    }
+}
@@ -0,0 +1,106 @@
+package dev.morphia.test;
+
+import dev.morphia.Datastore;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Property;
+import dev.morphia.annotations.ShardKey;
+import dev.morphia.mapping.MapperOptions;
+import dev.morphia.mapping.MapperOptions.ShardKeyValidation;
+import dev.morphia.mapping.MappingException;
+import dev.morphia.query.UpdateException;
+import dev.morphia.query.ValidationException;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.testng.annotations.Test;
+
+import java.util.NoSuchElementException;
+
+import static dev.morphia.Morphia.createDatastore;
+import static dev.morphia.query.experimental.filters.Filters.and;
+import static dev.morphia.query.experimental.filters.Filters.eq;
+import static dev.morphia.query.experimental.updates.UpdateOperators.set;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+
+public class TestShardKey extends TestBase {
+    @Test
+    public void testShardKeyFilters() {
+        Order order = new Order("EU", "A-1");
+        getDs().save(order);
+        order.region = "US";
+
+        assertThrows(NoSuchElementException.class, () -> getDs().refresh(order));
+        assertThrows(UpdateException.class, () -> getDs().merge(order));
+        assertEquals(getDs().delete(order).getDeletedCount(), 0);
+
+        order.region = "EU";
+        order.number = "A-2";
+        assertThrows(UpdateException.class, () -> getDs().save(order));
+        assertEquals(getDs().find(Order.class).count(), 1);
+        assertEquals(getDs().find(Order.class).first().number, "A-1");
+
+        order.number = "A-1";
+        order.status = "shipped";
+        getDs().save(order);
+        assertEquals(getDs().find(Order.class).first().status, "shipped");
+        assertEquals(getDs().delete(order).getDeletedCount(), 1);
+
+        Order assigned = new Order("US", "B-1");
+        assigned.id = new ObjectId();
+        getDs().save(assigned);
+        assertEquals(getDs().find(Order.class).first().id, assigned.id);
+    }
+
+    @Test
+    public void testShardKeyModel() {
+        Order order = new Order("EU", "A-1");
+        assertEquals(getMapper().getEntityModel(Order.class).getShardKey(order), new Document("r", "EU").append("number", "A-1"));
+        assertThrows(MappingException.class, () -> getMapper().map(Invalid.class));
+    }
+
+    @Test
+    public void testValidation() {
+        Datastore datastore = createDatastore(getMongoClient(), TEST_DB_NAME, MapperOptions.builder()
+                                                                                           .shardKeyValidation(ShardKeyValidation.FAIL)
+                                                                                           .build());
+        datastore.getMapper().map(Order.class);
+
+        datastore.find(Order.class).filter(eq("number", "A-1")).toDocument();
+        assertThrows(ValidationException.class, () -> datastore.find(Order.class).filter(eq("number", "A-1")).first());
+        assertThrows(ValidationException.class, () -> datastore.find(Order.class).filter(eq("number", "A-1")).count());
+        assertThrows(ValidationException.class, () -> datastore.find(Order.class).filter(eq("number", "A-1"))
+                                                               .update(set("status", "shipped"))
+                                                               .execute());
+        datastore.find(Order.class).filter(eq("region", "EU")).first();
+        datastore.find(Order.class).filter(and(eq("region", "EU"), eq("number", "A-1"))).first();
+
+        getDs().find(Order.class).filter(eq("number", "A-1")).first();
+    }
+
+    @Entity
+    @ShardKey({"region", "number"})
+    private static class Order {
+        @Id
+        private ObjectId id;
+        @Property("r")
+        private String region;
+        private String number;
+        private String status;
+
+        Order() {
+        }
+
+        Order(String region, String number) {
+            this.region = region;
+            this.number = number;
+        }
+    }
+
+    @Entity
+    @ShardKey("missing")
+    private static class Invalid {
+        @Id
+        private ObjectId id;
+    }
+}
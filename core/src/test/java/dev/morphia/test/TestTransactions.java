@@ -2,6 +2,7 @@ package dev.morphia.test;
 
 import com.mongodb.TransactionOptions;
 import dev.morphia.experimental.MorphiaSession;
+import dev.morphia.query.FindOptions;
 import dev.morphia.test.models.Rectangle;
 import dev.morphia.test.models.User;
 import org.testng.annotations.BeforeMethod;
@@ -9,6 +10,7 @@ import org.testng.annotations.Test;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static com.mongodb.ClientSessionOptions.builder;
 import static com.mongodb.WriteConcern.MAJORITY;
@@ -53,6 +55,21 @@ public class TestTransactions extends TestBase {
         assertNull(getDs().find(Rectangle.class).first());
     }
 
+    @Test
+    public void queryCache() {
+        Rectangle rectangle = new Rectangle(1, 1);
+        getDs().save(rectangle);
+        FindOptions cached = new FindOptions().cache(1, TimeUnit.MINUTES);
+
+        getDs().withTransaction((session) -> {
+            session.delete(rectangle);
+            assertEquals(getDs().find(Rectangle.class).iterator(cached).toList().size(), 1);
+            return null;
+        });
+
+        assertEquals(getDs().find(Rectangle.class).iterator(cached).toList().size(), 0, "the commit should discard cached results");
+    }
+
     @Test
     public void insert() {
         Rectangle rectangle = new Rectangle(1, 1);
@@ -7,7 +7,9 @@ import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.MergeOptions.WhenMatched;
 import com.mongodb.client.model.MergeOptions.WhenNotMatched;
 import dev.morphia.aggregation.experimental.Aggregation;
+import dev.morphia.aggregation.experimental.AggregationException;
 import dev.morphia.aggregation.experimental.AggregationOptions;
+import dev.morphia.aggregation.experimental.CompiledAggregation;
 import dev.morphia.aggregation.experimental.expressions.Expressions;
 import dev.morphia.aggregation.experimental.stages.AddFields;
 import dev.morphia.aggregation.experimental.stages.AutoBucket;
@@ -43,7 +45,9 @@ import org.testng.annotations.Test;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import static com.mongodb.client.model.CollationStrength.SECONDARY;
 import static dev.morphia.aggregation.experimental.expressions.AccumulatorExpressions.push;
@@ -55,6 +59,7 @@ import static dev.morphia.aggregation.experimental.expressions.ConditionalExpres
 import static dev.morphia.aggregation.experimental.expressions.ConditionalExpressions.ifNull;
 import static dev.morphia.aggregation.experimental.expressions.Expressions.field;
 import static dev.morphia.aggregation.experimental.expressions.Expressions.literal;
+import static dev.morphia.aggregation.experimental.expressions.Expressions.parameter;
 import static dev.morphia.aggregation.experimental.expressions.Expressions.value;
 import static dev.morphia.aggregation.experimental.expressions.MathExpressions.add;
 import static dev.morphia.aggregation.experimental.expressions.ObjectExpressions.mergeObjects;
@@ -74,6 +79,7 @@ import static java.util.stream.Collectors.toList;
 import static org.bson.Document.parse;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertThrows;
 
 @SuppressWarnings({"unused", "RedundantSuppression"})
 public class TestAggregation extends TestBase {
@@ -219,6 +225,33 @@ public class TestAggregation extends TestBase {
         assertNotNull(stats);
     }
 
+    @Test
+    public void testCompiled() {
+        insert("scores", List.of(
+            parse("{ '_id' : 1, 'subject' : 'History', 'score' : 88 }"),
+            parse("{ '_id' : 2, 'subject' : 'History', 'score' : 92 }"),
+            parse("{ '_id' : 3, 'subject' : 'Math', 'score' : 97 }"),
+            parse("{ '_id' : 4, 'subject' : 'History', 'score' : 71 }")));
+
+        CompiledAggregation<Score> compiled = getDs().aggregate(Score.class)
+                                                     .match(eq("subject", parameter("subject")), gt("score", parameter("minimum")))
+                                                     .addFields(AddFields.of()
+                                                                         .field("curved", add(field("score"), parameter("curve"))))
+                                                     .count("passing_scores")
+                                                     .compile();
+        assertEquals(compiled.getParameters(), Set.of("subject", "minimum", "curve"));
+
+        assertEquals(compiled.execute(Document.class, Map.of("subject", "History", "minimum", 80, "curve", 5)).next(),
+            parse("{ \"passing_scores\" : 2 }"));
+        assertEquals(compiled.execute(Document.class, Map.of("subject", "History", "minimum", 90, "curve", 5)).next(),
+            parse("{ \"passing_scores\" : 1 }"));
+        assertEquals(compiled.bind(Map.of("subject", "Math", "minimum", 90, "curve", 5)).get(0),
+            parse("{ '$match' : { 'subject' : 'Math', 'score' : { '$gt' : 90 } } }"));
+
+        assertThrows(AggregationException.class, () -> compiled.bind(Map.of("subject", "Math")));
+        assertThrows(AggregationException.class, () -> compiled.bind(Map.of("subject", "Math", "minimum", 90, "curve", 5, "other", 1)));
+    }
+
     @Test
     public void testCount() {
         insert("scores", List.of(
@@ -995,6 +1028,7 @@ public class TestAggregation extends TestBase {
     private static class Score {
         @Id
         private ObjectId id;
+        private String subject;
         private int score;
     }
 }
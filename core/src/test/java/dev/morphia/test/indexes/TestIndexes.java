@@ -16,12 +16,16 @@
 
 package dev.morphia.test.indexes;
 
+import com.mongodb.MongoCommandException;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.CollationCaseFirst;
 import com.mongodb.client.model.CollationMaxVariable;
 import com.mongodb.client.model.CollationStrength;
+import com.mongodb.lang.Nullable;
 import dev.morphia.Datastore;
 import dev.morphia.DeleteOptions;
+import dev.morphia.EnsureIndexesOptions;
+import dev.morphia.IndexChange;
 import dev.morphia.annotations.Collation;
 import dev.morphia.annotations.Entity;
 import dev.morphia.annotations.Field;
@@ -97,6 +101,67 @@ public class TestIndexes extends TestBase {
         assertHashed(getIndexInfo(TestWithHashedIndex.class));
     }
 
+    @Test
+    public void testIncrementalIndexes() {
+        Datastore datastore = createDatastore(getMongoClient(), TEST_DB_NAME);
+        datastore.getMapper().map(TestWithIndexOption.class, TestWithHashedIndex.class, TestWithUniqueIndex.class);
+        datastore.getMapper().getCollection(TestWithUniqueIndex.class).createIndex(new Document("code", 1));
+
+        List<IndexChange> changes = datastore.ensureIndexes(new EnsureIndexesOptions().dryRun(true));
+        Assert.assertEquals(changes.size(), 3, changes.toString());
+        Assert.assertEquals(getIndexInfo(TestWithIndexOption.class).size(), 0);
+        IndexChange changed = changes.stream()
+                                     .filter(c -> c.getKind() == IndexChange.Kind.CHANGED)
+                                     .findFirst()
+                                     .orElseThrow();
+        Assert.assertEquals(changed.getKeys(), new Document("code", 1));
+        Assert.assertEquals(changed.getOptions(), new Document("unique", true));
+
+        Assert.assertThrows(MongoCommandException.class, datastore::ensureIndexes);
+        Assert.assertEquals(uniqueCodeIndex(), null);
+
+        changes = datastore.ensureIndexes(new EnsureIndexesOptions().parallelism(2).skipChanged(true));
+        Assert.assertEquals(changes.size(), 3, changes.toString());
+        Assert.assertEquals(getIndexInfo(TestWithIndexOption.class).size(), 2);
+        Assert.assertEquals(getIndexInfo(TestWithHashedIndex.class).size(), 2);
+        Assert.assertEquals(uniqueCodeIndex(), null);
+
+        changes = datastore.ensureIndexes(new EnsureIndexesOptions().recreateChanged(true));
+        Assert.assertEquals(changes, List.of(changed));
+        Assert.assertEquals(uniqueCodeIndex(), Boolean.TRUE);
+
+        Assert.assertEquals(datastore.ensureIndexes(new EnsureIndexesOptions().dryRun(true)), List.of());
+    }
+
+    @Test
+    public void testChangedCollation() {
+        Datastore datastore = createDatastore(getMongoClient(), TEST_DB_NAME);
+        datastore.getMapper().map(TestWithIndexOption.class);
+        datastore.getMapper().getCollection(TestWithIndexOption.class)
+                 .createIndex(new Document("name", 1), new com.mongodb.client.model.IndexOptions()
+                                                           .name("collated")
+                                                           .partialFilterExpression(Document.parse("{ name : { $exists : true } }"))
+                                                           .collation(com.mongodb.client.model.Collation.builder()
+                                                                                                        .locale("en_US")
+                                                                                                        .build()));
+
+        List<IndexChange> changes = datastore.ensureIndexes(new EnsureIndexesOptions().dryRun(true));
+        Assert.assertEquals(changes.size(), 1, changes.toString());
+        Assert.assertEquals(changes.get(0).getKind(), IndexChange.Kind.CHANGED);
+
+        datastore.ensureIndexes(new EnsureIndexesOptions().recreateChanged(true));
+        Assert.assertEquals(datastore.ensureIndexes(new EnsureIndexesOptions().dryRun(true)), List.of());
+    }
+
+    @Nullable
+    private Boolean uniqueCodeIndex() {
+        return getIndexInfo(TestWithUniqueIndex.class).stream()
+                                                      .filter(index -> index.get("key", Document.class).containsKey("code"))
+                                                      .findFirst()
+                                                      .orElseThrow()
+                                                      .getBoolean("unique");
+    }
+
     @Test
     public void testMethodMapping() {
         Datastore datastore = createDatastore(getMongoClient(), TEST_DB_NAME,
@@ -176,4 +241,12 @@ public class TestIndexes extends TestBase {
         private String name;
 
     }
+
+    @Entity(useDiscriminator = false)
+    @Indexes(@Index(fields = @Field("code"), options = @IndexOptions(unique = true)))
+    private static class TestWithUniqueIndex {
+        @Id
+        private ObjectId id;
+        private String code;
+    }
 }
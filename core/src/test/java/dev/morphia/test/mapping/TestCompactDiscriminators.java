@@ -0,0 +1,113 @@
+package dev.morphia.test.mapping;
+
+import dev.morphia.Datastore;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.mapping.DiscriminatorLookup;
+import dev.morphia.mapping.MapperOptions;
+import dev.morphia.test.TestBase;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.morphia.Morphia.createDatastore;
+import static dev.morphia.query.experimental.filters.Filters.exists;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestCompactDiscriminators extends TestBase {
+    private static final MapperOptions OPTIONS = MapperOptions.builder()
+                                                              .compactDiscriminators(true)
+                                                              .enablePolymorphicQueries(true)
+                                                              .build();
+
+    @Test
+    public void testCompactDiscriminators() {
+        reconfigure(OPTIONS);
+        getMapper().map(Shape.class, Circle.class, Square.class, Drawing.class);
+        getDs().save(List.of(new Circle(2), new Square(3)));
+        Drawing drawing = new Drawing(new Circle(1));
+        getDs().save(drawing);
+
+        List<Document> documents = getDatabase().getCollection("shapes").find().into(new ArrayList<>());
+        assertEquals(documents.size(), 2);
+        documents.forEach(document -> assertTrue(document.get("_t") instanceof Integer, document.toJson()));
+        assertNotEquals(documents.get(0).get("_t"), documents.get(1).get("_t"));
+        assertEquals(getDatabase().getCollection(DiscriminatorLookup.REGISTRY).countDocuments(new Document("_id", "Circle")), 1);
+
+        assertEquals(getDs().find(Shape.class).count(), 2);
+        assertEquals(getDs().find(Circle.class).iterator().toList().size(), 1);
+        assertEquals(getDs().find(Drawing.class).first().shape.getClass(), Circle.class);
+
+        Datastore other = createDatastore(getMongoClient(), TEST_DB_NAME, OPTIONS);
+        other.getMapper().map(Shape.class, Circle.class, Square.class, Drawing.class);
+        assertEquals(other.find(Square.class).first().side, 3);
+        assertEquals(other.getMapper().getDiscriminatorValue(other.getMapper().getEntityModel(Circle.class)),
+            getMapper().getDiscriminatorValue(getMapper().getEntityModel(Circle.class)));
+    }
+
+    @Test
+    public void testStringDiscriminatorsStillRead() {
+        getDatabase().getCollection("shapes").insertOne(new Document("_t", "Circle").append("radius", 4));
+        reconfigure(OPTIONS);
+        getMapper().map(Shape.class, Circle.class, Square.class);
+        getDs().save(new Circle(5));
+
+        assertEquals(getDs().find(Shape.class).filter(exists("radius")).count(), 2);
+        List<Circle> circles = getDs().find(Circle.class).iterator().toList();
+        assertEquals(circles.size(), 2);
+        assertEquals(circles.stream().mapToInt(c -> c.radius).sum(), 9);
+        assertEquals(getDs().find(Square.class).count(), 0);
+
+        Document stored = getDatabase().getCollection("shapes").find(new Document("_t", "Circle")).first();
+        assertEquals(getMapper().fromDocument(Shape.class, stored).getClass(), Circle.class);
+    }
+
+    @Entity("shapes")
+    private abstract static class Shape {
+        @Id
+        private ObjectId id;
+    }
+
+    @Entity("shapes")
+    private static class Circle extends Shape {
+        private int radius;
+
+        Circle() {
+        }
+
+        Circle(int radius) {
+            this.radius = radius;
+        }
+    }
+
+    @Entity("shapes")
+    private static class Square extends Shape {
+        private int side;
+
+        Square() {
+        }
+
+        Square(int side) {
+            this.side = side;
+        }
+    }
+
+    @Entity
+    private static class Drawing {
+        @Id
+        private ObjectId id;
+        private Shape shape;
+
+        Drawing() {
+        }
+
+        Drawing(Shape shape) {
+            this.shape = shape;
+        }
+    }
+}
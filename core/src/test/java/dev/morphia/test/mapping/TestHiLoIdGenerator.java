@@ -0,0 +1,100 @@
+package dev.morphia.test.mapping;
+
+import com.mongodb.client.MongoCollection;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.mapping.HiLoIdGenerator;
+import dev.morphia.test.TestBase;
+import org.bson.Document;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+public class TestHiLoIdGenerator extends TestBase {
+    @Test
+    public void testBlocks() {
+        getMapper().setIdGenerator(Order.class, new HiLoIdGenerator(counters(), "orders", 10));
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            orders.add(new Order("order " + i));
+        }
+        getDs().save(orders);
+
+        assertEquals(orders.stream().map(order -> order.id).collect(Collectors.toList()),
+            LongStream.rangeClosed(1, 25).boxed().collect(Collectors.toList()));
+        assertEquals(getDs().find(Order.class).count(), 25);
+        assertEquals(counters().find(new Document("_id", "orders")).first().get("value"), 30L);
+    }
+
+    @Test
+    public void testConcurrentPrefetch() throws InterruptedException {
+        HiLoIdGenerator generator = new HiLoIdGenerator(counters(), "orders", 50, true);
+        getMapper().setIdGenerator(Order.class, generator);
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    ids.add(getDs().save(new Order("order")).id);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(ids.size(), 400);
+        assertEquals(getDs().find(Order.class).count(), 400);
+        long reserved = counters().find(new Document("_id", "orders")).first().getLong("value");
+        assertTrue(reserved >= 400 && reserved <= 450, String.valueOf(reserved));
+    }
+
+    @Test
+    public void testIntegerIds() {
+        getMapper().setIdGenerator(Ticket.class, new HiLoIdGenerator(counters(), "tickets", 10));
+
+        assertEquals(getDs().save(new Ticket()).id, Integer.valueOf(1));
+        assertEquals(getDs().find(Ticket.class).first().id, Integer.valueOf(1));
+
+        counters().updateOne(new Document("_id", "tickets"), new Document("$set", new Document("value", (long) Integer.MAX_VALUE)));
+        getMapper().setIdGenerator(Ticket.class, new HiLoIdGenerator(counters(), "tickets", 10));
+        assertThrows(ArithmeticException.class, () -> getDs().save(new Ticket()));
+    }
+
+    private MongoCollection<Document> counters() {
+        return getDatabase().getCollection(HiLoIdGenerator.COLLECTION);
+    }
+
+    @Entity("orders")
+    private static class Order {
+        @Id
+        private Long id;
+        private String name;
+
+        Order() {
+        }
+
+        Order(String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity("tickets")
+    private static class Ticket {
+        @Id
+        private Integer id;
+    }
+}
@@ -0,0 +1,93 @@
+package dev.morphia.test.mapping;
+
+import dev.morphia.Datastore;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.mapping.Mapper;
+import dev.morphia.mapping.MapperOptions;
+import dev.morphia.mapping.codec.pojo.EntityModel;
+import dev.morphia.test.TestBase;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import org.bson.types.ObjectId;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static dev.morphia.Morphia.createDatastore;
+import static org.testng.Assert.assertEquals;
+
+public class TestParallelMapping extends TestBase {
+    private static final int HIERARCHIES = 40;
+    private static final int SUBTYPES = 9;
+
+    @Test
+    public void testParallelMapping() {
+        List<Class> types = generate();
+        Collections.shuffle(types, new Random(42));
+
+        Mapper sequential = map(types, false);
+        Mapper parallel = map(types, true);
+
+        assertEquals(parallel.getMappedEntities().size(), types.size());
+        for (Class type : types) {
+            EntityModel expected = sequential.getEntityModel(type);
+            EntityModel actual = parallel.getEntityModel(type);
+            assertEquals(names(actual.getSubtypes()), names(expected.getSubtypes()), type.getName());
+            assertEquals(parallel.getClass(actual.getDiscriminator()), type);
+        }
+    }
+
+    private Mapper map(List<Class> types, boolean parallel) {
+        Datastore datastore = createDatastore(getMongoClient(), getDatabase().getName(),
+            MapperOptions.builder()
+                         .parallelMapping(parallel)
+                         .build());
+        datastore.getMapper().map(types);
+        return datastore.getMapper();
+    }
+
+    private List<Class> generate() {
+        List<Class> types = new ArrayList<>();
+        for (int i = 0; i < HIERARCHIES; i++) {
+            Class<?> base = new ByteBuddy()
+                                .subclass(Object.class)
+                                .name("dev.morphia.test.mapping.generated.Base" + i)
+                                .annotateType(AnnotationDescription.Builder.ofType(Entity.class)
+                                                                           .define("value", "base" + i)
+                                                                           .build())
+                                .defineField("id", ObjectId.class, Visibility.PRIVATE)
+                                .annotateField(AnnotationDescription.Builder.ofType(Id.class).build())
+                                .defineField("name", String.class, Visibility.PRIVATE)
+                                .make()
+                                .load(getClass().getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                                .getLoaded();
+            types.add(base);
+            for (int j = 0; j < SUBTYPES; j++) {
+                types.add(new ByteBuddy()
+                              .subclass(base)
+                              .name(base.getName() + "Child" + j)
+                              .annotateType(AnnotationDescription.Builder.ofType(Entity.class).build())
+                              .defineField("value" + j, String.class, Visibility.PRIVATE)
+                              .defineField("count" + j, int.class, Visibility.PRIVATE)
+                              .make()
+                              .load(base.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                              .getLoaded());
+            }
+        }
+        return types;
+    }
+
+    private Set<String> names(List<EntityModel> models) {
+        return models.stream()
+                     .map(m -> m.getType().getName())
+                     .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,129 @@
+package dev.morphia.test.mapping;
+
+import dev.morphia.Datastore;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Property;
+import dev.morphia.mapping.AliasDictionary;
+import dev.morphia.mapping.MapperOptions;
+import dev.morphia.query.FindOptions;
+import dev.morphia.test.TestBase;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.testng.annotations.Test;
+
+import java.util.Set;
+
+import static dev.morphia.Morphia.createDatastore;
+import static dev.morphia.query.experimental.filters.Filters.eq;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class TestShortPropertyNames extends TestBase {
+    private static final MapperOptions OPTIONS = MapperOptions.builder()
+                                                              .shortPropertyNames(true)
+                                                              .build();
+
+    @Test
+    public void testShortNames() {
+        reconfigure(OPTIONS);
+        getMapper().map(Account.class);
+        getDs().save(new Account("ACC-1", "Ann", new Address("Paris", "75001")));
+
+        Document stored = getDatabase().getCollection("accounts").find().first();
+        assertEquals(stored.keySet(), Set.of("_id", "_t", "a", "b", "n"));
+        assertEquals(stored.get("b", Document.class).keySet(), Set.of("_t", "a", "b"));
+        assertEquals(getMapper().getEntityModel(Account.class).getProperty("customerAccountIdentifier").getMappedName(), "a");
+
+        Account found = getDs().find(Account.class)
+                               .filter(eq("customerAccountIdentifier", "ACC-1"), eq("billingAddress.city", "Paris"))
+                               .first(new FindOptions().projection().include("customerAccountIdentifier"));
+        assertEquals(found.customerAccountIdentifier, "ACC-1");
+        assertNull(found.name);
+
+        Document dictionary = getDatabase().getCollection(AliasDictionary.COLLECTION).find(new Document("_id", "accounts")).first();
+        assertEquals(dictionary.get("aliases", Document.class),
+            new Document("customerAccountIdentifier", "a").append("billingAddress", "b"));
+
+        Datastore other = createDatastore(getMongoClient(), TEST_DB_NAME, OPTIONS);
+        other.getMapper().map(Account.class);
+        assertEquals(other.find(Account.class).first().billingAddress.postalCode, "75001");
+    }
+
+    @Test
+    public void testLongNamesStillRead() {
+        getDatabase().getCollection("accounts").insertOne(new Document("customerAccountIdentifier", "ACC-2")
+                                                              .append("billingAddress", new Document("city", "Oslo")));
+        reconfigure(OPTIONS);
+        getMapper().map(Account.class);
+
+        Account account = getDs().find(Account.class).first();
+        assertEquals(account.customerAccountIdentifier, "ACC-2");
+        assertEquals(account.billingAddress.city, "Oslo");
+    }
+
+    @Test
+    public void testSingleLetterNames() {
+        reconfigure(OPTIONS);
+        getMapper().map(Color.class);
+        getDs().save(new Color(1, 2, 3, 4));
+
+        Document stored = getDatabase().getCollection("colors").find().first();
+        assertEquals(stored.keySet(), Set.of("_id", "_t", "c", "d", "e", "f"));
+        Color color = getDs().find(Color.class).filter(eq("g", 2)).first();
+        assertEquals(color.r + color.g + color.b + color.a, 10);
+    }
+
+    @Entity("accounts")
+    private static class Account {
+        @Id
+        private ObjectId id;
+        private String customerAccountIdentifier;
+        @Property("n")
+        private String name;
+        private Address billingAddress;
+
+        Account() {
+        }
+
+        Account(String customerAccountIdentifier, String name, Address billingAddress) {
+            this.customerAccountIdentifier = customerAccountIdentifier;
+            this.name = name;
+            this.billingAddress = billingAddress;
+        }
+    }
+
+    @Entity
+    private static class Address {
+        private String city;
+        private String postalCode;
+
+        Address() {
+        }
+
+        Address(String city, String postalCode) {
+            this.city = city;
+            this.postalCode = postalCode;
+        }
+    }
+
+    @Entity("colors")
+    private static class Color {
+        @Id
+        private ObjectId id;
+        private int r;
+        private int g;
+        private int b;
+        private int a;
+
+        Color() {
+        }
+
+        Color(int r, int g, int b, int a) {
+            this.r = r;
+            this.g = g;
+            this.b = b;
+            this.a = a;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package dev.morphia.test.mapping.codec;
+
+import dev.morphia.annotations.Compressed;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.mapping.MappingException;
+import dev.morphia.mapping.codec.CompressedCodec;
+import dev.morphia.test.TestBase;
+import org.bson.BsonBinary;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static dev.morphia.query.experimental.filters.Filters.eq;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+public class TestCompressed extends TestBase {
+    private static final String PAYLOAD = "{\"level\": \"INFO\", \"message\": \"request handled\"}\n".repeat(100);
+
+    @Test
+    public void testRoundTrip() {
+        byte[] bytes = PAYLOAD.getBytes();
+        Report report = new Report(PAYLOAD, "short", bytes);
+
+        Document document = getMapper().toDocument(report);
+        BsonBinary body = (BsonBinary) document.get("body");
+        assertEquals(body.getType(), CompressedCodec.SUBTYPE);
+        assertTrue(body.getData().length < PAYLOAD.length() / 10, "compressed length: " + body.getData().length);
+        assertEquals(document.get("summary"), "short");
+        assertEquals(((BsonBinary) document.get("raw")).getType(), CompressedCodec.SUBTYPE);
+
+        Report decoded = getMapper().fromDocument(Report.class, document);
+        assertEquals(decoded.body, PAYLOAD);
+        assertEquals(decoded.summary, "short");
+        assertTrue(Arrays.equals(decoded.raw, bytes));
+
+        getDs().save(report);
+        Report loaded = getDs().find(Report.class).first();
+        assertEquals(loaded.body, PAYLOAD);
+        assertTrue(Arrays.equals(loaded.raw, bytes));
+    }
+
+    @Test
+    public void testDistinct() {
+        String title = "t".repeat(2000);
+        getDs().save(List.of(new Note(title, PAYLOAD), new Note("short", PAYLOAD), new Note(title, PAYLOAD + "more")));
+
+        assertEquals(getDs().find(Note.class)
+                            .filter(eq("title", title))
+                            .distinct("body", String.class)
+                            .stream()
+                            .sorted()
+                            .collect(Collectors.toList()), List.of(PAYLOAD, PAYLOAD + "more"));
+    }
+
+    @Test
+    public void testUncompressedValuesStillRead() {
+        Report report = getMapper().fromDocument(Report.class, new Document("body", "plain").append("summary", "also plain"));
+        assertEquals(report.body, "plain");
+        assertEquals(report.summary, "also plain");
+    }
+
+    @Test
+    public void testUnsupportedType() {
+        assertThrows(MappingException.class, () -> getMapper().map(Invalid.class));
+    }
+
+    @Entity
+    private static class Report {
+        @Id
+        private ObjectId id;
+        @Compressed
+        private String body;
+        @Compressed
+        private String summary;
+        @Compressed(threshold = 16)
+        private byte[] raw;
+
+        Report() {
+        }
+
+        Report(String body, String summary, byte[] raw) {
+            this.body = body;
+            this.summary = summary;
+            this.raw = raw;
+        }
+    }
+
+    @Entity
+    private static class Note {
+        @Id
+        private ObjectId id;
+        private String title;
+        @Compressed
+        private String body;
+
+        Note() {
+        }
+
+        Note(String title, String body) {
+            this.title = title;
+            this.body = body;
+        }
+    }
+
+    @Entity
+    private static class Invalid {
+        @Id
+        private ObjectId id;
+        @Compressed
+        private int count;
+    }
+}
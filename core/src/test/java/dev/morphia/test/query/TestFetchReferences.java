@@ -0,0 +1,120 @@
+package dev.morphia.test.query;
+
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Reference;
+import dev.morphia.mapping.experimental.MorphiaReference;
+import dev.morphia.query.FindOptions;
+import dev.morphia.query.Sort;
+import dev.morphia.query.ValidationException;
+import dev.morphia.query.internal.ReferenceLookup;
+import dev.morphia.test.TestBase;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static dev.morphia.query.experimental.filters.Filters.eq;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+
+public class TestFetchReferences extends TestBase {
+    private static final String[] PATHS = {"author", "editor", "coauthors", "reviewer"};
+
+    @Test
+    public void testFetchReferences() {
+        Writer ann = new Writer("Ann");
+        Writer bob = new Writer("Bob");
+        Writer cid = new Writer("Cid");
+        getDs().save(List.of(ann, bob, cid));
+        getDs().save(List.of(new Novel("Alpha", ann, bob, List.of(cid, ann, bob), cid),
+            new Novel("Beta", bob, null, List.of(), null)));
+
+        List<Novel> novels = getDs().find(Novel.class)
+                                    .iterator(new FindOptions()
+                                                  .sort(Sort.ascending("title"))
+                                                  .fetchReferences(PATHS))
+                                    .toList();
+        assertEquals(novels.size(), 2);
+        Novel alpha = novels.get(0);
+        assertEquals(alpha.author.name, "Ann");
+        assertEquals(alpha.editor.name, "Bob");
+        assertEquals(names(alpha.coauthors), List.of("Cid", "Ann", "Bob"));
+        assertEquals(alpha.reviewer.get().name, "Cid");
+        assertEquals(novels.get(1).author.name, "Bob");
+        assertNull(novels.get(1).editor);
+        assertEquals(novels.get(1).coauthors, List.of());
+
+        getDs().delete(cid);
+        Novel fallback = getDs().find(Novel.class)
+                                .filter(eq("title", "Alpha"))
+                                .first(new FindOptions().fetchReferences(PATHS));
+        assertEquals(names(fallback.coauthors), List.of("Ann", "Bob"));
+    }
+
+    @Test
+    public void testPipeline() {
+        getMapper().map(Novel.class, Writer.class);
+        List<Document> pipeline = new ReferenceLookup(getMapper(), Novel.class, List.of(PATHS))
+                                      .pipeline(new Document("title", "Alpha"), new FindOptions().limit(5));
+        assertEquals(pipeline.stream()
+                             .map(stage -> stage.keySet().iterator().next())
+                             .filter(stage -> stage.equals("$lookup"))
+                             .count(), 4);
+        assertEquals(pipeline.get(0), new Document("$match", new Document("title", "Alpha")));
+        assertEquals(pipeline.get(1), new Document("$limit", 5));
+        assertEquals(pipeline.get(3).get("$lookup", Document.class).getString("from"), "writers");
+
+        assertThrows(ValidationException.class, () -> new ReferenceLookup(getMapper(), Novel.class, List.of("title")));
+        assertThrows(ValidationException.class, () -> new ReferenceLookup(getMapper(), Novel.class, List.of("byRole")));
+    }
+
+    private static List<String> names(List<Writer> writers) {
+        return writers.stream().map(w -> w.name).collect(Collectors.toList());
+    }
+
+    @Entity("writers")
+    private static class Writer {
+        @Id
+        private ObjectId id;
+        private String name;
+
+        Writer() {
+        }
+
+        Writer(String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity("novels")
+    private static class Novel {
+        @Id
+        private ObjectId id;
+        private String title;
+        @Reference
+        private Writer author;
+        @Reference(idOnly = true)
+        private Writer editor;
+        @Reference(ignoreMissing = true)
+        private List<Writer> coauthors;
+        private MorphiaReference<Writer> reviewer;
+        @Reference
+        private Map<String, Writer> byRole;
+
+        Novel() {
+        }
+
+        Novel(String title, Writer author, Writer editor, List<Writer> coauthors, Writer reviewer) {
+            this.title = title;
+            this.author = author;
+            this.editor = editor;
+            this.coauthors = coauthors;
+            this.reviewer = reviewer != null ? MorphiaReference.wrap(reviewer) : null;
+        }
+    }
+}
@@ -2,10 +2,14 @@ package dev.morphia.test.query;
 
 import com.jayway.awaitility.Awaitility;
 import com.mongodb.CursorType;
+import com.mongodb.MongoCursorNotFoundException;
 import com.mongodb.MongoNamespace;
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.model.CollationStrength;
+import com.mongodb.lang.Nullable;
 import dev.morphia.Datastore;
 import dev.morphia.DeleteOptions;
 import dev.morphia.Key;
@@ -17,15 +21,24 @@ import dev.morphia.annotations.Indexed;
 import dev.morphia.annotations.PrePersist;
 import dev.morphia.annotations.Property;
 import dev.morphia.annotations.Reference;
+import dev.morphia.mapping.MappingException;
+import dev.morphia.metrics.MorphiaMetrics;
 import dev.morphia.query.ArraySlice;
 import dev.morphia.query.CountOptions;
+import dev.morphia.query.CountedPage;
 import dev.morphia.query.DefaultQueryFactory;
 import dev.morphia.query.FindOptions;
 import dev.morphia.query.LegacyQueryFactory;
+import dev.morphia.query.Page;
 import dev.morphia.query.Query;
+import dev.morphia.query.QueryException;
 import dev.morphia.query.QueryFactory;
+import dev.morphia.query.Tail;
+import dev.morphia.query.TailOptions;
 import dev.morphia.query.ValidationException;
 import dev.morphia.query.internal.MorphiaCursor;
+import dev.morphia.query.internal.PrefetchingCursor;
+import dev.morphia.query.internal.Tailer;
 import dev.morphia.test.TestBase;
 import dev.morphia.test.models.City;
 import dev.morphia.test.models.CustomId;
@@ -34,23 +47,39 @@ import dev.morphia.test.models.Keys;
 import dev.morphia.test.models.Rectangle;
 import dev.morphia.test.models.Student;
 import dev.morphia.test.models.UsesCustomIdObject;
+import org.bson.BsonInt32;
+import org.bson.BsonValue;
+import org.bson.ByteBuf;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
 import org.bson.types.ObjectId;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.mongodb.client.model.Collation.builder;
 import static dev.morphia.query.Sort.ascending;
@@ -80,6 +109,7 @@ import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
@@ -125,6 +155,106 @@ public class TestQuery extends TestBase {
         assertTrue(sum > 0, sum + "");
     }
 
+    @Test
+    public void testPrefetching() {
+        getMapper().map(City.class);
+
+        FindOptions options = new FindOptions()
+                                  .sort(ascending("_id"))
+                                  .limit(1000)
+                                  .batchSize(50);
+        List<String> expected = getDs().find(City.class)
+                                       .iterator(options)
+                                       .toList().stream()
+                                       .map(City::toString)
+                                       .collect(Collectors.toList());
+        List<String> prefetched = getDs().find(City.class)
+                                         .iterator(options.copy().prefetch(2))
+                                         .toList().stream()
+                                         .map(City::toString)
+                                         .collect(Collectors.toList());
+
+        assertEquals(prefetched, expected);
+
+        try (MorphiaCursor<City> cursor = getDs().find(City.class).iterator(new FindOptions().prefetch(1))) {
+            assertNotNull(cursor.next());
+        }
+    }
+
+    @Test
+    public void testPrefetchingCursorClose() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        AtomicBoolean closed = new AtomicBoolean();
+        MongoCursor<City> stalled = new TestCursor() {
+            @Override
+            public void close() {
+                closed.set(true);
+                blocked.countDown();
+            }
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+        };
+        PrefetchingCursor<City> cursor = new PrefetchingCursor<>(stalled, 1, 10);
+        CompletableFuture<Boolean> hasNext = new CompletableFuture<>();
+        Thread consumer = new Thread(() -> hasNext.complete(cursor.hasNext()));
+        consumer.start();
+        Awaitility.await()
+                  .atMost(5, TimeUnit.SECONDS)
+                  .until(() -> consumer.getState() == Thread.State.WAITING);
+        cursor.close();
+        assertFalse(hasNext.get(5, TimeUnit.SECONDS), "close() should wake a consumer waiting for results");
+        assertTrue(closed.get(), "close() should close the wrapped cursor");
+
+        PrefetchingCursor<City> endless = new PrefetchingCursor<>(new EndlessCursor(new AtomicBoolean()), 2, 10);
+        assertNotNull(endless.next());
+        endless.close();
+        assertFalse(endless.hasNext(), "No results should be returned after close()");
+        assertNull(endless.tryNext());
+    }
+
+    @Test
+    public void testAbandonedPrefetchingCursor() {
+        AtomicBoolean closed = new AtomicBoolean();
+        new PrefetchingCursor<>(new EndlessCursor(closed), 1, 10).next();
+        Awaitility.await()
+                  .atMost(10, TimeUnit.SECONDS)
+                  .until(() -> {
+                      System.gc();
+                      return closed.get();
+                  });
+    }
+
+    @Test
+    public void testCursorBatchesAndStreams() {
+        for (int i = 0; i < 25; i++) {
+            getDs().save(new Rectangle(i, i));
+        }
+        FindOptions options = new FindOptions().sort(ascending("height"));
+
+        List<Integer> sizes = new ArrayList<>();
+        List<Double> heights = new ArrayList<>();
+        getDs().find(Rectangle.class).iterator(options).forEachBatch(10, batch -> {
+            sizes.add(batch.size());
+            batch.forEach(r -> heights.add(r.getHeight()));
+        });
+        assertEquals(sizes, List.of(10, 10, 5));
+        assertEquals(heights.size(), 25);
+
+        try (Stream<Rectangle> stream = getDs().find(Rectangle.class).iterator(options).stream()) {
+            assertEquals(stream.map(Rectangle::getHeight).collect(Collectors.toList()), heights);
+        }
+
+        assertEquals(getDs().find(Rectangle.class).keys(options).stream().count(), 25);
+    }
+
     @Test
     public void multiKeyValueQueries() {
         getMapper().map(List.of(KeyValue.class));
@@ -546,6 +676,33 @@ public class TestQuery extends TestBase {
         assertEquals(getDs().find(Rectangle.class).count(), 2);
     }
 
+    @Test
+    public void testDistinct() {
+        getDs().save(List.of(new ContainsRenamedFields("Frank", "Zappa"),
+            new ContainsRenamedFields("Moon", "Zappa"),
+            new ContainsRenamedFields("Frank", "Sinatra")));
+
+        List<String> firstNames = getDs().find(ContainsRenamedFields.class)
+                                         .distinct("firstName", String.class)
+                                         .toList();
+        assertEquals(firstNames.stream().sorted().collect(Collectors.toList()), List.of("Frank", "Moon"));
+
+        assertEquals(getDs().find(ContainsRenamedFields.class)
+                            .filter(eq("firstName", "Frank"))
+                            .distinct("lastName", String.class)
+                            .stream()
+                            .sorted()
+                            .collect(Collectors.toList()), List.of("Sinatra", "Zappa"));
+
+        getDs().save(new Rectangle(3, 4));
+        assertEquals(getDs().find(Rectangle.class)
+                            .distinct("width", Double.class)
+                            .toList(), List.of(4.0));
+        assertEquals(getDs().find(Rectangle.class)
+                            .distinct("width", double.class)
+                            .toList(), List.of(4.0));
+    }
+
     @Test
     public void testElemMatchQuery() {
         getDs().save(asList(new PhotoWithKeywords(), new PhotoWithKeywords("Scott", "Joe", "Sarah")));
@@ -748,6 +905,50 @@ public class TestQuery extends TestBase {
         assertFalse(complexKeys.hasNext());
     }
 
+    @Test
+    public void testKeysetPagination() {
+        List<Rectangle> rectangles = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            rectangles.add(new Rectangle(i % 7, i));
+        }
+        getDs().save(rectangles);
+
+        List<ObjectId> expected = getDs().find(Rectangle.class)
+                                         .iterator(new FindOptions().sort(descending("height"), ascending("_id")))
+                                         .toList().stream()
+                                         .map(Rectangle::getId)
+                                         .collect(Collectors.toList());
+
+        Query<Rectangle> query = getDs().find(Rectangle.class);
+        List<ObjectId> paged = new ArrayList<>();
+        Page<Rectangle> page = query.page(10, descending("height"));
+        int pages = 1;
+        paged.addAll(page.getResults().stream().map(Rectangle::getId).collect(Collectors.toList()));
+        while (page.hasNextPage()) {
+            page = query.nextPage(page.getNextPageToken());
+            paged.addAll(page.getResults().stream().map(Rectangle::getId).collect(Collectors.toList()));
+            pages++;
+        }
+
+        assertEquals(pages, 3);
+        assertEquals(paged, expected);
+
+        Page<Rectangle> filtered = getDs().find(Rectangle.class)
+                                          .filter(gte("height", 5))
+                                          .page(ascending("height"), 5);
+        assertEquals(filtered.getResults().size(), 5);
+        assertTrue(filtered.hasNextPage());
+        assertEquals(getDs().find(Rectangle.class)
+                            .filter(gte("height", 5))
+                            .nextPage(filtered.getNextPageToken())
+                            .getResults().size(), 1);
+
+        ByteBuf noSize = RawBsonDocument.parse("{sort: {_id: 1}, last: [1]}").getByteBuffer();
+        String token = Base64.getUrlEncoder().encodeToString(Arrays.copyOf(noSize.array(), noSize.remaining()));
+        assertThrows(QueryException.class, () -> getDs().find(Rectangle.class).nextPage(token));
+        assertThrows(QueryException.class, () -> getDs().find(Rectangle.class).nextPage("not a token"));
+    }
+
     @Test
     public void testMixedProjection() {
         getDs().save(new ContainsRenamedFields("Frank", "Zappa"));
@@ -911,6 +1112,34 @@ public class TestQuery extends TestBase {
                           .first());
     }
 
+    @Test
+    public void testPageWithTotal() {
+        List<Rectangle> rectangles = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            rectangles.add(new Rectangle(i % 7, i));
+        }
+        getDs().save(rectangles);
+
+        Query<Rectangle> query = getDs().find(Rectangle.class)
+                                        .filter(gte("width", 5));
+        CountedPage<Rectangle> page = query.pageWithTotal(new FindOptions()
+                                                              .sort(descending("width"))
+                                                              .skip(5)
+                                                              .limit(10));
+        assertEquals(page.getTotal(), query.count());
+        assertEquals(page.getTotal(), 20);
+        assertEquals(page.getResults().stream().map(Rectangle::getWidth).collect(Collectors.toList()),
+            List.of(19.0, 18.0, 17.0, 16.0, 15.0, 14.0, 13.0, 12.0, 11.0, 10.0));
+
+        CountedPage<Rectangle> empty = getDs().find(Rectangle.class)
+                                              .filter(gt("width", 100))
+                                              .pageWithTotal(new FindOptions().limit(10));
+        assertEquals(empty.getTotal(), 0);
+        assertTrue(empty.getResults().isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> query.pageWithTotal(new FindOptions().skip(5)));
+    }
+
     @Test
     public void testProject() {
         getDs().save(new ContainsRenamedFields("Frank", "Zappa"));
@@ -975,6 +1204,26 @@ public class TestQuery extends TestBase {
                 .scalars);
     }
 
+    @Test
+    public void testProjectToDto() {
+        getDs().save(List.of(new ContainsRenamedFields("Frank", "Zappa"),
+            new ContainsRenamedFields("Frank", "Sinatra")));
+
+        List<FullName> names = getDs().find(ContainsRenamedFields.class)
+                                      .filter(eq("firstName", "Frank"))
+                                      .project(FullName.class, new FindOptions().sort(ascending("lastName")))
+                                      .toList();
+        assertEquals(names.size(), 2);
+        assertEquals(names.get(0).firstName, "Frank");
+        assertEquals(names.get(0).lastName, "Sinatra");
+        assertEquals(names.get(1).lastName, "Zappa");
+        assertEquals(getMapper().getProjectionCodec(ContainsRenamedFields.class, FullName.class).getProjection(),
+            new Document("first_name", 1).append("last_name", 1).append("_id", 0));
+
+        assertThrows(ValidationException.class, () -> getDs().find(ContainsRenamedFields.class).project(KeyValue.class));
+        assertThrows(MappingException.class, () -> getDs().find(ContainsRenamedFields.class).project(AmbiguousName.class));
+    }
+
     @Test
     public void testQBE() {
         final CustomId cId = new CustomId();
@@ -1246,6 +1495,88 @@ public class TestQuery extends TestBase {
         assertTrue(query.count() >= 10);
     }
 
+    @Test
+    public void testTail() {
+        getMapper().map(CappedPic.class);
+        getDs().ensureCaps();
+        for (int i = 0; i < 5; i++) {
+            getDs().save(new CappedPic());
+        }
+
+        List<CappedPic> found = new CopyOnWriteArrayList<>();
+        try (Tail tail = getDs().find(CappedPic.class).tail(new TailOptions().maxAwaitTime(100, TimeUnit.MILLISECONDS), found::add)) {
+            for (int i = 0; i < 5; i++) {
+                getDs().save(new CappedPic());
+            }
+            Awaitility.await()
+                      .atMost(10, TimeUnit.SECONDS)
+                      .until(() -> found.size() == 10 && tail.getDelivered() == 10);
+            assertEquals(tail.getLastId().asObjectId().getValue(), found.get(9).getId());
+            assertTrue(tail.isRunning());
+        }
+
+        List<CappedPic> published = new CopyOnWriteArrayList<>();
+        AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+        getDs().find(CappedPic.class).tail(new TailOptions().bufferSize(2)).subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription.set(s);
+                s.request(3);
+            }
+
+            @Override
+            public void onNext(CappedPic item) {
+                published.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail(throwable.getMessage(), throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        Awaitility.await()
+                  .atMost(10, TimeUnit.SECONDS)
+                  .until(() -> ((Tail) subscription.get()).getBuffered() == 2);
+        assertEquals(published.size(), 3);
+        subscription.get().request(Long.MAX_VALUE);
+        Awaitility.await()
+                  .atMost(10, TimeUnit.SECONDS)
+                  .until(() -> published.size() == 10);
+        subscription.get().cancel();
+        assertFalse(((Tail) subscription.get()).isRunning());
+    }
+
+    @Test
+    public void testTailResumes() {
+        List<BsonValue> openedAfter = new CopyOnWriteArrayList<>();
+        Queue<MongoCursor<RawBsonDocument>> cursors = new ConcurrentLinkedQueue<>(List.of(
+            new RawCursor(List.of(1, 2), null),
+            new RawCursor(List.of(3), new MongoCursorNotFoundException(42, new ServerAddress())),
+            new RawCursor(List.of(4), null) {
+                @Override
+                public ServerCursor getServerCursor() {
+                    return new ServerCursor(43, new ServerAddress());
+                }
+            }));
+        List<Document> found = new CopyOnWriteArrayList<>();
+        try (Tail tail = new Tailer<>(Document.class, new DocumentCodec(), lastId -> {
+            openedAfter.add(lastId);
+            return cursors.remove();
+        }, new TailOptions().resumeDelay(0, TimeUnit.MILLISECONDS), MorphiaMetrics.noop(), Tailer.subscriber(found::add)).start()) {
+            Awaitility.await()
+                      .atMost(10, TimeUnit.SECONDS)
+                      .until(() -> found.size() == 4);
+            assertEquals(found.stream().map(document -> document.getInteger("_id")).collect(Collectors.toList()), List.of(1, 2, 3, 4));
+            assertEquals(openedAfter, asList(null, new BsonInt32(2), new BsonInt32(3)));
+            assertEquals(tail.getResumes(), 2);
+            assertTrue(tail.isRunning());
+        }
+    }
+
     @Test
     public void testThatElemMatchQueriesOnlyChecksRequiredFields() {
         final PhotoWithKeywords pwk1 = new PhotoWithKeywords(new Keyword("california"), new Keyword("nevada"), new Keyword("arizona"));
@@ -1452,6 +1783,114 @@ public class TestQuery extends TestBase {
         }
     }
 
+    private static class EndlessCursor extends TestCursor {
+        private final AtomicBoolean closed;
+
+        EndlessCursor(AtomicBoolean closed) {
+            this.closed = closed;
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !closed.get();
+        }
+
+        @Override
+        public City next() {
+            return new City();
+        }
+    }
+
+    private abstract static class TestCursor implements MongoCursor<City> {
+        @Override
+        public City next() {
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public City tryNext() {
+            return null;
+        }
+
+        @Override
+        public ServerCursor getServerCursor() {
+            return null;
+        }
+
+        @Override
+        public ServerAddress getServerAddress() {
+            return new ServerAddress();
+        }
+    }
+
+    private static class RawCursor implements MongoCursor<RawBsonDocument> {
+        private final Iterator<Integer> ids;
+        private final RuntimeException end;
+
+        RawCursor(List<Integer> ids, @Nullable RuntimeException end) {
+            this.ids = ids.iterator();
+            this.end = end;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean hasNext() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RawBsonDocument next() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RawBsonDocument tryNext() {
+            if (ids.hasNext()) {
+                return RawBsonDocument.parse(new Document("_id", ids.next()).toJson());
+            }
+            if (end != null) {
+                throw end;
+            }
+            if (getServerCursor() != null) {
+                // an open tailable cursor waits for more documents
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public ServerCursor getServerCursor() {
+            return null;
+        }
+
+        @Override
+        public ServerAddress getServerAddress() {
+            return new ServerAddress();
+        }
+    }
+
+    private static class AmbiguousName {
+        private String firstName;
+        private String first_name;
+    }
+
+    private static class FullName {
+        private String firstName;
+        private String lastName;
+    }
+
     @Entity
     private static class GenericKeyValue<T> {
 
@@ -0,0 +1,125 @@
+package dev.morphia.test.query;
+
+import com.mongodb.ServerAddress;
+import dev.morphia.aggregation.experimental.stages.AddFields;
+import dev.morphia.aggregation.experimental.stages.Out;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.mapping.MapperOptions;
+import dev.morphia.query.FindOptions;
+import dev.morphia.query.internal.QueryCache;
+import dev.morphia.test.TestBase;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.types.ObjectId;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static dev.morphia.aggregation.experimental.expressions.Expressions.value;
+import static dev.morphia.query.experimental.filters.Filters.eq;
+import static dev.morphia.query.experimental.updates.UpdateOperators.set;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+
+public class TestQueryCache extends TestBase {
+    private static final FindOptions CACHED = new FindOptions().cache(1, TimeUnit.MINUTES);
+
+    @Test
+    public void testCachedResults() {
+        getDs().save(List.of(new Country("FR", "France"), new Country("NO", "Norway")));
+
+        List<Country> first = getDs().find(Country.class).iterator(CACHED).toList();
+        assertEquals(first.size(), 2);
+
+        getDatabase().getCollection("countries").insertOne(new Document("code", "SE").append("name", "Sweden"));
+        List<Country> second = getDs().find(Country.class).iterator(CACHED).toList();
+        assertEquals(second.size(), 2, "results should come from the cache");
+        assertNotSame(second.get(0), first.get(0));
+        assertEquals(getDs().find(Country.class).iterator().toList().size(), 3);
+        assertEquals(getDs().find(Country.class).iterator(new FindOptions().cache(1, TimeUnit.MINUTES).limit(1)).toList().size(), 1);
+
+        getDs().find(Country.class).filter(eq("code", "FR")).update(set("name", "République française")).execute();
+        assertEquals(getDs().find(Country.class).iterator(CACHED).toList().size(), 3);
+        assertEquals(getDs().find(Country.class).filter(eq("code", "FR")).first(CACHED).name, "République française");
+    }
+
+    @Test
+    public void testBounds() throws InterruptedException {
+        QueryCache cache = new QueryCache(2);
+        ServerAddress address = new ServerAddress();
+        List<RawBsonDocument> results = List.of(RawBsonDocument.parse("{a: 1}"));
+        for (int i = 0; i < 3; i++) {
+            cache.put(new Document("q", i), "c", cache.generation("c"), results, address, TimeUnit.MINUTES.toNanos(1));
+        }
+        assertNull(cache.get(new Document("q", 0)));
+        assertNotNull(cache.get(new Document("q", 2)));
+
+        long generation = cache.generation("c");
+        cache.invalidate("c");
+        assertNull(cache.get(new Document("q", 2)));
+        cache.put(new Document("q", 3), "c", generation, results, address, TimeUnit.MINUTES.toNanos(1));
+        assertNull(cache.get(new Document("q", 3)), "results read before a write should not be cached");
+
+        cache.put(new Document("q", 4), "c", cache.generation("c"), results, address, TimeUnit.MILLISECONDS.toNanos(10));
+        Thread.sleep(50);
+        assertNull(cache.get(new Document("q", 4)));
+
+        List<RawBsonDocument> pair = List.of(RawBsonDocument.parse("{a: 1}"), RawBsonDocument.parse("{a: 2}"));
+        cache.put(new Document("q", 5), "c", cache.generation("c"), results, address, TimeUnit.MINUTES.toNanos(1));
+        cache.put(new Document("q", 6), "c", cache.generation("c"), pair, address, TimeUnit.MINUTES.toNanos(1));
+        assertNull(cache.get(new Document("q", 5)), "the cache should be bounded by the number of documents");
+        assertNotNull(cache.get(new Document("q", 6)));
+        cache.put(new Document("q", 7), "c", cache.generation("c"), List.of(pair.get(0), pair.get(1), pair.get(0)), address,
+            TimeUnit.MINUTES.toNanos(1));
+        assertNull(cache.get(new Document("q", 7)), "results larger than the cache should not be cached");
+        assertNotNull(cache.get(new Document("q", 6)));
+
+        generation = cache.generation("c");
+        cache.invalidateAll();
+        assertNull(cache.get(new Document("q", 6)));
+        cache.put(new Document("q", 8), "c", generation, results, address, TimeUnit.MINUTES.toNanos(1));
+        assertNull(cache.get(new Document("q", 8)), "results read before a transaction ended should not be cached");
+    }
+
+    @Test
+    public void testAggregationOutput() {
+        getDs().save(new Country("FR", "France"));
+        assertEquals(getDs().find(Country.class).first(CACHED).name, "France");
+
+        getDs().aggregate(Country.class)
+               .addFields(AddFields.of().field("name", value("République française")))
+               .out(Out.to(Country.class));
+        assertEquals(getDs().find(Country.class).first(CACHED).name, "République française");
+    }
+
+    @Test
+    public void testDisabled() {
+        assertThrows(IllegalArgumentException.class, () -> MapperOptions.builder().queryCacheSize(-1));
+        reconfigure(MapperOptions.builder().queryCacheSize(0).build());
+        getDs().save(new Country("FR", "France"));
+        assertEquals(getDs().find(Country.class).iterator(CACHED).toList().size(), 1);
+        getDatabase().getCollection("countries").insertOne(new Document("code", "SE"));
+        assertEquals(getDs().find(Country.class).iterator(CACHED).toList().size(), 2);
+    }
+
+    @Entity("countries")
+    private static class Country {
+        @Id
+        private ObjectId id;
+        private String code;
+        private String name;
+
+        Country() {
+        }
+
+        Country(String code, String name) {
+            this.code = code;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package dev.morphia.test.query;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import dev.morphia.Datastore;
+import dev.morphia.mapping.MapperOptions;
+import dev.morphia.query.FindOptions;
+import dev.morphia.query.LoggedQuery;
+import dev.morphia.query.QueryLogger;
+import dev.morphia.test.models.Rectangle;
+import dev.morphia.test.TestBase;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static dev.morphia.Morphia.createDatastore;
+import static dev.morphia.query.experimental.filters.Filters.gte;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestQueryLogger extends TestBase {
+    private static final ConnectionDescription CONNECTION = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    @Test
+    public void testCapturesTaggedCommands() {
+        QueryLogger logger = new QueryLogger();
+        assertFalse(logger.isRegistered());
+        FindOptions options = new FindOptions().logQuery();
+
+        BsonDocument filter = BsonDocument.parse("{ height: { $gte: 3 } }");
+        BsonDocument tagged = new BsonDocument("find", new BsonString("rectangles"))
+                                  .append("filter", filter)
+                                  .append("comment", new BsonString(options.getComment()));
+        logger.register(MongoClientSettings.builder());
+        assertFalse(logger.isRegistered());
+        logger.commandStarted(new CommandStartedEvent(1, CONNECTION, "test", "find", tagged));
+        assertTrue(logger.isRegistered());
+        logger.commandStarted(new CommandStartedEvent(2, CONNECTION, "test", "find", new BsonDocument("find", new BsonString("other"))));
+        logger.commandSucceeded(new CommandSucceededEvent(2, CONNECTION, "find", new BsonDocument(), 500));
+        logger.commandSucceeded(new CommandSucceededEvent(1, CONNECTION, "find", new BsonDocument(), 2_000_000));
+
+        LoggedQuery query = logger.getLoggedQuery(options.getQueryLogId());
+        assertNotNull(query);
+        assertEquals(query.getCommandName(), "find");
+        assertEquals(query.getFilter(), filter);
+        assertEquals(query.getDuration(TimeUnit.MILLISECONDS), 2);
+        assertTrue(query.isSucceeded());
+        assertNull(logger.getLoggedQuery(new FindOptions().logQuery().getQueryLogId()));
+    }
+
+    @Test
+    public void testBoundsPendingCommands() {
+        QueryLogger logger = new QueryLogger(0, 2);
+        List<FindOptions> options = List.of(new FindOptions().logQuery(), new FindOptions().logQuery(), new FindOptions().logQuery());
+        for (int i = 0; i < options.size(); i++) {
+            BsonDocument command = new BsonDocument("find", new BsonString("rectangles"))
+                                       .append("comment", new BsonString(options.get(i).getComment()));
+            logger.commandStarted(new CommandStartedEvent(i, CONNECTION, "test", "find", command));
+        }
+        for (int i = 0; i < options.size(); i++) {
+            logger.commandSucceeded(new CommandSucceededEvent(i, CONNECTION, "find", new BsonDocument(), 500));
+        }
+
+        assertNull(logger.getLoggedQuery(options.get(0).getQueryLogId()));
+        assertNotNull(logger.getLoggedQuery(options.get(1).getQueryLogId()));
+        assertNotNull(logger.getLoggedQuery(options.get(2).getQueryLogId()));
+    }
+
+    @Test
+    public void testLoggedQuery() {
+        getDs().save(new Rectangle(1, 2));
+        FindOptions options = new FindOptions().logQuery();
+        getDs().find(Rectangle.class).filter(gte("height", 1)).iterator(options).toList();
+
+        String logged = getDs().getLoggedQuery(options);
+        assertTrue(logged.contains("\"height\": {\"$gte\": 1}"), logged);
+    }
+
+    @Test
+    public void testProfilerWithoutLogger() {
+        getDs().save(new Rectangle(1, 2));
+        Datastore unlogged = createDatastore(getMongoClient(), getDatabase().getName());
+        Datastore unregistered = createDatastore(getMongoClient(), getDatabase().getName(), MapperOptions.builder()
+                                                                                                         .queryLogger(new QueryLogger())
+                                                                                                         .build());
+        for (Datastore datastore : List.of(unlogged, unregistered)) {
+            FindOptions options = new FindOptions().logQuery();
+            datastore.find(Rectangle.class).filter(gte("height", 1)).iterator(options).toList();
+            String logged = datastore.getLoggedQuery(options);
+            assertTrue(logged.contains("\"height\": {\"$gte\": 1}"), logged);
+        }
+        assertFalse(unregistered.getMapper().getOptions().getQueryLogger().isRegistered());
+    }
+}
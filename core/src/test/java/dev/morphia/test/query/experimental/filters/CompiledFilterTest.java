@@ -0,0 +1,198 @@
+package dev.morphia.test.query.experimental.filters;
+
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import dev.morphia.annotations.Property;
+import dev.morphia.query.experimental.filters.CompiledFilter;
+import dev.morphia.query.experimental.filters.Filter;
+import dev.morphia.test.TestBase;
+import org.bson.types.ObjectId;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static dev.morphia.aggregation.experimental.expressions.Expressions.field;
+import static dev.morphia.query.experimental.filters.Filters.all;
+import static dev.morphia.query.experimental.filters.Filters.and;
+import static dev.morphia.query.experimental.filters.Filters.elemMatch;
+import static dev.morphia.query.experimental.filters.Filters.eq;
+import static dev.morphia.query.experimental.filters.Filters.exists;
+import static dev.morphia.query.experimental.filters.Filters.expr;
+import static dev.morphia.query.experimental.filters.Filters.gt;
+import static dev.morphia.query.experimental.filters.Filters.gte;
+import static dev.morphia.query.experimental.filters.Filters.in;
+import static dev.morphia.query.experimental.filters.Filters.lt;
+import static dev.morphia.query.experimental.filters.Filters.ne;
+import static dev.morphia.query.experimental.filters.Filters.nin;
+import static dev.morphia.query.experimental.filters.Filters.nor;
+import static dev.morphia.query.experimental.filters.Filters.or;
+import static dev.morphia.query.experimental.filters.Filters.regex;
+import static dev.morphia.query.experimental.filters.Filters.size;
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+
+public class CompiledFilterTest extends TestBase {
+    private static final Date EPOCH = new Date(1_600_000_000_000L);
+
+    @Test
+    public void testFilters() {
+        List<Person> people = people();
+        for (Entry<String, Supplier<Filter>> entry : filters().entrySet()) {
+            CompiledFilter<Person> filter = CompiledFilter.compile(getMapper(), Person.class, entry.getValue().get());
+            List<String> expected = expected().get(entry.getKey());
+
+            assertEquals(names(people.stream().filter(filter)), expected, entry.getKey());
+            assertEquals(names(people.stream().filter(p -> filter.matches(getMapper().toDocument(p)))), expected,
+                entry.getKey() + " against documents");
+        }
+    }
+
+    @Test
+    public void testMatchesServer() {
+        getDs().save(people());
+        for (Entry<String, Supplier<Filter>> entry : filters().entrySet()) {
+            List<Person> found = getDs().find(Person.class)
+                                        .filter(entry.getValue().get())
+                                        .iterator()
+                                        .toList();
+            assertEquals(names(found.stream()), expected().get(entry.getKey()), entry.getKey());
+        }
+    }
+
+    @Test
+    public void testUnsupported() {
+        assertThrows(UnsupportedOperationException.class,
+            () -> CompiledFilter.compile(getMapper(), Person.class, expr(field("age"))));
+    }
+
+    private Map<String, Supplier<Filter>> filters() {
+        Map<String, Supplier<Filter>> filters = new LinkedHashMap<>();
+        filters.put("eq", () -> eq("name", "Ann"));
+        filters.put("eq renamed", () -> eq("address.city", "Paris"));
+        filters.put("eq array", () -> eq("tags", "red"));
+        filters.put("eq enum", () -> eq("status", Status.INACTIVE));
+        filters.put("eq null", () -> eq("nickname", null));
+        filters.put("ne", () -> ne("age", 30));
+        filters.put("range", () -> and(gte("age", 20), lt("age", 40)));
+        filters.put("date", () -> gt("joined", EPOCH));
+        filters.put("in", () -> in("name", List.of("Ann", "Cid")));
+        filters.put("nin", () -> nin("tags", List.of("red")));
+        filters.put("all", () -> all("tags", List.of("red", "blue")));
+        filters.put("exists", () -> exists("nickname"));
+        filters.put("not exists", () -> exists("nickname").not());
+        filters.put("size", () -> size("tags", 2));
+        filters.put("regex", () -> regex("name").pattern("^b").caseInsensitive());
+        filters.put("elemMatch", () -> elemMatch("items", eq("sku", "a"), gt("quantity", 1)));
+        filters.put("nested array", () -> eq("items.sku", "b"));
+        filters.put("or", () -> or(eq("name", "Ann"), lt("age", 20)));
+        filters.put("nor", () -> nor(eq("name", "Ann"), lt("age", 20)));
+        filters.put("not", () -> gt("age", 25).not());
+        return filters;
+    }
+
+    private Map<String, List<String>> expected() {
+        Map<String, List<String>> expected = new LinkedHashMap<>();
+        expected.put("eq", List.of("Ann"));
+        expected.put("eq renamed", List.of("Bob", "Cid"));
+        expected.put("eq array", List.of("Ann", "Cid"));
+        expected.put("eq enum", List.of("Cid"));
+        expected.put("eq null", List.of("Bob", "Cid"));
+        expected.put("ne", List.of("Ann", "Cid"));
+        expected.put("range", List.of("Ann", "Bob"));
+        expected.put("date", List.of("Bob", "Cid"));
+        expected.put("in", List.of("Ann", "Cid"));
+        expected.put("nin", List.of("Bob"));
+        expected.put("all", List.of("Ann", "Cid"));
+        expected.put("exists", List.of("Ann"));
+        expected.put("not exists", List.of("Bob", "Cid"));
+        expected.put("size", List.of("Ann"));
+        expected.put("regex", List.of("Bob"));
+        expected.put("elemMatch", List.of("Ann"));
+        expected.put("nested array", List.of("Ann", "Bob"));
+        expected.put("or", List.of("Ann", "Cid"));
+        expected.put("nor", List.of("Bob"));
+        expected.put("not", List.of("Ann", "Cid"));
+        return expected;
+    }
+
+    private List<String> names(Stream<Person> people) {
+        return people.map(p -> p.name).sorted().collect(Collectors.toList());
+    }
+
+    private List<Person> people() {
+        return List.of(
+            new Person("Ann", 25, "ann", "London", Status.ACTIVE, EPOCH, List.of("red", "blue"),
+                new Item("a", 1), new Item("a", 3), new Item("b", 1)),
+            new Person("Bob", 30, null, "Paris", Status.ACTIVE, new Date(EPOCH.getTime() + 1), List.of(), new Item("b", 5)),
+            new Person("Cid", 15, null, "Paris", Status.INACTIVE, new Date(EPOCH.getTime() + 2), List.of("red", "green", "blue")));
+    }
+
+    private enum Status {
+        ACTIVE,
+        INACTIVE
+    }
+
+    @Entity
+    private static class Person {
+        @Id
+        private ObjectId id = new ObjectId();
+        private String name;
+        private int age;
+        private String nickname;
+        private Address address;
+        private Status status;
+        private Date joined;
+        private List<String> tags;
+        private List<Item> items;
+
+        Person() {
+        }
+
+        Person(String name, int age, String nickname, String city, Status status, Date joined, List<String> tags, Item... items) {
+            this.name = name;
+            this.age = age;
+            this.nickname = nickname;
+            this.address = new Address(city);
+            this.status = status;
+            this.joined = joined;
+            this.tags = tags;
+            this.items = new ArrayList<>(asList(items));
+        }
+    }
+
+    @Entity
+    private static class Address {
+        @Property("c")
+        private String city;
+
+        Address() {
+        }
+
+        Address(String city) {
+            this.city = city;
+        }
+    }
+
+    @Entity
+    private static class Item {
+        private String sku;
+        private int quantity;
+
+        Item() {
+        }
+
+        Item(String sku, int quantity) {
+            this.sku = sku;
+            this.quantity = quantity;
+        }
+    }
+}
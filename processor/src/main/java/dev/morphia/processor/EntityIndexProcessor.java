@@ -0,0 +1,128 @@
+package dev.morphia.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates an index of the types annotated with {@code @Entity} or {@code @Embedded}, directly or through a supertype, at compile time.
+ * When the index is present on the classpath, {@code Mapper.mapPackage()} loads the listed types rather than scanning and initializing
+ * every class of the package in that jar or directory.  The index is written to {@value #INDEX} with one binary class name per line.
+ * <p>
+ * To use it, add {@code morphia-processor} to the annotation processor path of the module containing the entities.
+ *
+ * @since 2.2
+ */
+@SupportedAnnotationTypes("*")
+public class EntityIndexProcessor extends AbstractProcessor {
+    /**
+     * The location of the generated index
+     */
+    public static final String INDEX = "META-INF/morphia/entities.idx";
+
+    private static final Set<String> ANNOTATIONS = Set.of("dev.morphia.annotations.Entity", "dev.morphia.annotations.Embedded");
+
+    private final Set<String> entities = new TreeSet<>();
+    private final Set<String> compiled = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            write();
+        } else {
+            for (Element element : roundEnv.getRootElements()) {
+                collect(element);
+            }
+        }
+        return false;
+    }
+
+    private void collect(Element element) {
+        if (element.getKind().isClass() || element.getKind().isInterface()) {
+            TypeElement type = (TypeElement) element;
+            String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+            compiled.add(name);
+            if (element.getKind() != ElementKind.ANNOTATION_TYPE && isMapped(type)) {
+                entities.add(name);
+            }
+            for (Element enclosed : type.getEnclosedElements()) {
+                collect(enclosed);
+            }
+        }
+    }
+
+    private boolean isMapped(TypeElement type) {
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (ANNOTATIONS.contains(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        if (isMapped(type.getSuperclass())) {
+            return true;
+        }
+        for (TypeMirror anInterface : type.getInterfaces()) {
+            if (isMapped(anInterface)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isMapped(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && isMapped((TypeElement) ((DeclaredType) type).asElement());
+    }
+
+    private void write() {
+        // incremental builds only see the changed sources so keep the entries from the previous compilation for the types not
+        // recompiled this time which still exist
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+            try (Reader reader = existing.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                lines.lines()
+                     .map(String::trim)
+                     .filter(line -> !line.isEmpty() && !compiled.contains(line))
+                     .filter(line -> processingEnv.getElementUtils().getTypeElement(line.replace('$', '.')) != null)
+                     .forEach(entities::add);
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+            // no previous index
+        }
+        if (entities.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+            try (Writer writer = resource.openWriter()) {
+                for (String entity : entities) {
+                    writer.write(entity);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR, "Could not write the Morphia entity index: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package dev.morphia.processor;
+
+import org.testng.annotations.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class EntityIndexProcessorTest {
+    @Test
+    public void testIndex() throws IOException {
+        Path root = Files.createTempDirectory("morphia-processor");
+        Path classes = Files.createDirectories(root.resolve("classes"));
+        List<File> sources = new ArrayList<>();
+        sources.add(source(root, "dev.morphia.annotations.Entity", "package dev.morphia.annotations;\n"
+                                                                   + "import java.lang.annotation.*;\n"
+                                                                   + "@Retention(RetentionPolicy.RUNTIME)\n"
+                                                                   + "public @interface Entity {}"));
+        sources.add(source(root, "dev.morphia.annotations.Embedded", "package dev.morphia.annotations;\n"
+                                                                     + "import java.lang.annotation.*;\n"
+                                                                     + "@Retention(RetentionPolicy.RUNTIME)\n"
+                                                                     + "public @interface Embedded {}"));
+        sources.add(source(root, "com.example.User", "package com.example;\n"
+                                                     + "@dev.morphia.annotations.Entity\n"
+                                                     + "public class User {\n"
+                                                     + "    @dev.morphia.annotations.Embedded\n"
+                                                     + "    public static class Address {}\n"
+                                                     + "    public static class Helper {}\n"
+                                                     + "}"));
+        sources.add(source(root, "com.example.Admin", "package com.example;\n"
+                                                      + "public class Admin extends User {}"));
+        sources.add(source(root, "com.example.Util", "package com.example;\n"
+                                                     + "public class Util {}"));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        CompilationTask task = compiler.getTask(null, null, null, List.of("-d", classes.toString()), null,
+            compiler.getStandardFileManager(null, null, null).getJavaFileObjectsFromFiles(sources));
+        task.setProcessors(List.of(new EntityIndexProcessor()));
+        assertTrue(task.call());
+
+        List<String> index = Files.readAllLines(classes.resolve(EntityIndexProcessor.INDEX));
+        assertEquals(index, List.of("com.example.Admin", "com.example.User", "com.example.User$Address"));
+    }
+
+    private File source(Path root, String className, String content) throws IOException {
+        Path path = root.resolve("src").resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(path.getParent());
+        return Files.writeString(path, content).toFile();
+    }
+}